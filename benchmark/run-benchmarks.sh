@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+# 构建并运行基准，结果输出到target/jmh-result.json；传入基线文件时与之对比，超出阈值（默认10%）返回非0
+# 用法：./run-benchmarks.sh [baseline.json] [thresholdPercent] [JMH参数...]
+set -euo pipefail
+
+cd "$(dirname "$0")"
+BASELINE="${1:-}"
+THRESHOLD="${2:-10}"
+shift $(( $# > 2 ? 2 : $# ))
+
+(cd .. && mvn -B -q install -Dgpg.skip -Dmaven.javadoc.skip=true -Dmaven.source.skip=true)
+mvn -B -q package
+
+java -jar target/benchmarks.jar -prof gc -rf json -rff target/jmh-result.json "$@"
+
+if [[ -n "$BASELINE" ]]; then
+  java -cp target/benchmarks.jar com.github.wpyuan.casclienthelper.benchmark.BaselineComparator \
+    "$BASELINE" target/jmh-result.json "$THRESHOLD"
+fi
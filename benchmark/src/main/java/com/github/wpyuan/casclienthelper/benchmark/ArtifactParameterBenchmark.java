@@ -0,0 +1,112 @@
+package com.github.wpyuan.casclienthelper.benchmark;
+
+import com.github.wpyuan.casclienthelper.url.ArtifactParameterExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * 提取票据参数：旧实现（每次创建受限参数列表、contains判断后调用getParameter）与{@link ArtifactParameterExtractor}对比。
+ * mock请求在首次getParameter时像容器一样解析并解码整个查询字符串
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 15:50
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArtifactParameterBenchmark {
+
+    private static final String QUERY = "page=2&sort=desc&q=spring+boot&filter=a%2Cb&utm_source=newsletter&utm_campaign=2026";
+
+    private final ArtifactParameterExtractor extractor = new ArtifactParameterExtractor("ticket");
+    private ParsingRequest request;
+    private ParsingRequest ticketRequest;
+
+    @Setup
+    public void setUp() {
+        this.request = new ParsingRequest(QUERY);
+        this.ticketRequest = new ParsingRequest(QUERY + "&ticket=ST-1-abcdefghijklmnopqrstuvwxyz");
+    }
+
+    @Benchmark
+    public String legacyAbsent() {
+        this.request.reset();
+        return LegacyCommonUtils.safeGetParameter(this.request, "ticket");
+    }
+
+    @Benchmark
+    public String extractorAbsent() {
+        this.request.reset();
+        return this.extractor.extract(this.request);
+    }
+
+    @Benchmark
+    public String legacyPresent() {
+        this.ticketRequest.reset();
+        return LegacyCommonUtils.safeGetParameter(this.ticketRequest, "ticket");
+    }
+
+    @Benchmark
+    public String extractorPresent() {
+        this.ticketRequest.reset();
+        return this.extractor.extract(this.ticketRequest);
+    }
+
+    /**
+     * 模拟容器：首次getParameter时解析整个查询字符串
+     */
+    static final class ParsingRequest extends MockHttpServletRequest {
+
+        private Map<String, String> parsed;
+
+        ParsingRequest(String query) {
+            super("GET", "/app/orders/42");
+            setQueryString(query);
+        }
+
+        /**
+         * 每次操作相当于一个新请求
+         */
+        void reset() {
+            this.parsed = null;
+            clearAttributes();
+        }
+
+        @Override
+        public String getParameter(String name) {
+            if (this.parsed == null) {
+                this.parsed = new HashMap<>();
+                try {
+                    for (String pair : getQueryString().split("&")) {
+                        int eq = pair.indexOf('=');
+                        this.parsed.putIfAbsent(URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), "UTF-8"),
+                                eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+                    }
+                } catch (UnsupportedEncodingException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return this.parsed.get(name);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.wpyuan.casclienthelper.benchmark;
+
+import com.github.wpyuan.casclienthelper.attribute.AttributeProjector;
+import org.jasig.cas.client.authentication.AttributePrincipalImpl;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.AssertionImpl;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * 对比大量在线assertion的属性内存占用：默认解析结果（每个assertion独立的HashMap及字符串）与白名单加紧凑去重后的结果
+ * <pre>
+ * java -cp target/benchmarks.jar com.github.wpyuan.casclienthelper.benchmark.AttributeFootprint [assertion数，默认10000]
+ * </pre>
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 23:40
+ */
+public final class AttributeFootprint {
+
+    private static final int DEPARTMENTS = 20;
+    private static final int GROUPS_PER_USER = 30;
+
+    private AttributeFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        AttributeProjector projector = AttributeProjector.of(new HashSet<>(Arrays.asList("mail", "department", "memberOf")),
+                null, true);
+
+        List<Assertion> raw = new ArrayList<>(count);
+        List<Assertion> projected = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            raw.add(new AssertionImpl(new AttributePrincipalImpl("user" + i, parsedAttributes(i))));
+            projected.add(new AssertionImpl(new AttributePrincipalImpl("user" + i, projector.project(parsedAttributes(i)))));
+        }
+
+        long rawSize = GraphLayout.parseInstance(raw).totalSize();
+        long projectedSize = GraphLayout.parseInstance(projected).totalSize();
+        System.out.printf("assertions: %d%n", count);
+        System.out.printf("default:   %,d bytes (%,d bytes/assertion)%n", rawSize, rawSize / count);
+        System.out.printf("projected: %,d bytes (%,d bytes/assertion)%n", projectedSize, projectedSize / count);
+        System.out.printf("reduction: %.1fx%n", (double) rawSize / projectedSize);
+    }
+
+    /**
+     * 模拟校验器解析出的属性：每次解析都会产生新的字符串，同部门用户的组相同
+     */
+    private static Map<String, Object> parsedAttributes(int user) {
+        int department = user % DEPARTMENTS;
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(new String("mail"), "user" + user + "@example.com");
+        attributes.put(new String("department"), new String("department-" + department));
+        attributes.put(new String("displayName"), "User " + user);
+        attributes.put(new String("employeeType"), new String("staff"));
+        List<Object> groups = new ArrayList<>(GROUPS_PER_USER);
+        for (int g = 0; g < GROUPS_PER_USER; g++) {
+            groups.add("cn=group-" + department + "-" + g + ",ou=groups,dc=example,dc=com");
+        }
+        attributes.put(new String("memberOf"), groups);
+        return attributes;
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.wpyuan.casclienthelper.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * 对比两次JMH结果（{@code -rf json}），任一基准的耗时或每次操作分配字节数（gc.alloc.rate.norm）超出基线阈值时以非0退出，供CI使用：
+ * <pre>
+ * java -cp target/benchmarks.jar com.github.wpyuan.casclienthelper.benchmark.BaselineComparator baseline.json current.json [阈值百分比，默认10]
+ * </pre>
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 17:10
+ */
+public final class BaselineComparator {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineComparator <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10D;
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %9s%n", entry.getKey(), "-", entry.getValue().value, "new");
+                continue;
+            }
+            Score after = entry.getValue();
+            double change = before.value == 0 ? 0 : (after.value - before.value) * 100D / before.value;
+            // 吞吐量越低越差，其余（耗时、分配）越高越差
+            double regression = after.higherIsBetter ? -change : change;
+            boolean failed = regression > threshold && !(before.value == 0 && after.value == 0);
+            if (failed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), before.value, after.value, change, failed ? "  REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) regressed more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        JsonNode root = new ObjectMapper().readTree(file);
+        for (JsonNode result : root) {
+            String name = result.path("benchmark").asText() + params(result.path("params"));
+            boolean higherIsBetter = "thrpt".equals(result.path("mode").asText());
+            scores.put(name, new Score(result.path("primaryMetric").path("score").asDouble(), higherIsBetter));
+            JsonNode allocation = result.path("secondaryMetrics").path(ALLOCATION_METRIC);
+            if (!allocation.isMissingNode()) {
+                scores.put(name + ":" + ALLOCATION_METRIC, new Score(allocation.path("score").asDouble(), false));
+            }
+        }
+        return scores;
+    }
+
+    private static String params(JsonNode params) {
+        if (params.isMissingNode() || params.size() == 0) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder("(");
+        Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            builder.append(field.getKey()).append('=').append(field.getValue().asText());
+            if (fields.hasNext()) {
+                builder.append(',');
+            }
+        }
+        return builder.append(')').toString();
+    }
+
+    private static final class Score {
+        private final double value;
+        private final boolean higherIsBetter;
+
+        private Score(double value, boolean higherIsBetter) {
+            this.value = value;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.wpyuan.casclienthelper.benchmark;
+
+import com.github.wpyuan.casclienthelper.config.DefaultCasClientConfig;
+import com.github.wpyuan.casclienthelper.filter.AbstractCasClientAuthenticationFilter;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.TicketValidationException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * <p>
+ * 基准使用的过滤器，配置固定并按单一key缓存
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 16:40
+ */
+public class BenchmarkCasClientFilter extends AbstractCasClientAuthenticationFilter {
+
+    private final DefaultCasClientConfig config;
+
+    public BenchmarkCasClientFilter(DefaultCasClientConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * @param casServerUrlPrefix cas服务地址前缀
+     * @return 基准默认配置
+     */
+    public static DefaultCasClientConfig defaultConfig(String casServerUrlPrefix) {
+        return new DefaultCasClientConfig().toBuilder()
+                .casServerUrlPrefix(casServerUrlPrefix)
+                .casServerLoginUrl(casServerUrlPrefix + "/login")
+                .serverName("https://app.example.com")
+                .build();
+    }
+
+    @Override
+    protected String configKey(HttpServletRequest request) {
+        return "benchmark";
+    }
+
+    @Override
+    public DefaultCasClientConfig load(HttpServletRequest request, HttpServletResponse response) {
+        return this.config;
+    }
+
+    @Override
+    public HttpServletRequest onSuccessfulValidation(HttpServletRequest request, HttpServletResponse response, Assertion assertion) {
+        return request;
+    }
+
+    @Override
+    public void onFailedValidation(HttpServletRequest request, HttpServletResponse response, TicketValidationException e) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.wpyuan.casclienthelper.benchmark;
+
+import com.github.wpyuan.casclienthelper.config.DefaultCasClientConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import javax.servlet.FilterChain;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * 大量并发登录（携带ticket的请求同步校验）的吞吐量：每个登录一个线程，虚拟线程（Java 21）或固定大小的平台线程池，
+ * 经过滤器访问本地cas服务端桩。Java 21运行时多版本jar使用JDK HttpClient传输，校验期间虚拟线程不占住载体线程
+ * <pre>
+ * java -cp target/benchmarks.jar com.github.wpyuan.casclienthelper.benchmark.ConcurrentLoginBenchmark [virtual|platform] [登录数，默认10000] [平台线程数，默认200]
+ * </pre>
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 13:50
+ */
+public final class ConcurrentLoginBenchmark {
+
+    private static final FilterChain NOOP_CHAIN = (request, response) -> {
+    };
+
+    private ConcurrentLoginBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "virtual";
+        int logins = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int platformThreads = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        try (StubCasServer casServer = new StubCasServer()) {
+            DefaultCasClientConfig config = BenchmarkCasClientFilter.defaultConfig(casServer.getCasServerUrlPrefix())
+                    .toBuilder()
+                    .streamingValidation(true)
+                    .ticketValidationCacheTtl(0)
+                    .build();
+            BenchmarkCasClientFilter filter = new BenchmarkCasClientFilter(config);
+            // 预热：建立连接、加载类
+            run(filter, Executors.newFixedThreadPool(16), Math.min(logins, 2000));
+
+            ExecutorService executor = "platform".equals(mode) ? Executors.newFixedThreadPool(platformThreads) : newVirtualThreadExecutor();
+            long start = System.nanoTime();
+            int succeeded = run(filter, executor, logins);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("java %s, %s threads, %d logins%n", System.getProperty("java.version"), mode, logins);
+            System.out.printf("succeeded: %d%n", succeeded);
+            System.out.printf("elapsed:   %,d ms%n", TimeUnit.NANOSECONDS.toMillis(elapsed));
+            System.out.printf("throughput: %,.0f logins/s%n", logins * 1e9 / elapsed);
+            filter.destroy();
+        }
+    }
+
+    /**
+     * 所有登录同时开始，返回校验通过（重定向去掉ticket）的数量
+     */
+    private static int run(BenchmarkCasClientFilter filter, ExecutorService executor, int logins) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(logins);
+        for (int i = 0; i < logins; i++) {
+            String ticket = "ST-" + i + "-benchmark";
+            futures.add(executor.submit(() -> {
+                start.await();
+                MockHttpSession session = new MockHttpSession();
+                session.setNew(false);
+                MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/orders/42");
+                request.setQueryString("ticket=" + ticket);
+                request.setParameter("ticket", ticket);
+                request.setSession(session);
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                filter.doFilter(request, response, NOOP_CHAIN);
+                if ("https://app.example.com/app/orders/42".equals(response.getRedirectedUrl())) {
+                    succeeded.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        return succeeded.get();
+    }
+
+    /**
+     * 基准以Java 8编译，通过反射创建虚拟线程池
+     */
+    private static ExecutorService newVirtualThreadExecutor() throws Exception {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("virtual threads require Java 21, run with platform mode instead", e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.wpyuan.casclienthelper.benchmark;
+
+import org.jasig.cas.client.validation.AssertionImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.jasig.cas.client.util.AbstractCasFilter.CONST_CAS_ASSERTION;
+
+/**
+ * <p>
+ * AbstractCasClientAuthenticationFilter.doFilterInternal的三条主要路径：
+ * session中已有assertion、跳转cas登录页、携带ticket校验（访问本地cas服务端桩）
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 16:50
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+    private static final FilterChain NOOP_CHAIN = (request, response) -> {
+    };
+
+    @State(Scope.Thread)
+    public static class AuthenticatedState {
+        BenchmarkCasClientFilter filter;
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setUp() {
+            this.filter = new BenchmarkCasClientFilter(BenchmarkCasClientFilter.defaultConfig("https://cas.example.com/cas"));
+            MockHttpSession session = new MockHttpSession();
+            session.setNew(false);
+            session.setAttribute(CONST_CAS_ASSERTION, new AssertionImpl("benchmark"));
+            this.request = new MockHttpServletRequest("GET", "/app/orders/42");
+            this.request.setQueryString("page=2&sort=desc");
+            this.request.setSession(session);
+            this.response = new MockHttpServletResponse();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class UnauthenticatedState {
+        BenchmarkCasClientFilter filter;
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setUp() {
+            this.filter = new BenchmarkCasClientFilter(BenchmarkCasClientFilter.defaultConfig("https://cas.example.com/cas"));
+            this.request = new MockHttpServletRequest("GET", "/app/orders/42");
+            this.request.setQueryString("page=2&sort=desc");
+            this.response = new MockHttpServletResponse();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ValidationState {
+        StubCasServer casServer;
+        BenchmarkCasClientFilter filter;
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+        MockHttpSession session;
+
+        @Setup
+        public void setUp() throws IOException {
+            this.casServer = new StubCasServer();
+            this.filter = new BenchmarkCasClientFilter(BenchmarkCasClientFilter.defaultConfig(this.casServer.getCasServerUrlPrefix())
+                    .toBuilder()
+                    // 每次都真正访问cas服务端
+                    .ticketValidationCacheTtl(0)
+                    .build());
+            this.session = new MockHttpSession();
+            this.session.setNew(false);
+            this.request = new MockHttpServletRequest("GET", "/app/orders/42");
+            this.request.setQueryString("page=2&sort=desc&ticket=ST-1-benchmark");
+            this.request.setParameter("ticket", "ST-1-benchmark");
+            this.request.setSession(this.session);
+            this.response = new MockHttpServletResponse();
+        }
+
+        @TearDown
+        public void tearDown() {
+            this.casServer.close();
+        }
+    }
+
+    @Benchmark
+    public void authenticated(AuthenticatedState state) throws ServletException, IOException {
+        // 每个真实请求都是新的request，不能复用上次留下的service url等请求属性
+        state.request.clearAttributes();
+        state.filter.doFilter(state.request, state.response, NOOP_CHAIN);
+    }
+
+    @Benchmark
+    public String redirectToLogin(UnauthenticatedState state) throws ServletException, IOException {
+        state.response.setCommitted(false);
+        state.response.reset();
+        state.request.clearAttributes();
+        state.filter.doFilter(state.request, state.response, NOOP_CHAIN);
+        return state.response.getRedirectedUrl();
+    }
+
+    @Benchmark
+    public String validateTicket(ValidationState state) throws ServletException, IOException {
+        state.response.setCommitted(false);
+        state.response.reset();
+        state.request.clearAttributes();
+        state.session.clearAttributes();
+        state.filter.doFilter(state.request, state.response, NOOP_CHAIN);
+        return state.response.getRedirectedUrl();
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.wpyuan.casclienthelper.benchmark;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * 0.0.7之前{@code CommonUtils}中service url、登录重定向地址、票据参数相关实现的原样拷贝，作为基准对比
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 16:00
+ */
+final class LegacyCommonUtils {
+
+    private LegacyCommonUtils() {
+    }
+
+    static String findMatchingServerName(HttpServletRequest request, String serverName) {
+        String[] serverNames = serverName.split(" ");
+        if (serverNames != null && serverNames.length != 0 && serverNames.length != 1) {
+            String host = request.getHeader("Host");
+            String xHost = request.getHeader("X-Forwarded-Host");
+            String comparisonHost;
+            if (xHost != null && host == "localhost") {
+                comparisonHost = xHost;
+            } else {
+                comparisonHost = host;
+            }
+
+            if (comparisonHost == null) {
+                return serverName;
+            } else {
+                for (String server : serverNames) {
+                    String lowerCaseServer = server.toLowerCase();
+                    if (lowerCaseServer.contains(comparisonHost)) {
+                        return server;
+                    }
+                }
+                return serverNames[0];
+            }
+        } else {
+            return serverName;
+        }
+    }
+
+    private static boolean serverNameContainsPort(boolean containsScheme, String serverName) {
+        if (!containsScheme && serverName.contains(":")) {
+            return true;
+        } else {
+            int schemeIndex = serverName.indexOf(":");
+            int portIndex = serverName.lastIndexOf(":");
+            return schemeIndex != portIndex;
+        }
+    }
+
+    private static boolean requestIsOnStandardPort(HttpServletRequest request) {
+        int serverPort = request.getServerPort();
+        return serverPort == 80 || serverPort == 443;
+    }
+
+    static String constructServiceUrl(HttpServletRequest request, HttpServletResponse response, String serverNames, String artifactParameterName, boolean appendPort, boolean encode) {
+        StringBuilder buffer = new StringBuilder();
+        String serverName = findMatchingServerName(request, serverNames);
+        boolean containsScheme = true;
+        if (!serverName.startsWith("https://") && !serverName.startsWith("http://")) {
+            buffer.append(request.isSecure() ? "https://" : "http://");
+            containsScheme = false;
+        }
+
+        buffer.append(serverName);
+        if (appendPort && !serverNameContainsPort(containsScheme, serverName) && !requestIsOnStandardPort(request)) {
+            buffer.append(":");
+            buffer.append(request.getServerPort());
+        }
+
+        buffer.append(request.getRequestURI());
+        if (request.getQueryString() != null && request.getQueryString().trim().length() != 0) {
+            int location = request.getQueryString().indexOf(artifactParameterName + "=");
+            if (location == 0) {
+                return encode ? response.encodeURL(buffer.toString()) : buffer.toString();
+            }
+
+            buffer.append("?");
+            if (location == -1) {
+                buffer.append(request.getQueryString());
+            } else if (location > 0) {
+                int actualLocation = request.getQueryString().indexOf("&" + artifactParameterName + "=");
+                if (actualLocation == -1) {
+                    buffer.append(request.getQueryString());
+                } else if (actualLocation > 0) {
+                    buffer.append(request.getQueryString().substring(0, actualLocation));
+                }
+            }
+        }
+
+        return encode ? response.encodeURL(buffer.toString()) : buffer.toString();
+    }
+
+    static String constructRedirectUrl(String casServerLoginUrl, String serviceParameterName, String serviceUrl, boolean renew, boolean gateway) {
+        return casServerLoginUrl + (casServerLoginUrl.contains("?") ? "&" : "?") + serviceParameterName + "=" + urlEncode(serviceUrl) + (renew ? "&renew=true" : "") + (gateway ? "&gateway=true" : "");
+    }
+
+    static String urlEncode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException var2) {
+            UnsupportedEncodingException e = var2;
+            throw new RuntimeException(e);
+        }
+    }
+
+    static String safeGetParameter(HttpServletRequest request, String parameter, List<String> parameters) {
+        if ("POST".equals(request.getMethod()) && parameters.contains(parameter)) {
+            return request.getParameter(parameter);
+        } else {
+            return request.getQueryString() != null && request.getQueryString().contains(parameter) ? request.getParameter(parameter) : null;
+        }
+    }
+
+    static String safeGetParameter(HttpServletRequest request, String parameter) {
+        return safeGetParameter(request, parameter, Arrays.asList("logoutRequest"));
+    }
+}
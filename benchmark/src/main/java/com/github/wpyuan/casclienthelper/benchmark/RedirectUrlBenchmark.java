@@ -0,0 +1,46 @@
+package com.github.wpyuan.casclienthelper.benchmark;
+
+import com.github.wpyuan.casclienthelper.url.RedirectUrlTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * 登录重定向地址：旧实现（每次判断分隔符、字符串相加、URLEncoder）与{@link RedirectUrlTemplate}对比
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 10:50
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedirectUrlBenchmark {
+
+    private static final String LOGIN_URL = "https://cas.example.com/cas/login";
+    private static final String SERVICE_URL = "https://b.example.com:8443/app/orders/42?page=2&sort=desc";
+
+    private final RedirectUrlTemplate template = new RedirectUrlTemplate(LOGIN_URL, "service", false, true);
+
+    @Benchmark
+    public String legacy() {
+        return LegacyCommonUtils.constructRedirectUrl(LOGIN_URL, "service", SERVICE_URL, false, true);
+    }
+
+    @Benchmark
+    public String template() {
+        return this.template.render(SERVICE_URL);
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.wpyuan.casclienthelper.benchmark;
+
+import com.github.wpyuan.casclienthelper.url.ServiceUrlBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * service url构建：旧实现（每次拆分serverName、多次读取查询字符串）与{@link ServiceUrlBuilder}对比。
+ * 票据校验请求旧实现要构建3次，新实现按请求属性只构建1次
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 16:10
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceUrlBenchmark {
+
+    private static final String SERVER_NAMES = "https://a.example.com https://b.example.com:8443 https://c.example.com";
+    private static final String ARTIFACT = "ticket";
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private ServiceUrlBuilder builder;
+
+    @Setup
+    public void setUp() {
+        this.request = new MockHttpServletRequest("GET", "/app/orders/42");
+        this.request.setServerPort(8443);
+        this.request.setSecure(true);
+        this.request.addHeader("Host", "b.example.com:8443");
+        this.request.setQueryString("page=2&sort=desc&ticket=ST-1-abcdefghijklmnopqrstuvwxyz");
+        this.response = new MockHttpServletResponse();
+        this.builder = new ServiceUrlBuilder(SERVER_NAMES, ARTIFACT, true, true);
+    }
+
+    @Benchmark
+    public String legacySingle() {
+        return LegacyCommonUtils.constructServiceUrl(this.request, this.response, SERVER_NAMES, ARTIFACT, true, true);
+    }
+
+    @Benchmark
+    public String builderSingle() {
+        return this.builder.construct(this.request, this.response);
+    }
+
+    /**
+     * 票据校验请求：serviceUrl、validate、校验后重定向各构建一次
+     */
+    @Benchmark
+    public String legacyValidationRequest() {
+        LegacyCommonUtils.constructServiceUrl(this.request, this.response, SERVER_NAMES, ARTIFACT, true, true);
+        LegacyCommonUtils.constructServiceUrl(this.request, this.response, SERVER_NAMES, ARTIFACT, true, true);
+        return LegacyCommonUtils.constructServiceUrl(this.request, this.response, SERVER_NAMES, ARTIFACT, true, true);
+    }
+
+    @Benchmark
+    public String builderValidationRequest() {
+        this.request.removeAttribute(ServiceUrlBuilder.SERVICE_URL_ATTRIBUTE);
+        this.builder.build(this.request, this.response);
+        this.builder.build(this.request, this.response);
+        return this.builder.build(this.request, this.response);
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.wpyuan.casclienthelper.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>
+ * 本地cas服务端桩，任何票据都校验成功
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 16:45
+ */
+public class StubCasServer implements AutoCloseable {
+
+    private static final byte[] SUCCESS = ("<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas'>"
+            + "<cas:authenticationSuccess><cas:user>benchmark</cas:user></cas:authenticationSuccess>"
+            + "</cas:serviceResponse>").getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    static {
+        // 关闭Nagle，避免与客户端延迟确认叠加出现约40ms的固定延迟
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    public StubCasServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        this.executor = Executors.newFixedThreadPool(8);
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/cas", this::validate);
+        this.server.start();
+    }
+
+    /**
+     * @return cas服务地址前缀
+     */
+    public String getCasServerUrlPrefix() {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort() + "/cas";
+    }
+
+    private void validate(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/xml;charset=UTF-8");
+        exchange.sendResponseHeaders(200, SUCCESS.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(SUCCESS);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+}
@@ -0,0 +1,319 @@
+package com.github.wpyuan.casclienthelper.benchmark.load;
+
+import com.github.wpyuan.casclienthelper.metrics.FilterOutcome;
+import com.github.wpyuan.casclienthelper.metrics.SimpleCasClientMetrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * 负载测试：启动模拟cas服务端及内嵌Tomcat中的示例应用，以大量并发的模拟浏览器执行指定场景，
+ * 输出吞吐量、每个流程耗时的p50/p99及容器侧每个流程的内存分配
+ * <pre>
+ * java -cp target/benchmarks.jar com.github.wpyuan.casclienthelper.benchmark.load.LoadDriver [--参数=值 ...]
+ *
+ * --scenario=login        login：完整登录（访问应用、跳转cas、携带ticket返回校验、访问应用）
+ *                         redirect：未登录请求跳转登录页（重定向风暴）
+ *                         ticket-flood：携带无效ticket的请求（票据洪泛，每个都访问cas服务端）
+ *                         authenticated：已登录用户的普通请求
+ * --flows=5000            流程数
+ * --warmup=1000           预热流程数
+ * --concurrency=200       并发模拟浏览器数
+ * --container-threads=200 Tomcat最大工作线程数
+ * --latency=0             cas服务端响应延迟（毫秒）
+ * --jitter=0              cas服务端随机附加延迟上限（毫秒）
+ * --error-rate=0          cas服务端返回500的比例，0~1
+ * --async=false           开启异步校验
+ * --streaming=true        流式解析校验响应，false时使用cas-client-core的校验器
+ * --proxy=false           校验时申请PGT，登录后为后端服务申请proxy ticket
+ * </pre>
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 15:00
+ */
+public final class LoadDriver {
+
+    private static final String PAGE_PATH = "/app/orders";
+    private static final String PROXY_TARGET = "http://backend.example.com/api";
+
+    private final Map<String, String> options;
+    private final String scenario;
+    private final int concurrency;
+    private final boolean proxy;
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    /**
+     * 伪造ticket的序号，预热与正式运行不重复，避免命中校验结果缓存
+     */
+    private final AtomicLong forgedTickets = new AtomicLong();
+
+    private SampleApplication application;
+    private String casLoginUrl;
+
+    private LoadDriver(Map<String, String> options) {
+        this.options = options;
+        this.scenario = this.option("scenario", "login");
+        this.concurrency = Integer.parseInt(this.option("concurrency", "200"));
+        this.proxy = Boolean.parseBoolean(this.option("proxy", "false"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        new LoadDriver(options).run();
+    }
+
+    private String option(String name, String defaultValue) {
+        String value = this.options.get(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private void run() throws Exception {
+        // 默认每个目标地址只保留5个空闲连接，并发高时大量连接用完即关，耗尽本地端口
+        System.setProperty("http.maxConnections", String.valueOf(Math.max(this.concurrency, 5)));
+        int flows = Integer.parseInt(this.option("flows", "5000"));
+        int warmup = Integer.parseInt(this.option("warmup", "1000"));
+        long latency = Long.parseLong(this.option("latency", "0"));
+        long jitter = Long.parseLong(this.option("jitter", "0"));
+        double errorRate = Double.parseDouble(this.option("error-rate", "0"));
+
+        try (SimulatedCasServer casServer = new SimulatedCasServer();
+             SampleApplication application = new SampleApplication(casServer.getCasServerUrlPrefix(),
+                     Integer.parseInt(this.option("container-threads", "200")))) {
+            this.application = application;
+            this.casLoginUrl = casServer.getCasServerUrlPrefix() + "/login";
+            application.configure(builder -> {
+                builder.asyncValidation(Boolean.parseBoolean(this.option("async", "false")))
+                        .streamingValidation(Boolean.parseBoolean(this.option("streaming", "true")));
+                if (this.proxy) {
+                    builder.proxyReceptorUrl(SampleApplication.PROXY_RECEPTOR_PATH)
+                            .proxyCallbackUrl(application.getBaseUrl() + SampleApplication.PROXY_RECEPTOR_PATH);
+                }
+                return builder;
+            });
+
+            ExecutorService executor = Executors.newFixedThreadPool(this.concurrency, new DriverThreadFactory());
+            SimulatedBrowser[] browsers = this.prepareBrowsers(executor);
+            this.runFlows(executor, browsers, warmup);
+
+            casServer.setLatency(latency, jitter);
+            casServer.setErrorRate(errorRate);
+            SimpleCasClientMetrics metrics = new SimpleCasClientMetrics();
+            application.getFilter().setMetrics(metrics);
+            this.failures.clear();
+            long issued = casServer.getIssued();
+            long validated = casServer.getValidated();
+            long rejected = casServer.getRejected();
+            long errors = casServer.getErrors();
+            long proxyTickets = casServer.getProxyTickets();
+            long allocatedBefore = containerAllocatedBytes();
+            long start = System.nanoTime();
+            long[] latencies = this.runFlows(executor, browsers, flows);
+            long elapsed = System.nanoTime() - start;
+            long allocated = containerAllocatedBytes() - allocatedBefore;
+            executor.shutdown();
+
+            long failed = 0;
+            for (LongAdder count : this.failures.values()) {
+                failed += count.sum();
+            }
+            Arrays.sort(latencies);
+            System.out.printf("java %s, scenario %s, %d flows, %d concurrent browsers%n",
+                    System.getProperty("java.version"), this.scenario, flows, this.concurrency);
+            System.out.printf("cas server: latency %d+%d ms, error rate %.1f%%%n", latency, jitter, errorRate * 100);
+            System.out.printf("succeeded: %d, failed: %d%n", flows - failed, failed);
+            for (Map.Entry<String, LongAdder> failure : this.failures.entrySet()) {
+                System.out.printf("  %6d  %s%n", failure.getValue().sum(), failure.getKey());
+            }
+            System.out.printf("elapsed:    %,d ms%n", TimeUnit.NANOSECONDS.toMillis(elapsed));
+            System.out.printf("throughput: %,.0f flows/s%n", flows * 1e9 / elapsed);
+            System.out.printf("latency:    p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6, latencies[latencies.length - 1] / 1e6);
+            System.out.printf("allocation: %,d bytes/flow (container and cas-* threads)%n", allocated / flows);
+            System.out.printf("cas calls:  issued %d, validated %d, rejected %d, errors %d, proxy tickets %d%n",
+                    casServer.getIssued() - issued, casServer.getValidated() - validated, casServer.getRejected() - rejected,
+                    casServer.getErrors() - errors, casServer.getProxyTickets() - proxyTickets);
+            StringBuilder outcomes = new StringBuilder();
+            for (FilterOutcome outcome : FilterOutcome.values()) {
+                if (metrics.getCount(outcome) > 0) {
+                    outcomes.append(' ').append(outcome.name().toLowerCase()).append('=').append(metrics.getCount(outcome));
+                }
+            }
+            System.out.printf("filter:    %s%n", outcomes);
+        }
+    }
+
+    /**
+     * authenticated场景每个并发浏览器先登录一次，其余场景每个流程使用新的浏览器
+     */
+    private SimulatedBrowser[] prepareBrowsers(ExecutorService executor) throws Exception {
+        if (!"authenticated".equals(this.scenario)) {
+            return null;
+        }
+        SimulatedBrowser[] browsers = new SimulatedBrowser[this.concurrency];
+        List<Future<?>> futures = new ArrayList<>(this.concurrency);
+        for (int i = 0; i < this.concurrency; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                browsers[index] = new SimulatedBrowser(this.application.getBaseUrl());
+                this.login(browsers[index]);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return browsers;
+    }
+
+    private long[] runFlows(ExecutorService executor, SimulatedBrowser[] browsers, int flows) throws Exception {
+        long[] latencies = new long[flows];
+        AtomicInteger next = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>(this.concurrency);
+        for (int i = 0; i < this.concurrency; i++) {
+            SimulatedBrowser browser = browsers != null ? browsers[i] : null;
+            workers.add(executor.submit(() -> {
+                int flow;
+                while ((flow = next.getAndIncrement()) < flows) {
+                    long start = System.nanoTime();
+                    try {
+                        this.runFlow(browser);
+                    } catch (FlowException e) {
+                        this.failures.computeIfAbsent(e.getMessage(), key -> new LongAdder()).increment();
+                    } catch (Exception e) {
+                        this.failures.computeIfAbsent(e.getClass().getSimpleName() + ": " + e.getMessage(), key -> new LongAdder()).increment();
+                    }
+                    latencies[flow] = System.nanoTime() - start;
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        return latencies;
+    }
+
+    private void runFlow(SimulatedBrowser browser) throws Exception {
+        String app = this.application.getBaseUrl();
+        switch (this.scenario) {
+            case "login":
+                this.login(new SimulatedBrowser(app));
+                break;
+            case "redirect":
+                expectRedirect("redirect to login", new SimulatedBrowser(app).get(app + PAGE_PATH), this.casLoginUrl);
+                break;
+            case "ticket-flood": {
+                SimulatedBrowser flooding = new SimulatedBrowser(app);
+                flooding.get(app + PAGE_PATH);
+                SimulatedBrowser.Response response = flooding.get(app + PAGE_PATH + "?ticket=ST-forged-" + this.forgedTickets.incrementAndGet());
+                if (response.status != 403) {
+                    throw new FlowException("forged ticket: " + response);
+                }
+                break;
+            }
+            case "authenticated": {
+                SimulatedBrowser.Response response = browser.get(app + PAGE_PATH);
+                if (response.status != 200) {
+                    throw new FlowException("authenticated request: " + response);
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("unknown scenario: " + this.scenario);
+        }
+    }
+
+    /**
+     * 完整登录流程：访问应用、跳转cas登录（模拟cas服务端直接签发ticket）、携带ticket返回校验、再次访问应用
+     */
+    private void login(SimulatedBrowser browser) throws Exception {
+        String page = this.application.getBaseUrl() + PAGE_PATH + (this.proxy ? "?proxy=" + SimulatedCasServer.encode(PROXY_TARGET) : "");
+        SimulatedBrowser.Response response = browser.get(page);
+        expectRedirect("redirect to login", response, this.casLoginUrl);
+        response = browser.get(response.location);
+        expectRedirect("ticket issued", response, this.application.getBaseUrl());
+        response = browser.get(response.location);
+        if (response.status == 403) {
+            throw new FlowException("ticket validation failed");
+        }
+        if (response.status == 302 && response.location != null && response.location.startsWith(this.casLoginUrl)) {
+            // 容器在响应发出后才把session标记为非新建，浏览器立即带ticket返回时ticket会被当作过期ticket忽略
+            throw new FlowException("ticket ignored, session still new");
+        }
+        // 新建session时service url会带上;jsessionid，只比较路径
+        expectRedirect("redirect after validation", response, this.application.getBaseUrl() + PAGE_PATH);
+        response = browser.get(response.location);
+        if (response.status != 200 || !response.body.startsWith("hello ")) {
+            throw new FlowException("authenticated page: " + response);
+        }
+    }
+
+    private static void expectRedirect(String step, SimulatedBrowser.Response response, String locationPrefix) {
+        if (response.status != 302 || response.location == null || !response.location.startsWith(locationPrefix)) {
+            throw new FlowException(step + ": " + response);
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    /**
+     * 容器工作线程及过滤器内部线程（cas-*）累计分配的字节数，虚拟线程不计入
+     */
+    private static long containerAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            String name = thread.getName();
+            if (name.startsWith("http-nio-") || name.startsWith("cas-")) {
+                long allocated = threads.getThreadAllocatedBytes(thread.getId());
+                if (allocated > 0) {
+                    total += allocated;
+                }
+            }
+        }
+        return total;
+    }
+
+    private static final class FlowException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        FlowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static final class DriverThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "load-driver-" + this.sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
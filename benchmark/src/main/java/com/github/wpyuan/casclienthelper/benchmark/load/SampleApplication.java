@@ -0,0 +1,153 @@
+package com.github.wpyuan.casclienthelper.benchmark.load;
+
+import com.github.wpyuan.casclienthelper.config.DefaultCasClientConfig;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.session.StandardManager;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
+import org.jasig.cas.client.validation.Assertion;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.function.UnaryOperator;
+
+import static org.jasig.cas.client.util.AbstractCasFilter.CONST_CAS_ASSERTION;
+
+/**
+ * <p>
+ * 内嵌Tomcat承载的示例应用：{@link SampleCasClientFilter}拦截全部请求，servlet返回当前用户；
+ * 请求带proxy参数时用PGT为后端服务申请proxy ticket
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 14:45
+ */
+public class SampleApplication implements AutoCloseable {
+
+    /**
+     * cas服务端回调PGT的地址
+     */
+    public static final String PROXY_RECEPTOR_PATH = "/cas/proxyCallback";
+
+    private final String casServerUrlPrefix;
+    private final Tomcat tomcat;
+    private final SampleCasClientFilter filter = new SampleCasClientFilter();
+    private final File baseDir;
+    private final String baseUrl;
+
+    /**
+     * 启动容器，之后须调用{@link #configure}设置过滤器配置
+     *
+     * @param casServerUrlPrefix cas服务地址前缀
+     * @param maxThreads         容器最大工作线程数
+     */
+    public SampleApplication(String casServerUrlPrefix, int maxThreads) throws IOException, LifecycleException {
+        this.casServerUrlPrefix = casServerUrlPrefix;
+        this.baseDir = Files.createTempDirectory("cas-load-tomcat").toFile();
+        this.tomcat = new Tomcat();
+        this.tomcat.setBaseDir(this.baseDir.getAbsolutePath());
+        Connector connector = new Connector();
+        connector.setPort(0);
+        connector.setProperty("address", "127.0.0.1");
+        connector.setProperty("maxThreads", String.valueOf(maxThreads));
+        connector.setProperty("acceptCount", "1024");
+        connector.setProperty("maxKeepAliveRequests", "-1");
+        this.tomcat.setConnector(connector);
+
+        Context context = this.tomcat.addContext("", this.baseDir.getAbsolutePath());
+        StandardManager manager = new StandardManager();
+        // 停止时不持久化session
+        manager.setPathname(null);
+        context.setManager(manager);
+
+        FilterDef filterDef = new FilterDef();
+        filterDef.setFilterName("cas");
+        filterDef.setFilter(this.filter);
+        filterDef.setAsyncSupported("true");
+        context.addFilterDef(filterDef);
+        FilterMap filterMap = new FilterMap();
+        filterMap.setFilterName("cas");
+        filterMap.addURLPattern("/*");
+        filterMap.setDispatcher("REQUEST");
+        filterMap.setDispatcher("ASYNC");
+        context.addFilterMap(filterMap);
+        Tomcat.addServlet(context, "hello", new HelloServlet()).setAsyncSupported(true);
+        context.addServletMappingDecoded("/*", "hello");
+
+        this.tomcat.start();
+        this.baseUrl = "http://127.0.0.1:" + connector.getLocalPort();
+    }
+
+    /**
+     * 设置过滤器配置
+     *
+     * @param customizer 在默认配置（serverName、cas地址）基础上调整配置，如开启异步校验、代理
+     */
+    public void configure(UnaryOperator<DefaultCasClientConfig.DefaultCasClientConfigBuilder> customizer) {
+        this.filter.setConfig(customizer.apply(new DefaultCasClientConfig().toBuilder()
+                .casServerUrlPrefix(this.casServerUrlPrefix)
+                .casServerLoginUrl(this.casServerUrlPrefix + "/login")
+                .serverName(this.baseUrl)).build());
+    }
+
+    /**
+     * @return 应用地址，如http://127.0.0.1:8080
+     */
+    public String getBaseUrl() {
+        return this.baseUrl;
+    }
+
+    public SampleCasClientFilter getFilter() {
+        return this.filter;
+    }
+
+    @Override
+    public void close() throws LifecycleException {
+        this.tomcat.stop();
+        this.tomcat.destroy();
+        deleteRecursively(this.baseDir);
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static final class HelloServlet extends HttpServlet {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            Assertion assertion = (Assertion) request.getAttribute(CONST_CAS_ASSERTION);
+            if (assertion == null) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
+            }
+            StringBuilder body = new StringBuilder("hello ").append(assertion.getPrincipal().getName());
+            String proxyTarget = request.getParameter("proxy");
+            if (proxyTarget != null) {
+                String proxyTicket = assertion.getPrincipal().getProxyTicketFor(proxyTarget);
+                if (proxyTicket == null) {
+                    response.sendError(HttpServletResponse.SC_BAD_GATEWAY, "no proxy ticket");
+                    return;
+                }
+                body.append(' ').append(proxyTicket);
+            }
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write(body.toString());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.wpyuan.casclienthelper.benchmark.load;
+
+import com.github.wpyuan.casclienthelper.config.DefaultCasClientConfig;
+import com.github.wpyuan.casclienthelper.filter.AbstractCasClientAuthenticationFilter;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.TicketValidationException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.jasig.cas.client.util.AbstractCasFilter.CONST_CAS_ASSERTION;
+
+/**
+ * <p>
+ * 负载测试中的示例过滤器，与README中的写法一致：应用自身使用session，认证结果放入请求属性，校验失败返回403
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 14:40
+ */
+public class SampleCasClientFilter extends AbstractCasClientAuthenticationFilter {
+
+    private volatile DefaultCasClientConfig config;
+
+    /**
+     * 容器启动、端口确定后设置
+     */
+    public void setConfig(DefaultCasClientConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public boolean before(HttpServletRequest request, HttpServletResponse response) {
+        // 应用在跳转登录前已建立session，携带ticket回来时session不是新的，ticket才会被校验
+        request.getSession(true);
+        return true;
+    }
+
+    @Override
+    protected String configKey(HttpServletRequest request) {
+        return "sample";
+    }
+
+    @Override
+    public DefaultCasClientConfig load(HttpServletRequest request, HttpServletResponse response) {
+        return this.config;
+    }
+
+    @Override
+    public HttpServletRequest onSuccessfulValidation(HttpServletRequest request, HttpServletResponse response, Assertion assertion) {
+        request.setAttribute(CONST_CAS_ASSERTION, assertion);
+        return request;
+    }
+
+    @Override
+    public void onFailedValidation(HttpServletRequest request, HttpServletResponse response, TicketValidationException e) {
+        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+    }
+}
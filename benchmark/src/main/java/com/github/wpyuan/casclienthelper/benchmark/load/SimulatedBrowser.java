@@ -0,0 +1,92 @@
+package com.github.wpyuan.casclienthelper.benchmark.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * <p>
+ * 模拟浏览器：不自动跟随重定向，只为应用保存JSESSIONID cookie
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 14:55
+ */
+class SimulatedBrowser {
+
+    private static final int TIMEOUT_MILLIS = 30000;
+
+    private final String appBaseUrl;
+    private String sessionCookie;
+
+    SimulatedBrowser(String appBaseUrl) {
+        this.appBaseUrl = appBaseUrl;
+    }
+
+    Response get(String url) throws IOException {
+        boolean app = url.startsWith(this.appBaseUrl);
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        conn.setInstanceFollowRedirects(false);
+        conn.setUseCaches(false);
+        conn.setConnectTimeout(TIMEOUT_MILLIS);
+        conn.setReadTimeout(TIMEOUT_MILLIS);
+        conn.setRequestProperty("Accept", "text/html");
+        if (app && this.sessionCookie != null) {
+            conn.setRequestProperty("Cookie", this.sessionCookie);
+        }
+        int status = conn.getResponseCode();
+        if (app) {
+            List<String> cookies = conn.getHeaderFields().get("Set-Cookie");
+            if (cookies != null) {
+                for (String cookie : cookies) {
+                    if (cookie.startsWith("JSESSIONID=")) {
+                        int end = cookie.indexOf(';');
+                        this.sessionCookie = end > 0 ? cookie.substring(0, end) : cookie;
+                    }
+                }
+            }
+        }
+        String location = conn.getHeaderField("Location");
+        // 读完响应体，连接才能复用
+        String body;
+        try (InputStream in = status < 400 ? conn.getInputStream() : conn.getErrorStream()) {
+            body = read(in);
+        }
+        return new Response(status, location, body);
+    }
+
+    private static String read(InputStream in) throws IOException {
+        if (in == null) {
+            return "";
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    static final class Response {
+        final int status;
+        final String location;
+        final String body;
+
+        Response(int status, String location, String body) {
+            this.status = status;
+            this.location = location;
+            this.body = body;
+        }
+
+        @Override
+        public String toString() {
+            // 不含重定向地址，便于按响应汇总失败原因
+            return "HTTP " + this.status;
+        }
+    }
+}
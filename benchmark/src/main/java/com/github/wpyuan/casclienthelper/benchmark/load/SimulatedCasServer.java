@@ -0,0 +1,329 @@
+package com.github.wpyuan.casclienthelper.benchmark.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * 进程内模拟cas服务端：登录页直接签发service ticket（视为浏览器已有TGT）并重定向回服务，校验时ticket一次有效且须与service一致，
+ * 请求了PGT时先回调客户端的pgtUrl再响应，支持以PGT申请proxy ticket。响应延迟、错误率可在运行中调整，用于模拟cas服务端变慢或故障
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 14:20
+ */
+public class SimulatedCasServer implements AutoCloseable {
+
+    private static final String CAS_NS = "xmlns:cas='http://www.yale.edu/tp/cas'";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, IssuedTicket> tickets = new ConcurrentHashMap<>();
+    private final Map<String, String> proxyGrantingTickets = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+    private volatile double errorRate;
+
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder validated = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder proxyCallbacks = new LongAdder();
+    private final LongAdder proxyTickets = new LongAdder();
+
+    static {
+        // 关闭Nagle，避免与客户端延迟确认叠加出现约40ms的固定延迟
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    public SimulatedCasServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        // 模拟延迟时处理线程会休眠，不限制线程数
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "simulated-cas-" + this.sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/cas", this::handle);
+        this.server.start();
+    }
+
+    /**
+     * @return cas服务地址前缀
+     */
+    public String getCasServerUrlPrefix() {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort() + "/cas";
+    }
+
+    /**
+     * 设置登录、校验、申请PT的响应延迟
+     *
+     * @param latencyMillis 固定延迟（毫秒）
+     * @param jitterMillis  随机附加延迟的上限（毫秒）
+     */
+    public void setLatency(long latencyMillis, long jitterMillis) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+    }
+
+    /**
+     * @param errorRate 登录、校验、申请PT返回HTTP 500的比例，0~1
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath().substring("/cas".length());
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            switch (path) {
+                case "/login":
+                    if (this.simulateServer(exchange)) {
+                        this.login(exchange, parameters);
+                    }
+                    break;
+                case "/serviceValidate":
+                case "/proxyValidate":
+                case "/p3/serviceValidate":
+                case "/p3/proxyValidate":
+                    if (this.simulateServer(exchange)) {
+                        this.validate(exchange, parameters, path.endsWith("proxyValidate"));
+                    }
+                    break;
+                case "/proxy":
+                    if (this.simulateServer(exchange)) {
+                        this.proxy(exchange, parameters);
+                    }
+                    break;
+                case "/logout":
+                    respond(exchange, 200, "text/plain", "logged out");
+                    break;
+                default:
+                    respond(exchange, 404, "text/plain", "not found");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 按配置延迟，并按错误率返回500
+     *
+     * @return 是否继续正常处理
+     */
+    private boolean simulateServer(HttpExchange exchange) throws IOException {
+        long delay = this.latencyMillis + (this.jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(this.jitterMillis + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (this.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < this.errorRate) {
+            this.errors.increment();
+            respond(exchange, 500, "text/plain", "simulated error");
+            return false;
+        }
+        return true;
+    }
+
+    private void login(HttpExchange exchange, Map<String, String> parameters) throws IOException {
+        String service = parameters.get("service");
+        if (service == null) {
+            respond(exchange, 200, "text/html", "<html><body>login form</body></html>");
+            return;
+        }
+        String ticket = "ST-" + this.sequence.incrementAndGet() + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        this.tickets.put(ticket, new IssuedTicket(service, "user" + ThreadLocalRandom.current().nextInt(1000), null));
+        this.issued.increment();
+        exchange.getResponseHeaders().set("Location", service + (service.indexOf('?') >= 0 ? '&' : '?') + "ticket=" + ticket);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private void validate(HttpExchange exchange, Map<String, String> parameters, boolean acceptProxyTickets) throws IOException {
+        String ticket = parameters.get("ticket");
+        String service = parameters.get("service");
+        IssuedTicket issuedTicket = ticket != null ? this.tickets.remove(ticket) : null;
+        if (issuedTicket == null || !issuedTicket.service.equals(service) || (issuedTicket.proxy != null && !acceptProxyTickets)) {
+            this.rejected.increment();
+            respond(exchange, 200, "text/xml", "<cas:serviceResponse " + CAS_NS + "><cas:authenticationFailure code='INVALID_TICKET'>"
+                    + "ticket " + ticket + " not recognized</cas:authenticationFailure></cas:serviceResponse>");
+            return;
+        }
+        this.validated.increment();
+        StringBuilder body = new StringBuilder(512).append("<cas:serviceResponse ").append(CAS_NS).append("><cas:authenticationSuccess>")
+                .append("<cas:user>").append(issuedTicket.user).append("</cas:user>")
+                .append("<cas:attributes><cas:mail>").append(issuedTicket.user).append("@example.com</cas:mail>")
+                .append("<cas:memberOf>staff</cas:memberOf><cas:memberOf>users</cas:memberOf></cas:attributes>");
+        String pgtUrl = parameters.get("pgtUrl");
+        if (pgtUrl != null) {
+            String pgtIou = this.proxyCallback(pgtUrl, issuedTicket.user);
+            if (pgtIou != null) {
+                body.append("<cas:proxyGrantingTicket>").append(pgtIou).append("</cas:proxyGrantingTicket>");
+            }
+        }
+        if (issuedTicket.proxy != null) {
+            body.append("<cas:proxies><cas:proxy>").append(issuedTicket.proxy).append("</cas:proxy></cas:proxies>");
+        }
+        body.append("</cas:authenticationSuccess></cas:serviceResponse>");
+        respond(exchange, 200, "text/xml", body.toString());
+    }
+
+    /**
+     * 与cas服务端一致：先把PGT回调给客户端，回调成功才在校验响应中返回pgtIou
+     */
+    private String proxyCallback(String pgtUrl, String user) {
+        String pgtId = "PGT-" + this.sequence.incrementAndGet() + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        String pgtIou = "PGTIOU-" + this.sequence.incrementAndGet() + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        try {
+            HttpURLConnection conn = (HttpURLConnection) new URL(pgtUrl + (pgtUrl.indexOf('?') >= 0 ? '&' : '?')
+                    + "pgtIou=" + pgtIou + "&pgtId=" + pgtId).openConnection();
+            conn.setInstanceFollowRedirects(false);
+            int status = conn.getResponseCode();
+            try (InputStream in = status < 400 ? conn.getInputStream() : conn.getErrorStream()) {
+                drain(in);
+            }
+            if (status != 200) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        this.proxyGrantingTickets.put(pgtId, pgtUrl + "|" + user);
+        this.proxyCallbacks.increment();
+        return pgtIou;
+    }
+
+    private void proxy(HttpExchange exchange, Map<String, String> parameters) throws IOException {
+        String owner = this.proxyGrantingTickets.get(String.valueOf(parameters.get("pgt")));
+        String targetService = parameters.get("targetService");
+        if (owner == null || targetService == null) {
+            respond(exchange, 200, "text/xml", "<cas:serviceResponse " + CAS_NS + "><cas:proxyFailure code='INVALID_TICKET'>"
+                    + "pgt not recognized</cas:proxyFailure></cas:serviceResponse>");
+            return;
+        }
+        int separator = owner.lastIndexOf('|');
+        String proxyTicket = "PT-" + this.sequence.incrementAndGet() + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        this.tickets.put(proxyTicket, new IssuedTicket(targetService, owner.substring(separator + 1), owner.substring(0, separator)));
+        this.proxyTickets.increment();
+        respond(exchange, 200, "text/xml", "<cas:serviceResponse " + CAS_NS + "><cas:proxySuccess><cas:proxyTicket>"
+                + proxyTicket + "</cas:proxyTicket></cas:proxySuccess></cas:serviceResponse>");
+    }
+
+    public long getIssued() {
+        return this.issued.sum();
+    }
+
+    public long getValidated() {
+        return this.validated.sum();
+    }
+
+    public long getRejected() {
+        return this.rejected.sum();
+    }
+
+    public long getErrors() {
+        return this.errors.sum();
+    }
+
+    public long getProxyCallbacks() {
+        return this.proxyCallbacks.sum();
+    }
+
+    public long getProxyTickets() {
+        return this.proxyTickets.sum();
+    }
+
+    /**
+     * @return 已签发尚未校验的票据数
+     */
+    public int getOutstandingTickets() {
+        return this.tickets.size();
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + ";charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) throws UnsupportedEncodingException {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, eq), "UTF-8"), URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+            }
+        }
+        return parameters;
+    }
+
+    static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static void drain(InputStream in) throws IOException {
+        if (in == null) {
+            return;
+        }
+        byte[] buffer = new byte[4096];
+        while (in.read(buffer) != -1) {
+            // 丢弃
+        }
+    }
+
+    private static final class IssuedTicket {
+        final String service;
+        final String user;
+        /**
+         * proxy ticket的代理链（申请方的pgtUrl），service ticket为null
+         */
+        final String proxy;
+
+        IssuedTicket(String service, String user, String proxy) {
+            this.service = service;
+            this.user = user;
+            this.proxy = proxy;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.wpyuan.casclienthelper.utill;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * {@link CommonUtils}中每个请求都会调用的方法。放在同一个包下以访问findMatchingServerName
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 17:00
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommonUtilsBenchmark {
+
+    private static final String SERVER_NAMES = "https://a.example.com https://b.example.com:8443 https://c.example.com";
+    private static final String LOGIN_URL = "https://cas.example.com/cas/login";
+    private static final String SERVICE_URL = "https://b.example.com:8443/app/orders/42?page=2&sort=desc";
+
+    private MockHttpServletRequest request;
+    private MockHttpServletRequest ticketRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        this.request = new MockHttpServletRequest("GET", "/app/orders/42");
+        this.request.setServerPort(8443);
+        this.request.setSecure(true);
+        this.request.addHeader("Host", "b.example.com:8443");
+        this.request.setQueryString("page=2&sort=desc");
+        this.request.setParameter("page", "2");
+        this.request.setParameter("sort", "desc");
+
+        this.ticketRequest = new MockHttpServletRequest("GET", "/app/orders/42");
+        this.ticketRequest.addHeader("Host", "b.example.com:8443");
+        this.ticketRequest.setQueryString("page=2&sort=desc&ticket=ST-1-abcdefghijklmnopqrstuvwxyz");
+        this.ticketRequest.setParameter("ticket", "ST-1-abcdefghijklmnopqrstuvwxyz");
+
+        this.response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public String constructServiceUrl() {
+        return CommonUtils.constructServiceUrl(this.ticketRequest, this.response, null, SERVER_NAMES, "ticket", true, true);
+    }
+
+    @Benchmark
+    public String constructRedirectUrl() {
+        return CommonUtils.constructRedirectUrl(LOGIN_URL, "service", SERVICE_URL, false, false);
+    }
+
+    @Benchmark
+    public String safeGetParameterAbsent() {
+        return CommonUtils.safeGetParameter(this.request, "ticket");
+    }
+
+    @Benchmark
+    public String safeGetParameterPresent() {
+        return CommonUtils.safeGetParameter(this.ticketRequest, "ticket");
+    }
+
+    @Benchmark
+    public String findMatchingServerName() {
+        return CommonUtils.findMatchingServerName(this.request, SERVER_NAMES);
+    }
+}
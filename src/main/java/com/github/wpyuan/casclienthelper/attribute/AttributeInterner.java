@@ -0,0 +1,60 @@
+package com.github.wpyuan.casclienthelper.attribute;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * 属性值去重：字符串使用{@link String#intern()}，多值属性的列表按内容去重为同一个不可变实例（弱引用，无人使用时可被回收），
+ * 大量用户拥有相同角色、部门、组时只保留一份
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 22:50
+ */
+public final class AttributeInterner {
+
+    private static final int STRIPES = 16;
+    private static final Stripe[] LISTS = new Stripe[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            LISTS[i] = new Stripe();
+        }
+    }
+
+    private AttributeInterner() {
+    }
+
+    public static String intern(String value) {
+        return value == null ? null : value.intern();
+    }
+
+    /**
+     * @param values 不可变列表
+     * @return 内容相同的已有列表，不存在则登记并返回传入的列表
+     */
+    public static List<Object> intern(List<Object> values) {
+        int hash = values.hashCode();
+        Stripe stripe = LISTS[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        stripe.lock.lock();
+        try {
+            WeakReference<List<Object>> reference = stripe.lists.get(values);
+            List<Object> existing = reference != null ? reference.get() : null;
+            if (existing != null) {
+                return existing;
+            }
+            stripe.lists.put(values, new WeakReference<>(values));
+            return values;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final WeakHashMap<List<Object>, WeakReference<List<Object>>> lists = new WeakHashMap<>();
+    }
+}
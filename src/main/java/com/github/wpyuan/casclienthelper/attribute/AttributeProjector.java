@@ -0,0 +1,81 @@
+package com.github.wpyuan.casclienthelper.attribute;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * 校验通过后的属性处理：按白名单过滤、按映射重命名，可选转为{@link CompactAttributeMap}去重存放
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 23:00
+ */
+public class AttributeProjector {
+
+    /**
+     * 不做任何处理
+     */
+    public static final AttributeProjector IDENTITY = new AttributeProjector(null, null, false);
+
+    private final Set<String> whitelist;
+    private final Map<String, String> renames;
+    private final boolean compact;
+
+    /**
+     * @param whitelist 保留的属性名（重命名前），为null保留全部
+     * @param renames   属性重命名，原名到新名
+     * @param compact   是否转为紧凑去重的不可变属性表
+     */
+    public AttributeProjector(Set<String> whitelist, Map<String, String> renames, boolean compact) {
+        this.whitelist = whitelist == null ? null : Collections.unmodifiableSet(new HashSet<>(whitelist));
+        this.renames = renames == null || renames.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(new HashMap<>(renames));
+        this.compact = compact;
+    }
+
+    /**
+     * @return 对应参数的处理器，无需处理时返回{@link #IDENTITY}
+     */
+    public static AttributeProjector of(Set<String> whitelist, Map<String, String> renames, boolean compact) {
+        if (whitelist == null && (renames == null || renames.isEmpty()) && !compact) {
+            return IDENTITY;
+        }
+        return new AttributeProjector(whitelist, renames, compact);
+    }
+
+    public boolean isIdentity() {
+        return this == IDENTITY;
+    }
+
+    /**
+     * @param name 原属性名
+     * @return 是否保留该属性
+     */
+    public boolean isAllowed(String name) {
+        return this.whitelist == null || this.whitelist.contains(name);
+    }
+
+    /**
+     * @param attributes 原属性
+     * @return 处理后的属性
+     */
+    public Map<String, Object> project(Map<String, Object> attributes) {
+        if (this.isIdentity() || attributes == null) {
+            return attributes;
+        }
+        Map<String, Object> projected = attributes;
+        if (this.whitelist != null || !this.renames.isEmpty()) {
+            projected = new LinkedHashMap<>(Math.max(4, attributes.size() * 2));
+            for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+                if (this.isAllowed(entry.getKey())) {
+                    projected.put(this.renames.getOrDefault(entry.getKey(), entry.getKey()), entry.getValue());
+                }
+            }
+        }
+        return this.compact ? CompactAttributeMap.copyOf(projected) : projected;
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.wpyuan.casclienthelper.attribute;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * <p>
+ * 紧凑的不可变属性表：键按名称排序存放在数组中（二分查找），键和值都经过{@link AttributeInterner}去重，
+ * 代替每个session一份的HashMap（每个条目一个Node对象加上哈希表数组）
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 22:55
+ */
+public final class CompactAttributeMap extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] keys;
+    private final Object[] values;
+
+    private CompactAttributeMap(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * @param attributes 原属性
+     * @return 紧凑的不可变副本，值为集合时转为去重后的不可变列表
+     */
+    public static CompactAttributeMap copyOf(Map<String, ?> attributes) {
+        if (attributes instanceof CompactAttributeMap) {
+            return (CompactAttributeMap) attributes;
+        }
+        String[] keys = new String[attributes.size()];
+        int size = 0;
+        for (String key : attributes.keySet()) {
+            if (key != null) {
+                keys[size++] = AttributeInterner.intern(key);
+            }
+        }
+        keys = size == keys.length ? keys : Arrays.copyOf(keys, size);
+        Arrays.sort(keys);
+        Object[] values = new Object[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = compact(attributes.get(keys[i]));
+        }
+        return new CompactAttributeMap(keys, values);
+    }
+
+    private static Object compact(Object value) {
+        if (value instanceof String) {
+            return AttributeInterner.intern((String) value);
+        }
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            Object[] items = new Object[collection.size()];
+            int i = 0;
+            for (Object item : collection) {
+                items[i++] = item instanceof String ? AttributeInterner.intern((String) item) : item;
+            }
+            return AttributeInterner.intern(Collections.unmodifiableList(Arrays.asList(items)));
+        }
+        return value;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = this.indexOf(key);
+        return index >= 0 ? this.values[index] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return this.keys.length;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<Entry<String, Object>>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.index < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (this.index >= keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, Object> entry = new SimpleImmutableEntry<>(keys[this.index], values[this.index]);
+                        this.index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    private int indexOf(Object key) {
+        return key instanceof String ? Arrays.binarySearch(this.keys, key) : -1;
+    }
+
+    /**
+     * 反序列化（如session复制）后重新去重
+     */
+    private Object readResolve() {
+        String[] keys = new String[this.keys.length];
+        Object[] values = new Object[this.values.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = AttributeInterner.intern(this.keys[i]);
+            values[i] = compact(this.values[i]);
+        }
+        return new CompactAttributeMap(keys, values);
+    }
+}
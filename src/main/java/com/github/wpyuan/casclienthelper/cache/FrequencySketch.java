@@ -0,0 +1,94 @@
+package com.github.wpyuan.casclienthelper.cache;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * Count-Min Sketch访问频率估计（TinyLFU），用于淘汰时比较新条目与被淘汰条目的访问频率。
+ * 计数上限15，累计采样数达到10倍容量时所有计数减半，使频率随时间衰减
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 19:20
+ */
+public class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0x0ba5a2b5, 0x60d8b2a9, 0x2f6c9d4b};
+
+    private final AtomicIntegerArray table;
+    private final int mask;
+    private final long sampleSize;
+    private final AtomicLong additions = new AtomicLong();
+    private final ReentrantLock resetLock = new ReentrantLock();
+
+    /**
+     * @param expectedSize 预计条目数
+     */
+    public FrequencySketch(int expectedSize) {
+        int width = Integer.highestOneBit(Math.max(16, expectedSize) - 1) << 1;
+        this.table = new AtomicIntegerArray(width * DEPTH);
+        this.mask = width - 1;
+        this.sampleSize = 10L * Math.max(16, expectedSize);
+    }
+
+    /**
+     * 记录一次访问
+     */
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = this.indexOf(hash, i);
+            int count = this.table.get(index);
+            if (count < MAX_COUNT && this.table.compareAndSet(index, count, count + 1)) {
+                added = true;
+            }
+        }
+        if (added && this.additions.incrementAndGet() >= this.sampleSize && this.resetLock.tryLock()) {
+            try {
+                this.reset();
+            } finally {
+                this.resetLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return 估计的访问频率（0~15）
+     */
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, this.table.get(this.indexOf(hash, i)));
+        }
+        return frequency;
+    }
+
+    private void reset() {
+        if (this.additions.get() < this.sampleSize) {
+            return;
+        }
+        for (int i = 0; i < this.table.length(); i++) {
+            this.table.set(i, this.table.get(i) >>> 1);
+        }
+        this.additions.set(this.additions.get() >>> 1);
+    }
+
+    private int indexOf(int hash, int row) {
+        int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+        h ^= h >>> 16;
+        return row * (this.mask + 1) + (h & this.mask);
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xed5ad4bb;
+        hash ^= hash >>> 11;
+        return hash;
+    }
+}
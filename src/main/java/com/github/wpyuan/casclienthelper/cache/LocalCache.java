@@ -0,0 +1,187 @@
+package com.github.wpyuan.casclienthelper.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * 进程内本地缓存，支持容量上限、写入后过期以及主动失效。
+ * 读写基于{@link ConcurrentHashMap}，不加锁；超出容量时由单个线程批量淘汰最久未访问的条目（淘汰到容量的90%），摊薄淘汰开销。
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 9:20
+ */
+public class LocalCache<K, V> {
+
+    private final ConcurrentHashMap<K, Node<V>> map;
+    /**
+     * 最大条目数，小于等于0表示不限制
+     */
+    private final int maximumSize;
+    /**
+     * 默认写入后过期时间（毫秒），小于等于0表示不过期
+     */
+    private final long expireAfterWriteMillis;
+    private final ReentrantLock trimLock = new ReentrantLock();
+
+    public LocalCache(int maximumSize, long expireAfterWriteMillis) {
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+        this.map = new ConcurrentHashMap<>(maximumSize > 0 ? Math.min(maximumSize, 1024) : 16);
+    }
+
+    /**
+     * 获取缓存值，已过期则移除并返回null
+     *
+     * @param key 键
+     * @return 缓存值
+     */
+    public V get(K key) {
+        Node<V> node = this.map.get(key);
+        if (node == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (node.isExpired(now)) {
+            this.map.remove(key, node);
+            return null;
+        }
+        node.accessedAt = now;
+        return node.value;
+    }
+
+    public void put(K key, V value) {
+        this.put(key, value, this.expireAfterWriteMillis);
+    }
+
+    /**
+     * 写入缓存
+     *
+     * @param key        键
+     * @param value      值
+     * @param ttlMillis  本条目的过期时间（毫秒），小于等于0表示不过期
+     */
+    public void put(K key, V value, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        this.map.put(key, new Node<>(value, ttlMillis > 0 ? now + ttlMillis : Long.MAX_VALUE, now));
+        this.trimIfNecessary();
+    }
+
+    /**
+     * 不存在（或已过期）时写入
+     *
+     * @return 已存在的有效值，写入成功则返回null
+     */
+    public V putIfAbsent(K key, V value) {
+        long now = System.currentTimeMillis();
+        long expiresAt = this.expireAfterWriteMillis > 0 ? now + this.expireAfterWriteMillis : Long.MAX_VALUE;
+        Node<V> created = new Node<>(value, expiresAt, now);
+        for (; ; ) {
+            Node<V> existing = this.map.putIfAbsent(key, created);
+            if (existing == null) {
+                this.trimIfNecessary();
+                return null;
+            }
+            if (!existing.isExpired(now)) {
+                existing.accessedAt = now;
+                return existing.value;
+            }
+            if (this.map.replace(key, existing, created)) {
+                return null;
+            }
+        }
+    }
+
+    public V invalidate(K key) {
+        Node<V> node = this.map.remove(key);
+        return node == null ? null : node.value;
+    }
+
+    public void invalidateAll() {
+        this.map.clear();
+    }
+
+    /**
+     * 清理所有已过期条目
+     *
+     * @return 清理条数
+     */
+    public int cleanUp() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (Map.Entry<K, Node<V>> entry : this.map.entrySet()) {
+            if (entry.getValue().isExpired(now) && this.map.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return this.map.size();
+    }
+
+    public int getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    private void trimIfNecessary() {
+        if (this.maximumSize <= 0 || this.map.size() <= this.maximumSize || !this.trimLock.tryLock()) {
+            return;
+        }
+        try {
+            if (this.cleanUp() > 0 && this.map.size() <= this.maximumSize) {
+                return;
+            }
+            int target = this.maximumSize - this.maximumSize / 10;
+            // 访问时间会被并发更新，先取快照再排序，避免排序过程中比较结果不一致
+            List<Candidate<K, V>> candidates = new ArrayList<>(this.map.size());
+            for (Map.Entry<K, Node<V>> entry : this.map.entrySet()) {
+                candidates.add(new Candidate<>(entry.getKey(), entry.getValue()));
+            }
+            if (candidates.size() <= target) {
+                return;
+            }
+            candidates.sort((a, b) -> Long.compare(a.accessedAt, b.accessedAt));
+            int toRemove = candidates.size() - target;
+            for (int i = 0; i < toRemove; i++) {
+                Candidate<K, V> candidate = candidates.get(i);
+                this.map.remove(candidate.key, candidate.node);
+            }
+        } finally {
+            this.trimLock.unlock();
+        }
+    }
+
+    private static final class Candidate<K, V> {
+        private final K key;
+        private final Node<V> node;
+        private final long accessedAt;
+
+        private Candidate(K key, Node<V> node) {
+            this.key = key;
+            this.node = node;
+            this.accessedAt = node.accessedAt;
+        }
+    }
+
+    private static final class Node<V> {
+        private final V value;
+        private final long expiresAt;
+        private volatile long accessedAt;
+
+        private Node(V value, long expiresAt, long accessedAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.accessedAt = accessedAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= this.expiresAt;
+        }
+    }
+}
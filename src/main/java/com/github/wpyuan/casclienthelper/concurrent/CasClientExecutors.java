@@ -0,0 +1,96 @@
+package com.github.wpyuan.casclienthelper.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * cas客户端内部使用的线程池，线程均为守护线程，不影响应用退出
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 17:40
+ */
+public final class CasClientExecutors {
+
+    private CasClientExecutors() {
+    }
+
+    /**
+     * 创建有界线程池，队列满时由提交线程执行
+     *
+     * @param name          线程名前缀
+     * @param threads       线程数
+     * @param queueCapacity 队列容量
+     * @return 线程池
+     */
+    public static ExecutorService newBoundedExecutor(String name, int threads, int queueCapacity) {
+        return newBoundedExecutor(name, threads, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 创建有界线程池
+     *
+     * @param name          线程名前缀
+     * @param threads       线程数
+     * @param queueCapacity 队列容量
+     * @param handler       队列满时的处理
+     * @return 线程池
+     */
+    public static ExecutorService newBoundedExecutor(String name, int threads, int queueCapacity, RejectedExecutionHandler handler) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), daemonThreadFactory(name), handler);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 创建访问cas服务端等阻塞IO任务使用的线程池。Java 21及以上（多版本jar）每个任务一个虚拟线程，
+     * 其余版本为线程数为CPU核数2倍的有界线程池
+     *
+     * @param name 线程名前缀
+     * @return 线程池
+     */
+    public static ExecutorService newBlockingIoExecutor(String name) {
+        return PlatformExecutors.newBlockingIoExecutor(name);
+    }
+
+    /**
+     * 共享的定时任务线程（单线程），用于各类存储的过期清理，任务须短小且自行捕获异常
+     *
+     * @return 定时任务线程池
+     */
+    public static ScheduledExecutorService scheduler() {
+        return SchedulerHolder.SCHEDULER;
+    }
+
+    /**
+     * @param name 线程名前缀
+     * @return 创建守护线程的工厂
+     */
+    public static ThreadFactory daemonThreadFactory(String name) {
+        final AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class SchedulerHolder {
+        private static final ScheduledExecutorService SCHEDULER = newScheduler();
+
+        private static ScheduledExecutorService newScheduler() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, daemonThreadFactory("cas-scheduler"));
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.wpyuan.casclienthelper.concurrent;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * <p>
+ * 与Java版本相关的线程池实现。Java 21及以上使用src/main/java21中的同名类（多版本jar）
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 13:10
+ */
+final class PlatformExecutors {
+
+    private PlatformExecutors() {
+    }
+
+    static ExecutorService newBlockingIoExecutor(String name) {
+        return CasClientExecutors.newBoundedExecutor(name, Math.max(4, Runtime.getRuntime().availableProcessors() * 2), 1024);
+    }
+}
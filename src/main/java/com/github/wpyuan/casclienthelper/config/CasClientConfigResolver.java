@@ -0,0 +1,115 @@
+package com.github.wpyuan.casclienthelper.config;
+
+import com.github.wpyuan.casclienthelper.cache.LocalCache;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+
+/**
+ * <p>
+ * cas配置解析，按子类提供的缓存key（如host、租户）缓存已装配的{@link DefaultCasClientConfig}，
+ * 命中缓存时不再调用load()重新构建配置
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 9:40
+ */
+public class CasClientConfigResolver {
+
+    /**
+     * 默认最多缓存的配置数
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    /**
+     * 未提供缓存key时按配置内容缓存的编译结果数
+     */
+    static final int UNCACHED_MAXIMUM_SIZE = 16;
+
+    private final LocalCache<String, CasClientContext> cache;
+    /**
+     * 未提供缓存key时，按配置内容（{@link DefaultCasClientConfig#equals(Object)}）复用编译结果。
+     * key为编译时的配置副本，load()每次新建内容相同的配置、或修改后返回同一个实例，都能正确命中或重新编译
+     */
+    private final LocalCache<DefaultCasClientConfig, CasClientContext> uncached = new LocalCache<>(UNCACHED_MAXIMUM_SIZE, 0);
+
+    public CasClientConfigResolver() {
+        this(DEFAULT_MAXIMUM_SIZE, 0);
+    }
+
+    /**
+     * @param maximumSize            最多缓存的配置数，小于等于0表示不限制
+     * @param expireAfterWriteMillis 配置缓存过期时间（毫秒），小于等于0表示不过期，只能主动失效
+     */
+    public CasClientConfigResolver(int maximumSize, long expireAfterWriteMillis) {
+        this.cache = new LocalCache<>(maximumSize, expireAfterWriteMillis);
+    }
+
+    /**
+     * 解析配置
+     *
+     * @param key    缓存key，为null时每次都调用loader，按配置内容复用编译结果
+     * @param loader 配置装配
+     * @return 已解析的配置，可能为null（null不缓存）
+     */
+    public CasClientContext resolve(String key, ConfigLoader loader) throws ServletException, IOException {
+        if (key == null) {
+            return this.resolveUncached(loader.load());
+        }
+        CasClientContext context = this.cache.get(key);
+        if (context != null) {
+            return context;
+        }
+        DefaultCasClientConfig config = loader.load();
+        if (config == null) {
+            return null;
+        }
+        context = new CasClientContext(config);
+        CasClientContext existing = this.cache.putIfAbsent(key, context);
+        return existing != null ? existing : context;
+    }
+
+    private CasClientContext resolveUncached(DefaultCasClientConfig config) {
+        if (config == null) {
+            return null;
+        }
+        CasClientContext context = this.uncached.get(config);
+        if (context != null) {
+            return context;
+        }
+        // 副本只在未命中时创建，同时作为上下文持有的配置，之后修改load()返回的实例不影响已编译的结果
+        DefaultCasClientConfig snapshot = config.toBuilder().build();
+        context = new CasClientContext(snapshot);
+        CasClientContext existing = this.uncached.putIfAbsent(snapshot, context);
+        return existing != null ? existing : context;
+    }
+
+    /**
+     * 使指定key的配置失效，下次请求重新装配
+     *
+     * @param key 缓存key
+     */
+    public void invalidate(String key) {
+        this.cache.invalidate(key);
+    }
+
+    /**
+     * 使所有配置失效
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+        this.uncached.invalidateAll();
+    }
+
+    public int size() {
+        return this.cache.size();
+    }
+
+    /**
+     * 配置装配
+     */
+    @FunctionalInterface
+    public interface ConfigLoader {
+        DefaultCasClientConfig load() throws ServletException, IOException;
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.wpyuan.casclienthelper.config;
+
+import com.github.wpyuan.casclienthelper.matcher.UrlMatcher;
+import com.github.wpyuan.casclienthelper.redirect.LoginRedirectCache;
+import com.github.wpyuan.casclienthelper.redirect.LoginRedirectCaches;
+import com.github.wpyuan.casclienthelper.redirect.LoginRedirectLimiter;
+import com.github.wpyuan.casclienthelper.redirect.LoginRedirectLimiters;
+import com.github.wpyuan.casclienthelper.resilience.CasServerGuard;
+import com.github.wpyuan.casclienthelper.resilience.CasServerGuards;
+import com.github.wpyuan.casclienthelper.store.AssertionStore;
+import com.github.wpyuan.casclienthelper.store.HttpSessionAssertionStore;
+import com.github.wpyuan.casclienthelper.url.ArtifactParameterExtractor;
+import com.github.wpyuan.casclienthelper.url.RedirectUrlTemplate;
+import com.github.wpyuan.casclienthelper.url.ServiceUrlBuilder;
+import org.jasig.cas.client.validation.TicketValidator;
+
+/**
+ * <p>
+ * 已解析的cas配置，以及由配置预先编译出的匹配规则等，随配置一起缓存，避免每个请求重复计算
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 14:40
+ */
+public class CasClientContext {
+
+    private final DefaultCasClientConfig config;
+    private final UrlMatcher urlMatcher;
+    private final ServiceUrlBuilder serviceUrlBuilder;
+    private final ArtifactParameterExtractor artifactExtractor;
+    private final LoginRedirectCache loginRedirectCache;
+    private final LoginRedirectLimiter loginRedirectLimiter;
+    private final AssertionStore assertionStore;
+    private final boolean sessionAssertionStore;
+    private final CasServerGuard serverGuard;
+    private final TicketValidator ticketValidator;
+
+    public CasClientContext(DefaultCasClientConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * @param config          cas配置
+     * @param ticketValidator 预先解析的票据校验器，为null时每次从{@link com.github.wpyuan.casclienthelper.validation.TicketValidatorRegistry}获取
+     */
+    public CasClientContext(DefaultCasClientConfig config, TicketValidator ticketValidator) {
+        this.config = config;
+        this.urlMatcher = UrlMatcher.of(config.getIncludeUrlMath(), config.getExcludeUrlMath());
+        this.serviceUrlBuilder = new ServiceUrlBuilder(config.getServerName(), config.getArtifactParameterName(),
+                config.isAppendPort(), config.isEncodeServiceUrl());
+        this.artifactExtractor = new ArtifactParameterExtractor(config.getArtifactParameterName());
+        this.loginRedirectCache = LoginRedirectCaches.forConfig(config);
+        this.loginRedirectLimiter = LoginRedirectLimiters.forConfig(config);
+        this.sessionAssertionStore = config.getAssertionStore() == null;
+        this.assertionStore = this.sessionAssertionStore
+                ? (config.isUseSession() ? HttpSessionAssertionStore.INSTANCE : HttpSessionAssertionStore.READ_ONLY)
+                : config.getAssertionStore();
+        this.serverGuard = CasServerGuards.forConfig(config);
+        this.ticketValidator = ticketValidator;
+    }
+
+    public DefaultCasClientConfig getConfig() {
+        return this.config;
+    }
+
+    public UrlMatcher getUrlMatcher() {
+        return this.urlMatcher;
+    }
+
+    public ServiceUrlBuilder getServiceUrlBuilder() {
+        return this.serviceUrlBuilder;
+    }
+
+    /**
+     * @return 票据参数提取
+     */
+    public ArtifactParameterExtractor getArtifactExtractor() {
+        return this.artifactExtractor;
+    }
+
+    /**
+     * @return cas登录重定向地址模板，未配置cas登录地址时为null
+     */
+    public RedirectUrlTemplate getLoginRedirectTemplate() {
+        return this.loginRedirectCache == null ? null : this.loginRedirectCache.getTemplate();
+    }
+
+    /**
+     * @return 按service url缓存的cas登录重定向地址，未配置cas登录地址时为null
+     */
+    public LoginRedirectCache getLoginRedirectCache() {
+        return this.loginRedirectCache;
+    }
+
+    /**
+     * @return 登录重定向限流，未配置时为null
+     */
+    public LoginRedirectLimiter getLoginRedirectLimiter() {
+        return this.loginRedirectLimiter;
+    }
+
+    public AssertionStore getAssertionStore() {
+        return this.assertionStore;
+    }
+
+    public CasServerGuard getServerGuard() {
+        return this.serverGuard;
+    }
+
+    /**
+     * @return 预先解析的票据校验器，可能为null
+     */
+    public TicketValidator getTicketValidator() {
+        return this.ticketValidator;
+    }
+
+    /**
+     * @return 是否使用默认的HttpSession存储
+     */
+    public boolean isSessionAssertionStore() {
+        return this.sessionAssertionStore;
+    }
+}
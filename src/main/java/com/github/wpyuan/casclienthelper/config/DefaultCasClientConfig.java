@@ -1,13 +1,22 @@
 package com.github.wpyuan.casclienthelper.config;
 
+import com.github.wpyuan.casclienthelper.http.CasHttpTransport;
+import com.github.wpyuan.casclienthelper.proxy.SharedProxyGrantingTicketStorage;
+import com.github.wpyuan.casclienthelper.redirect.NonNavigationResponse;
+import com.github.wpyuan.casclienthelper.resilience.CircuitOpenFallback;
+import com.github.wpyuan.casclienthelper.store.AssertionStore;
+import com.github.wpyuan.casclienthelper.validation.ValidationProtocol;
 import lombok.*;
 import org.jasig.cas.client.authentication.AuthenticationRedirectStrategy;
 import org.jasig.cas.client.authentication.DefaultAuthenticationRedirectStrategy;
 import org.jasig.cas.client.authentication.DefaultGatewayResolverImpl;
 import org.jasig.cas.client.authentication.GatewayResolver;
 import org.jasig.cas.client.proxy.ProxyGrantingTicketStorage;
-import org.jasig.cas.client.proxy.ProxyGrantingTicketStorageImpl;
 import org.jasig.cas.client.util.AbstractCasFilter;
+import org.jasig.cas.client.validation.TicketValidator;
+
+import java.util.Map;
+import java.util.Set;
 
 /**
  * <p>
@@ -23,10 +32,22 @@ import org.jasig.cas.client.util.AbstractCasFilter;
 @Builder(toBuilder = true)
 public class DefaultCasClientConfig {
 
+    /**
+     * 默认的gateway存储及重定向策略均无状态，所有配置共用一个实例，load()每次新建的配置仍可按内容相等复用编译结果
+     */
+    private static final GatewayResolver DEFAULT_GATEWAY_STORAGE = new DefaultGatewayResolverImpl();
+    private static final AuthenticationRedirectStrategy DEFAULT_REDIRECT_STRATEGY = new DefaultAuthenticationRedirectStrategy();
+
     private String casServerUrlPrefix;
     private String casServerLoginUrl;
     private String serverName;
+    /**
+     * 需要cas认证的url规则，为空表示全部。多个规则以逗号分隔，可加前缀ant:（默认）、regex:、exact:，如"/api/**, regex:/v\d+/.*"
+     */
     private String includeUrlMath;
+    /**
+     * 不需要cas认证的url规则，写法同{@link #includeUrlMath}，如静态资源、健康检查
+     */
     private String excludeUrlMath;
 
     /**
@@ -47,7 +68,7 @@ public class DefaultCasClientConfig {
      */
     private boolean gateway = false;
 
-    private GatewayResolver gatewayStorage = new DefaultGatewayResolverImpl();
+    private GatewayResolver gatewayStorage = DEFAULT_GATEWAY_STORAGE;
 
     /**
      * Defines the parameter to look for for the service.
@@ -58,7 +79,7 @@ public class DefaultCasClientConfig {
      * Whether to send the renew request or not.
      */
     private boolean renew = false;
-    private AuthenticationRedirectStrategy authenticationRedirectStrategy = new DefaultAuthenticationRedirectStrategy();
+    private AuthenticationRedirectStrategy authenticationRedirectStrategy = DEFAULT_REDIRECT_STRATEGY;
     /**
      * 是否重定向CAS认证页面
      */
@@ -69,9 +90,14 @@ public class DefaultCasClientConfig {
     private String proxyReceptorUrl;
 
     /**
-     * Storage location of ProxyGrantingTickets and Proxy Ticket IOUs.
+     * The callback URL to provide the CAS server to accept Proxy Granting Tickets. 为空时校验票据不申请PGT
      */
-    private ProxyGrantingTicketStorage proxyGrantingTicketStorage = new ProxyGrantingTicketStorageImpl();
+    private String proxyCallbackUrl;
+    /**
+     * Storage location of ProxyGrantingTickets and Proxy Ticket IOUs. 默认为进程内共享的存储，重新构建配置不会丢失PGT
+     */
+    @Builder.Default
+    private ProxyGrantingTicketStorage proxyGrantingTicketStorage = SharedProxyGrantingTicketStorage.getDefault();
 
     /**
      * Specify whether the Assertion should be stored in a session
@@ -90,4 +116,230 @@ public class DefaultCasClientConfig {
      * Determines whether an exception is thrown when there is a ticket validation failure.
      */
     private boolean exceptionOnValidationFailure = false;
+
+    /**
+     * 自定义票据校验器，配置后忽略{@link #validationProtocol}等校验参数
+     */
+    private TicketValidator ticketValidator;
+
+    /**
+     * 票据校验协议，未配置{@link #ticketValidator}时按此协议创建并复用校验器
+     */
+    @Builder.Default
+    private ValidationProtocol validationProtocol = ValidationProtocol.CAS20_PROXY;
+
+    /**
+     * 是否以StAX流式解析cas服务端的校验响应（仅CAS 2.0/3.0协议），不缓冲整个响应、不构建DOM，只提取需要的属性。
+     * 流式校验经{@link #httpTransport}（默认为连接池）访问cas服务端，受总超时及响应体上限约束；
+     * 关闭后及CAS 1.0、SAML 1.1协议使用cas-client-core的校验器，只有连接、读取超时
+     */
+    @Builder.Default
+    private boolean streamingValidation = true;
+
+    /**
+     * 需要保留的用户属性名（重命名前），为空保留全部。对CAS 2.0/3.0协议的内置校验器生效
+     */
+    private Set<String> attributeWhitelist;
+
+    /**
+     * 用户属性重命名，原名到新名，如{"memberOf": "groups"}
+     */
+    private Map<String, String> attributeRenames;
+
+    /**
+     * 是否把用户属性转为紧凑、去重的不可变属性表，大量session拥有相同角色、部门、组时显著减少内存。开启后属性不可修改
+     */
+    @Builder.Default
+    private boolean compactAttributes = false;
+
+    /**
+     * 校验proxy ticket时是否接受任意代理链
+     */
+    @Builder.Default
+    private boolean acceptAnyProxy = false;
+
+    /**
+     * cas服务端响应编码，为空时使用平台默认编码
+     */
+    private String encoding;
+
+    /**
+     * 自定义访问cas服务端的http传输实现，为空时使用按下列超时参数创建的连接池
+     */
+    private CasHttpTransport httpTransport;
+
+    /**
+     * 连接cas服务端超时（毫秒），小于等于0表示不限制
+     */
+    @Builder.Default
+    private int connectTimeout = 5000;
+
+    /**
+     * 读取cas服务端响应超时（毫秒），小于等于0表示不限制
+     */
+    @Builder.Default
+    private int readTimeout = 10000;
+
+    /**
+     * 单次请求cas服务端总超时，含排队、连接、读取（毫秒），小于等于0表示不限制。
+     * 合并到同一ticket进行中校验的请求最多也等待这么久，超时按cas服务端不可用处理
+     */
+    @Builder.Default
+    private long totalTimeout = 15000;
+
+    /**
+     * cas服务端响应体上限（字节），小于等于0表示不限制
+     */
+    @Builder.Default
+    private long maxResponseSize = 1024 * 1024;
+
+    /**
+     * 每个cas服务端host的最大并发连接数，小于等于0表示不限制
+     */
+    @Builder.Default
+    private int maxConnectionsPerHost = 20;
+
+    /**
+     * 票据校验结果缓存时间（毫秒），期间携带同一ticket的并发请求共享一次校验结果，小于等于0表示不缓存
+     */
+    @Builder.Default
+    private long ticketValidationCacheTtl = 3000;
+
+    /**
+     * 是否异步校验票据。开启后校验期间不占用容器线程（需容器及过滤器链支持servlet 3.0异步），
+     * 校验通过后若不重定向，则以异步分派继续执行后续过滤器链
+     */
+    @Builder.Default
+    private boolean asyncValidation = false;
+
+    /**
+     * 异步校验超时（毫秒），超时按校验失败处理
+     */
+    @Builder.Default
+    private long asyncValidationTimeout = 30000;
+
+    /**
+     * assertion存储，如{@link com.github.wpyuan.casclienthelper.store.SignedCookieAssertionStore}。
+     * 为空时保存在HttpSession中（受{@link #useSession}控制）；配置后忽略{@link #useSession}
+     */
+    private AssertionStore assertionStore;
+
+    /**
+     * 同一cas服务端host同时进行的调用上限（票据校验、assertion刷新、申请代理票据），超出时按{@link #circuitOpenFallback}处理，小于等于0表示不限制
+     */
+    @Builder.Default
+    private int bulkheadMaxConcurrentCalls = 0;
+
+    /**
+     * 并发已满时等待空闲许可的最长时间（毫秒），小于等于0表示不等待
+     */
+    @Builder.Default
+    private long bulkheadMaxWait = 0;
+
+    /**
+     * 是否启用熔断。cas服务端通讯失败率过高时，一段时间内不再访问cas服务端（票据校验、assertion刷新、申请代理票据），
+     * 校验直接按{@link #circuitOpenFallback}处理，申请代理票据返回null
+     */
+    @Builder.Default
+    private boolean circuitBreakerEnabled = false;
+
+    /**
+     * 熔断失败率阈值（百分比）
+     */
+    @Builder.Default
+    private int circuitBreakerFailureRateThreshold = 50;
+
+    /**
+     * 计算失败率的最近调用次数
+     */
+    @Builder.Default
+    private int circuitBreakerWindowSize = 50;
+
+    /**
+     * 窗口内至少调用多少次才计算失败率
+     */
+    @Builder.Default
+    private int circuitBreakerMinimumCalls = 10;
+
+    /**
+     * 熔断打开后多久放行试探调用（毫秒）
+     */
+    @Builder.Default
+    private long circuitBreakerOpenDuration = 30000;
+
+    /**
+     * 半开状态放行的试探调用数，全部成功才关闭熔断
+     */
+    @Builder.Default
+    private int circuitBreakerHalfOpenCalls = 3;
+
+    /**
+     * cas服务端不可用（熔断打开或并发已满）时的处理方式
+     */
+    @Builder.Default
+    private CircuitOpenFallback circuitOpenFallback = CircuitOpenFallback.FAIL_FAST;
+
+    /**
+     * assertion最长有效期（毫秒），从校验通过时起算，cas服务端返回的validUntilDate更早时以其为准；
+     * CAS 2.0/3.0响应不带有效期，不配置时assertion直到session失效都被信任。小于等于0表示不限制
+     */
+    @Builder.Default
+    private long assertionMaxAge = 0;
+
+    /**
+     * assertion距validUntilDate不足该时间（毫秒）时，若校验时申请了PGT（配置了{@link #proxyCallbackUrl}），
+     * 则在后台用PGT为当前服务申请PT重新校验，刷新有效期，用户无需跳转登录。小于等于0表示不刷新
+     */
+    @Builder.Default
+    private long assertionRefreshAhead = 0;
+
+    /**
+     * 是否处理cas服务端的单点登出请求（后端通道POST、前端通道GET）。开启后校验通过的ticket记录到登出索引，
+     * 收到登出请求时移除对应assertion
+     */
+    @Builder.Default
+    private boolean singleSignOut = false;
+
+    /**
+     * 单点登出请求参数名
+     */
+    @Builder.Default
+    private String logoutParameterName = "logoutRequest";
+
+    /**
+     * 后端通道单点登出地址（请求路径后缀），配置后只有该路径的表单POST才读取请求体查找登出请求；
+     * 为空时只读取不带cookie的表单POST（cas服务端发起的后端通道请求不带cookie），不消费用户自己提交的表单
+     */
+    private String logoutReceptorUrl;
+
+    /**
+     * 前端通道单点登出的RelayState参数名，带此参数时登出后重定向回cas服务端继续登出其他服务
+     */
+    @Builder.Default
+    private String relayStateParameterName = "RelayState";
+
+    /**
+     * 非页面导航请求（XHR、fetch、静态资源等，按Sec-Fetch-Mode、X-Requested-With、Accept判断）未登录时的响应方式，
+     * 为null时与{@link NonNavigationResponse#REDIRECT}相同
+     */
+    @Builder.Default
+    private NonNavigationResponse nonNavigationResponse = NonNavigationResponse.REDIRECT;
+
+    /**
+     * 每个客户端（按请求携带的session id，没有时按客户端地址）每秒允许重定向到cas登录页的次数，超出时返回429。小于等于0表示不限制
+     */
+    @Builder.Default
+    private double loginRedirectRate = 0;
+
+    /**
+     * 登录重定向限流允许的突发次数
+     */
+    @Builder.Default
+    private int loginRedirectBurst = 5;
+
+    /**
+     * 按service url缓存的登录重定向地址数，小于等于0表示不缓存
+     */
+    @Builder.Default
+    private int loginRedirectCacheSize = 1024;
 }
@@ -1,19 +1,49 @@
 package com.github.wpyuan.casclienthelper.filter;
 
+import com.github.wpyuan.casclienthelper.config.CasClientConfigResolver;
+import com.github.wpyuan.casclienthelper.config.CasClientContext;
 import com.github.wpyuan.casclienthelper.config.DefaultCasClientConfig;
+import com.github.wpyuan.casclienthelper.concurrent.CasClientExecutors;
+import com.github.wpyuan.casclienthelper.logout.LogoutRequestParser;
+import com.github.wpyuan.casclienthelper.logout.TicketSessionIndex;
+import com.github.wpyuan.casclienthelper.metrics.CasClientMetrics;
+import com.github.wpyuan.casclienthelper.metrics.FilterOutcome;
+import com.github.wpyuan.casclienthelper.metrics.FilterStage;
+import com.github.wpyuan.casclienthelper.redirect.LoginRedirectCache;
+import com.github.wpyuan.casclienthelper.redirect.LoginRedirectLimiter;
+import com.github.wpyuan.casclienthelper.redirect.NavigationRequests;
+import com.github.wpyuan.casclienthelper.redirect.NonNavigationResponse;
+import com.github.wpyuan.casclienthelper.resilience.CasServerGuard;
+import com.github.wpyuan.casclienthelper.resilience.CasServerUnavailableException;
+import com.github.wpyuan.casclienthelper.resilience.CircuitOpenFallback;
+import com.github.wpyuan.casclienthelper.tenant.TenantRegistry;
+import com.github.wpyuan.casclienthelper.url.QueryStrings;
+import com.github.wpyuan.casclienthelper.validation.AssertionRefresher;
+import com.github.wpyuan.casclienthelper.validation.TicketValidationCache;
+import com.github.wpyuan.casclienthelper.validation.TicketValidatorRegistry;
 import lombok.extern.slf4j.Slf4j;
 import com.github.wpyuan.casclienthelper.utill.CommonUtils;
 import org.jasig.cas.client.validation.Assertion;
-import org.jasig.cas.client.validation.Cas20ProxyTicketValidator;
 import org.jasig.cas.client.validation.TicketValidationException;
+import org.jasig.cas.client.validation.TicketValidator;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.jasig.cas.client.util.AbstractCasFilter.CONST_CAS_ASSERTION;
 
@@ -27,7 +57,54 @@ import static org.jasig.cas.client.util.AbstractCasFilter.CONST_CAS_ASSERTION;
 @Slf4j
 public abstract class AbstractCasClientAuthenticationFilter extends OncePerRequestFilter {
 
-    private DefaultCasClientConfig defaultCasClientConfig;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * 配置解析，按{@link #configKey(HttpServletRequest)}缓存load()结果；配置只在请求内传递，不再写入共享字段
+     */
+    private CasClientConfigResolver configResolver = new CasClientConfigResolver();
+
+    /**
+     * 多租户注册表，按请求host直接取得租户配置，未匹配的请求仍走load()
+     */
+    private volatile TenantRegistry tenantRegistry;
+
+    /**
+     * 票据校验器注册表，按cas服务地址前缀及校验参数复用校验器
+     */
+    private TicketValidatorRegistry ticketValidatorRegistry = new TicketValidatorRegistry();
+
+    /**
+     * 票据校验结果短期缓存，合并同一ticket的并发校验
+     */
+    private TicketValidationCache ticketValidationCache = new TicketValidationCache();
+
+    /**
+     * 单点登出索引，见{@link DefaultCasClientConfig#singleSignOut}
+     */
+    private TicketSessionIndex ticketSessionIndex = new TicketSessionIndex();
+
+    /**
+     * assertion后台刷新，见{@link DefaultCasClientConfig#assertionRefreshAhead}
+     */
+    private AssertionRefresher assertionRefresher = new AssertionRefresher();
+
+    /**
+     * 异步校验线程池，未设置时首次使用创建
+     */
+    private volatile ExecutorService validationExecutor;
+    private boolean ownsValidationExecutor;
+    private final ReentrantLock validationExecutorLock = new ReentrantLock();
+
+    /**
+     * 父类每次请求都拼接一次属性名，这里缓存
+     */
+    private volatile String alreadyFilteredAttributeName;
+
+    /**
+     * 指标记录，默认不记录
+     */
+    private CasClientMetrics metrics = CasClientMetrics.NOOP;
 
     /**
      * 前置监听，顺序0（数字越小执行顺序越靠前）
@@ -51,117 +128,677 @@ public abstract class AbstractCasClientAuthenticationFilter extends OncePerReque
      */
     public abstract DefaultCasClientConfig load(final HttpServletRequest request, final HttpServletResponse response) throws ServletException, IOException;
 
+    /**
+     * 配置缓存key，如host、租户标识。返回非null时，相同key的请求复用首次load()装配的配置；默认返回null，即每次请求都调用load()
+     *
+     * @param request 请求
+     * @return 配置缓存key
+     */
+    protected String configKey(final HttpServletRequest request) {
+        return null;
+    }
+
+    /**
+     * 使指定key的缓存配置失效，下次请求重新调用load()
+     *
+     * @param key 配置缓存key
+     */
+    public void invalidateConfig(String key) {
+        this.configResolver.invalidate(key);
+    }
+
+    /**
+     * 使所有缓存配置失效
+     */
+    public void invalidateAllConfigs() {
+        this.configResolver.invalidateAll();
+    }
+
+    public CasClientConfigResolver getConfigResolver() {
+        return this.configResolver;
+    }
+
+    /**
+     * 自定义配置缓存（容量、过期时间）
+     *
+     * @param configResolver 配置解析
+     */
+    public void setConfigResolver(CasClientConfigResolver configResolver) {
+        this.configResolver = configResolver;
+    }
+
+    public TenantRegistry getTenantRegistry() {
+        return this.tenantRegistry;
+    }
+
+    /**
+     * 设置或整体替换（重新加载）多租户注册表，正在处理的请求不受影响
+     *
+     * @param tenantRegistry 多租户注册表，为null时所有请求走load()
+     */
+    public void setTenantRegistry(TenantRegistry tenantRegistry) {
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    public TicketValidatorRegistry getTicketValidatorRegistry() {
+        return this.ticketValidatorRegistry;
+    }
+
+    public void setTicketValidatorRegistry(TicketValidatorRegistry ticketValidatorRegistry) {
+        this.ticketValidatorRegistry = ticketValidatorRegistry;
+    }
+
+    public TicketValidationCache getTicketValidationCache() {
+        return this.ticketValidationCache;
+    }
+
+    public void setTicketValidationCache(TicketValidationCache ticketValidationCache) {
+        this.ticketValidationCache = ticketValidationCache;
+    }
+
+    public TicketSessionIndex getTicketSessionIndex() {
+        return this.ticketSessionIndex;
+    }
+
+    public void setTicketSessionIndex(TicketSessionIndex ticketSessionIndex) {
+        this.ticketSessionIndex = ticketSessionIndex;
+    }
+
+    public AssertionRefresher getAssertionRefresher() {
+        return this.assertionRefresher;
+    }
+
+    public void setAssertionRefresher(AssertionRefresher assertionRefresher) {
+        this.assertionRefresher = assertionRefresher;
+    }
+
+    /**
+     * 自定义异步校验线程池，由调用方负责关闭
+     *
+     * @param validationExecutor 线程池
+     */
+    public void setValidationExecutor(ExecutorService validationExecutor) {
+        this.validationExecutor = validationExecutor;
+        this.ownsValidationExecutor = false;
+    }
+
+    public CasClientMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * 设置指标记录，如{@link com.github.wpyuan.casclienthelper.metrics.SimpleCasClientMetrics}或桥接到Micrometer的实现
+     *
+     * @param metrics 指标记录，为null时不记录
+     */
+    public void setMetrics(CasClientMetrics metrics) {
+        this.metrics = metrics != null ? metrics : CasClientMetrics.NOOP;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        // 阶段0：前置监听、配置、url过滤
         if (!this.before(request, response)) {
+            this.metrics.increment(FilterOutcome.SKIPPED);
             chain.doFilter(request, response);
             return;
         }
-        this.defaultCasClientConfig = this.load(request, response);
-        if (this.defaultCasClientConfig == null) {
+        final CasClientContext context = this.resolveContext(request, response);
+        if (context == null) {
             log.warn("casConfig can not be null");
+            this.metrics.increment(FilterOutcome.NULL_CONFIG);
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!context.getUrlMatcher().matches(request)) {
+            log.debug("request {} excluded by includeUrlMath/excludeUrlMath", request.getRequestURI());
+            this.metrics.increment(FilterOutcome.EXCLUDED);
             chain.doFilter(request, response);
             return;
         }
 
-        HttpSession session = request.getSession(false);
-        Assertion assertion = session != null ? (Assertion) session.getAttribute(CONST_CAS_ASSERTION) : null;
-        final String serviceUrl = CommonUtils.constructServiceUrl(request, response, null, this.defaultCasClientConfig.getServerName(),
-                this.defaultCasClientConfig.getArtifactParameterName(), this.defaultCasClientConfig.isAppendPort(), this.defaultCasClientConfig.isEncodeServiceUrl());
-        String ticket = CommonUtils.safeGetParameter(request, this.defaultCasClientConfig.getArtifactParameterName());
-        if (CommonUtils.isNotBlank(ticket) && (request.getSession(false) == null || request.getSession(false).isNew())) {
-            // cas服务端登录成功后跳转携带的ticket，已经失效了，此时要作废，否则会报错“org.jasig.cas.client.validation.TicketValidationException: 票根'ST-XX'不符合目标服务”
-            ticket = null;
-        }
-        final boolean wasGatewayed = this.defaultCasClientConfig.isGateway() && this.defaultCasClientConfig.getGatewayStorage().hasGatewayedAlready(request, serviceUrl);
-        if (assertion == null && CommonUtils.isBlank(ticket) && !wasGatewayed) {
-            log.debug("no ticket and no assertion found");
-            if (this.defaultCasClientConfig.isRedirectAuthUrl()) {
-                final String modifiedServiceUrl;
-
-                if (this.defaultCasClientConfig.isGateway()) {
-                    log.debug("setting isGateway() attribute in session");
-                    modifiedServiceUrl = this.defaultCasClientConfig.getGatewayStorage().storeGatewayInformation(request, serviceUrl);
-                } else {
-                    modifiedServiceUrl = serviceUrl;
+        // 代理回调。由cas服务端发起，既不带ticket也没有session，须在读取assertion、跳转登录页之前处理
+        if (!preFilter(request, response, context.getConfig())) {
+            this.metrics.increment(FilterOutcome.PROXY_RECEPTOR);
+            return;
+        }
+
+        // 单点登出。前端通道登出由浏览器发起，带着要登出的session，须在读取assertion之前处理
+        if (context.getConfig().isSingleSignOut() && this.handleLogoutRequest(context, request, response)) {
+            this.metrics.increment(FilterOutcome.LOGOUT);
+            return;
+        }
+
+        // 阶段1：已认证。绝大多数请求到此结束，不构造service url、不解析ticket
+        final Assertion assertion = this.currentAssertion(context, request, response);
+        if (assertion != null) {
+            this.metrics.increment(FilterOutcome.SESSION_HIT);
+            chain.doFilter(this.processSuccessfulValidation(request, response, assertion), response);
+            return;
+        }
+
+        // 阶段2：解析ticket
+        final String ticket = this.extractTicket(context, request);
+        if (CommonUtils.isBlank(ticket)) {
+            // 阶段3：未登录，跳转登录页或放行
+            this.handleUnauthenticated(context, request, response, chain);
+            return;
+        }
+
+        // 阶段4：校验ticket
+        this.handleTicket(context, ticket, request, response, chain);
+    }
+
+    /**
+     * 处理cas服务端的单点登出请求：后端通道为表单POST，前端通道为GET（deflate+base64）
+     *
+     * @return 是否为登出请求，是则已响应
+     */
+    private boolean handleLogoutRequest(final CasClientContext context, final HttpServletRequest request,
+                                        final HttpServletResponse response) throws IOException {
+        final DefaultCasClientConfig config = context.getConfig();
+        final String parameterName = config.getLogoutParameterName();
+        final boolean frontChannel;
+        final String[] payloads;
+        if ("POST".equals(request.getMethod())) {
+            // 读取参数会让容器解析整个请求体，只处理表单请求，且只处理登出地址或不带cookie的请求，避免消费用户自己提交的表单
+            final String contentType = request.getContentType();
+            if (contentType == null || !contentType.startsWith("application/x-www-form-urlencoded")) {
+                return false;
+            }
+            final String receptorUrl = config.getLogoutReceptorUrl();
+            if (CommonUtils.isEmpty(receptorUrl) ? request.getHeader("Cookie") != null : !request.getRequestURI().endsWith(receptorUrl)) {
+                return false;
+            }
+            frontChannel = false;
+            payloads = request.getParameterValues(parameterName);
+        } else {
+            final String payload = QueryStrings.getParameter(request.getQueryString(), parameterName);
+            if (payload == null) {
+                return false;
+            }
+            frontChannel = true;
+            payloads = new String[]{payload};
+        }
+        if (payloads == null || payloads.length == 0) {
+            return false;
+        }
+        int loggedOut = 0;
+        for (String payload : payloads) {
+            for (String ticket : LogoutRequestParser.getSessionIndexes(LogoutRequestParser.decode(payload))) {
+                final String key = this.ticketSessionIndex.remove(ticket);
+                if (key != null && context.getAssertionStore().evictByKey(key)) {
+                    loggedOut++;
                 }
+            }
+        }
+        log.debug("logout request processed, {} session(s) logged out", loggedOut);
+        if (frontChannel) {
+            final String relayState = QueryStrings.getParameter(request.getQueryString(), config.getRelayStateParameterName());
+            if (CommonUtils.isNotBlank(relayState)) {
+                final String prefix = config.getCasServerUrlPrefix();
+                response.sendRedirect(prefix + (prefix.endsWith("/") ? "" : "/") + "logout?_eventId=next&"
+                        + config.getRelayStateParameterName() + "=" + CommonUtils.urlEncode(relayState));
+                return true;
+            }
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        return true;
+    }
 
-                log.debug("Constructed service url: {}", modifiedServiceUrl);
+    /**
+     * 校验通过后记录ticket到单点登出索引
+     */
+    private void indexTicket(final CasClientContext context, final HttpServletRequest request, final String ticket, final Assertion assertion) {
+        if (context.getConfig().isSingleSignOut()) {
+            final String key = context.getAssertionStore().keyOf(request, assertion);
+            if (key != null) {
+                this.ticketSessionIndex.put(ticket, key);
+            }
+        }
+    }
 
-                final String urlToRedirectTo = CommonUtils.constructRedirectUrl(this.defaultCasClientConfig.getCasServerLoginUrl(),
-                        this.defaultCasClientConfig.getServiceParameterName(), modifiedServiceUrl, this.defaultCasClientConfig.isRenew(), this.defaultCasClientConfig.isGateway());
+    /**
+     * @return 当前请求已认证的assertion；已过期的从存储中移除并返回null，即将过期的在后台刷新，刷新完成后由此写回存储
+     */
+    private Assertion currentAssertion(final CasClientContext context, final HttpServletRequest request, final HttpServletResponse response) {
+        final Assertion assertion = context.getAssertionStore().get(request);
+        if (assertion == null || assertion.getPrincipal() == null) {
+            return null;
+        }
+        final Date validUntil = assertion.getValidUntilDate();
+        if (validUntil == null) {
+            return assertion;
+        }
+        final DefaultCasClientConfig config = context.getConfig();
+        final long remaining = validUntil.getTime() - System.currentTimeMillis();
+        if (remaining > config.getAssertionRefreshAhead() && remaining > 0) {
+            return assertion;
+        }
+        final Assertion refreshed = this.assertionRefresher.take(assertion);
+        if (refreshed != null) {
+            log.debug("replacing assertion of {} with refreshed one", assertion.getPrincipal().getName());
+            return this.storeAssertion(request, response, context, refreshed);
+        }
+        if (remaining <= 0) {
+            log.debug("assertion of {} expired at {}", assertion.getPrincipal().getName(), validUntil);
+            context.getAssertionStore().evict(request, response);
+            return null;
+        }
+        if (config.getProxyCallbackUrl() != null) {
+            final TicketValidator refreshValidator = this.ticketValidatorRegistry.getRefreshValidator(config);
+            if (refreshValidator != null) {
+                this.assertionRefresher.refresh(context.getServerGuard(), refreshValidator, assertion,
+                        this.buildServiceUrl(context, request, response));
+            }
+        }
+        return assertion;
+    }
 
-                log.debug("redirecting to \"{}\"", urlToRedirectTo);
-                this.defaultCasClientConfig.getAuthenticationRedirectStrategy().redirect(request, response, urlToRedirectTo);
-                return;
+    /**
+     * @return 请求携带的ticket，使用session存储且session为新建时作废，返回null
+     */
+    private String extractTicket(final CasClientContext context, final HttpServletRequest request) {
+        final String ticket = context.getArtifactExtractor().extract(request);
+        if (CommonUtils.isNotBlank(ticket) && context.isSessionAssertionStore()) {
+            final HttpSession session = request.getSession(false);
+            if (session == null || session.isNew()) {
+                // cas服务端登录成功后跳转携带的ticket，已经失效了，此时要作废，否则会报错“org.jasig.cas.client.validation.TicketValidationException: 票根'ST-XX'不符合目标服务”
+                return null;
             }
+        }
+        return ticket;
+    }
 
+    private void handleUnauthenticated(final CasClientContext context, final HttpServletRequest request,
+                                       final HttpServletResponse response, final FilterChain chain) throws ServletException, IOException {
+        final DefaultCasClientConfig config = context.getConfig();
+        String serviceUrl = null;
+        if (config.isGateway()) {
+            serviceUrl = this.buildServiceUrl(context, request, response);
+            if (config.getGatewayStorage().hasGatewayedAlready(request, serviceUrl)) {
+                this.metrics.increment(FilterOutcome.GATEWAY);
+                chain.doFilter(request, response);
+                return;
+            }
+        }
+        log.debug("no ticket and no assertion found");
+        if (!config.isRedirectAuthUrl()) {
+            this.metrics.increment(FilterOutcome.UNAUTHENTICATED);
             chain.doFilter(request, response);
             return;
         }
-
-        if (assertion != null && assertion.getPrincipal() != null) {
-            request = onSuccessfulValidation(request, response, assertion);
-            chain.doFilter(request, response);
+        if (this.rejectLoginRedirect(context, request, response, serviceUrl)) {
             return;
         }
 
-        if (!preFilter(request, response)) {
+        final String modifiedServiceUrl;
+        if (config.isGateway()) {
+            log.debug("setting isGateway() attribute in session");
+            modifiedServiceUrl = config.getGatewayStorage().storeGatewayInformation(request, serviceUrl);
+        } else {
+            modifiedServiceUrl = this.buildServiceUrl(context, request, response);
+        }
+
+        log.debug("Constructed service url: {}", modifiedServiceUrl);
+
+        final String urlToRedirectTo = this.loginRedirectUrl(context, modifiedServiceUrl);
+
+        log.debug("redirecting to \"{}\"", urlToRedirectTo);
+        this.metrics.increment(FilterOutcome.REDIRECT_TO_LOGIN);
+        config.getAuthenticationRedirectStrategy().redirect(request, response, urlToRedirectTo);
+    }
+
+    /**
+     * 登录重定向控制：按配置对非页面导航请求直接返回401；同一客户端重定向过于频繁时返回429，避免session集中失效时大量请求同时涌向cas登录页
+     *
+     * @param serviceUrl gateway模式下已构造的service url，否则为null
+     * @return 是否已响应，不再重定向
+     */
+    private boolean rejectLoginRedirect(final CasClientContext context, final HttpServletRequest request,
+                                        final HttpServletResponse response, final String serviceUrl) throws ServletException, IOException {
+        final NonNavigationResponse nonNavigationResponse = context.getConfig().getNonNavigationResponse();
+        if (nonNavigationResponse != null && nonNavigationResponse != NonNavigationResponse.REDIRECT
+                && !NavigationRequests.isNavigation(request)) {
+            log.debug("non-navigation request, responding 401 instead of redirecting");
+            this.metrics.increment(FilterOutcome.NON_NAVIGATION_UNAUTHORIZED);
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            if (nonNavigationResponse == NonNavigationResponse.JSON) {
+                final String loginUrl = this.loginRedirectUrl(context,
+                        serviceUrl != null ? serviceUrl : this.buildServiceUrl(context, request, response));
+                final StringBuilder body = new StringBuilder(loginUrl.length() + 48).append("{\"error\":\"unauthenticated\",\"loginUrl\":\"");
+                appendJsonEscaped(body, loginUrl);
+                response.setContentType("application/json;charset=UTF-8");
+                response.getWriter().write(body.append("\"}").toString());
+            }
+            return true;
+        }
+        final LoginRedirectLimiter limiter = context.getLoginRedirectLimiter();
+        if (limiter != null) {
+            // 按浏览器携带的session id区分客户端（session失效后浏览器仍会携带），避免反向代理后所有请求共用一个地址
+            final String sessionId = request.getRequestedSessionId();
+            final long waitNanos = limiter.tryAcquire(sessionId != null ? sessionId : request.getRemoteAddr());
+            if (waitNanos > 0) {
+                log.debug("too many login redirects, responding 429");
+                this.metrics.increment(FilterOutcome.LOGIN_REDIRECT_THROTTLED);
+                response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+                response.setStatus(429);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return service url对应的cas登录重定向地址
+     * @throws ServletException 未配置cas登录地址
+     */
+    private String loginRedirectUrl(final CasClientContext context, final String serviceUrl) throws ServletException {
+        final LoginRedirectCache cache = context.getLoginRedirectCache();
+        if (cache == null) {
+            throw new ServletException("casServerLoginUrl is required to redirect to cas login");
+        }
+        return cache.get(serviceUrl);
+    }
+
+    private static void appendJsonEscaped(final StringBuilder buffer, final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.append('\\').append(c);
+            } else if (c < 0x20) {
+                buffer.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+            } else {
+                buffer.append(c);
+            }
+        }
+    }
+
+    private void handleTicket(final CasClientContext context, final String ticket, HttpServletRequest request,
+                              final HttpServletResponse response, final FilterChain chain) throws ServletException, IOException {
+        final DefaultCasClientConfig config = context.getConfig();
+        final String serviceUrl = this.buildServiceUrl(context, request, response);
+        log.debug("Attempting to validate ticket: {}", ticket);
+        final TicketValidator ticketValidator = context.getTicketValidator() != null
+                ? context.getTicketValidator() : this.ticketValidatorRegistry.getValidator(config);
+
+        if (config.isAsyncValidation()) {
+            if (request.isAsyncSupported()) {
+                this.validateAsync(context, ticketValidator, ticket, serviceUrl, request, response);
+                return;
+            }
+            log.debug("async not supported for this request, validating ticket synchronously");
+        }
+
+        try {
+            final Assertion assertion = this.storeAssertion(request, response, context,
+                    this.validateTicket(context, ticketValidator, ticket, serviceUrl));
+            this.indexTicket(context, request, ticket, assertion);
+
+            log.debug("Successfully authenticated user: {}", assertion.getPrincipal().getName());
+            this.metrics.increment(FilterOutcome.VALIDATION_SUCCESS);
+
+            request = this.processSuccessfulValidation(request, response, assertion);
+
+            if (config.isRedirectAfterValidation()) {
+                log.debug("Redirecting after successful ticket validation.");
+                response.sendRedirect(serviceUrl);
+                return;
+            }
+        } catch (final TicketValidationException e) {
+            log.debug(e.getMessage(), e);
+            this.metrics.increment(FilterOutcome.VALIDATION_FAILURE);
+
+            onFailedValidation(request, response, e);
+
+            if (config.isExceptionOnValidationFailure()) {
+                throw new ServletException(e.getMessage(), e);
+            }
             return;
         }
 
-        Cas20ProxyTicketValidator ticketValidator = new Cas20ProxyTicketValidator(this.defaultCasClientConfig.getCasServerUrlPrefix());
+        chain.doFilter(request, response);
+    }
 
-        if (CommonUtils.isNotBlank(ticket)) {
-            log.debug("Attempting to validate ticket: {}", ticket);
+    private String buildServiceUrl(final CasClientContext context, final HttpServletRequest request, final HttpServletResponse response) {
+        final long start = this.startTiming();
+        final String serviceUrl = context.getServiceUrlBuilder().build(request, response);
+        this.stopTiming(FilterStage.SERVICE_URL, start);
+        return serviceUrl;
+    }
 
-            try {
-                assertion = ticketValidator.validate(ticket,
-                        CommonUtils.constructServiceUrl(request, response, null, this.defaultCasClientConfig.getServerName(),
-                                this.defaultCasClientConfig.getArtifactParameterName(), this.defaultCasClientConfig.isEncodeServiceUrl()));
+    /**
+     * 经{@link CasServerGuard}校验票据，cas服务端不可用时按{@link DefaultCasClientConfig#circuitOpenFallback}处理
+     */
+    private Assertion validateTicket(final CasClientContext context, final TicketValidator ticketValidator,
+                                     final String ticket, final String serviceUrl) throws TicketValidationException {
+        final DefaultCasClientConfig config = context.getConfig();
+        final CasServerGuard guard = context.getServerGuard();
+        final boolean serveCached = config.getCircuitOpenFallback() == CircuitOpenFallback.SERVE_CACHED;
+        final long start = this.startTiming();
+        this.metrics.validationStarted();
+        try {
+            final Assertion assertion = this.ticketValidationCache.validate(
+                    guard == CasServerGuard.UNGUARDED ? ticketValidator : (t, s) -> guard.validate(ticketValidator, t, s),
+                    ticket, serviceUrl, config.getTicketValidationCacheTtl(), config.getTotalTimeout());
+            if (serveCached) {
+                this.ticketValidationCache.retain(ticket, serviceUrl, assertion);
+            }
+            return assertion;
+        } catch (final CasServerUnavailableException e) {
+            final Assertion retained = serveCached ? this.ticketValidationCache.getRetained(ticket, serviceUrl) : null;
+            if (retained == null) {
+                throw e;
+            }
+            log.debug("cas server unavailable, serving retained assertion: {}", e.getMessage());
+            return retained;
+        } finally {
+            this.metrics.validationFinished();
+            this.stopTiming(FilterStage.TICKET_VALIDATION, start);
+        }
+    }
 
-                log.debug("Successfully authenticated user: {}", assertion.getPrincipal().getName());
+    private HttpServletRequest processSuccessfulValidation(final HttpServletRequest request, final HttpServletResponse response, final Assertion assertion) {
+        final long start = this.startTiming();
+        try {
+            return onSuccessfulValidation(request, response, assertion);
+        } finally {
+            this.stopTiming(FilterStage.ON_SUCCESSFUL_VALIDATION, start);
+        }
+    }
+
+    private long startTiming() {
+        return this.metrics.isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    private void stopTiming(final FilterStage stage, final long start) {
+        if (start != 0L) {
+            this.metrics.record(stage, System.nanoTime() - start);
+        }
+    }
 
-                request.setAttribute(CONST_CAS_ASSERTION, assertion);
+    /**
+     * @return 实际保存的assertion，有效期已按{@link DefaultCasClientConfig#assertionMaxAge}截短
+     */
+    private Assertion storeAssertion(final HttpServletRequest request, final HttpServletResponse response, final CasClientContext context, final Assertion assertion) {
+        final Assertion stored = AssertionRefresher.limitLifetime(assertion, context.getConfig().getAssertionMaxAge());
+        request.setAttribute(CONST_CAS_ASSERTION, stored);
+        context.getAssertionStore().put(request, response, stored);
+        return stored;
+    }
 
-                if (this.defaultCasClientConfig.isUseSession()) {
-                    request.getSession().setAttribute(CONST_CAS_ASSERTION, assertion);
+    /**
+     * 异步校验票据：释放容器线程，在校验线程池中访问cas服务端，完成后在回调中执行onSuccessfulValidation/onFailedValidation，
+     * 然后重定向或以异步分派继续执行过滤器链（本过滤器不处理异步分派，见{@link #shouldNotFilterAsyncDispatch()}）
+     */
+    private void validateAsync(final CasClientContext context, final TicketValidator ticketValidator, final String ticket,
+                               final String serviceUrl, final HttpServletRequest request, final HttpServletResponse response) {
+        final DefaultCasClientConfig config = context.getConfig();
+        // onSuccessfulValidation可能返回加工后的request，分派前替换进包装对象
+        final HttpServletRequestWrapper dispatchRequest = new HttpServletRequestWrapper(request);
+        final AsyncContext asyncContext = request.startAsync(dispatchRequest, response);
+        asyncContext.setTimeout(config.getAsyncValidationTimeout());
+        final AtomicBoolean finished = new AtomicBoolean();
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                if (finished.compareAndSet(false, true)) {
+                    log.debug("ticket validation timed out after {} ms", config.getAsyncValidationTimeout());
+                    metrics.increment(FilterOutcome.VALIDATION_FAILURE);
+                    onAsyncValidationFailure(config, request, response, new TicketValidationException("ticket validation timed out"));
+                    asyncContext.complete();
                 }
-                request = onSuccessfulValidation(request, response, assertion);
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
 
-                if (this.defaultCasClientConfig.isRedirectAfterValidation()) {
-                    log.debug("Redirecting after successful ticket validation.");
-                    response.sendRedirect(CommonUtils.constructServiceUrl(request, response, null, this.defaultCasClientConfig.getServerName(),
-                            this.defaultCasClientConfig.getArtifactParameterName(), this.defaultCasClientConfig.isEncodeServiceUrl()));
+            @Override
+            public void onError(AsyncEvent event) {
+                finished.set(true);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return this.validateTicket(context, ticketValidator, ticket, serviceUrl);
+            } catch (TicketValidationException e) {
+                throw new AsyncValidationException(e);
+            }
+        }, this.getValidationExecutor()).whenComplete((assertion, error) -> {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                if (error == null) {
+                    log.debug("Successfully authenticated user: {}", assertion.getPrincipal().getName());
+                    this.metrics.increment(FilterOutcome.VALIDATION_SUCCESS);
+                    final Assertion stored = this.storeAssertion(request, response, context, assertion);
+                    this.indexTicket(context, request, ticket, stored);
+                    final HttpServletRequest processed = this.processSuccessfulValidation(request, response, stored);
+                    if (config.isRedirectAfterValidation()) {
+                        log.debug("Redirecting after successful ticket validation.");
+                        response.sendRedirect(serviceUrl);
+                        asyncContext.complete();
+                        return;
+                    }
+                    if (processed != null && processed != request) {
+                        dispatchRequest.setRequest(processed);
+                    }
+                    asyncContext.dispatch();
                     return;
                 }
-            } catch (final TicketValidationException e) {
-                log.debug(e.getMessage(), e);
+                final Throwable cause = error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof AsyncValidationException) {
+                    final TicketValidationException e = ((AsyncValidationException) cause).getTicketValidationException();
+                    log.debug(e.getMessage(), e);
+                    this.metrics.increment(FilterOutcome.VALIDATION_FAILURE);
+                    this.onAsyncValidationFailure(config, request, response, e);
+                } else {
+                    log.error("ticket validation failed", cause);
+                    this.metrics.increment(FilterOutcome.VALIDATION_FAILURE);
+                    response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                }
+                asyncContext.complete();
+            } catch (Exception e) {
+                log.error("failed to complete async ticket validation", e);
+                asyncContext.complete();
+            }
+        });
+    }
 
-                onFailedValidation(request, response, e);
+    private void onAsyncValidationFailure(final DefaultCasClientConfig config, final HttpServletRequest request,
+                                          final HttpServletResponse response, final TicketValidationException e) throws IOException {
+        onFailedValidation(request, response, e);
+        if (config.isExceptionOnValidationFailure() && !response.isCommitted()) {
+            // 异步回调中无法向容器抛出ServletException，等价地返回500
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
 
-                if (this.defaultCasClientConfig.isExceptionOnValidationFailure()) {
-                    throw new ServletException(e.getMessage(), e);
+    private ExecutorService getValidationExecutor() {
+        ExecutorService executor = this.validationExecutor;
+        if (executor == null) {
+            // 不使用synchronized，避免在虚拟线程上占住载体线程
+            this.validationExecutorLock.lock();
+            try {
+                executor = this.validationExecutor;
+                if (executor == null) {
+                    executor = CasClientExecutors.newBlockingIoExecutor("cas-validation");
+                    this.validationExecutor = executor;
+                    this.ownsValidationExecutor = true;
                 }
-                return;
+            } finally {
+                this.validationExecutorLock.unlock();
             }
         }
+        return executor;
+    }
 
-        chain.doFilter(request, response);
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        String name = this.alreadyFilteredAttributeName;
+        if (name == null) {
+            name = super.getAlreadyFilteredAttributeName();
+            this.alreadyFilteredAttributeName = name;
+        }
+        return name;
     }
 
+    @Override
+    public void destroy() {
+        super.destroy();
+        this.assertionRefresher.close();
+        if (this.ownsValidationExecutor && this.validationExecutor != null) {
+            this.validationExecutor.shutdown();
+        }
+    }
+
+    private CasClientContext resolveContext(final HttpServletRequest request, final HttpServletResponse response) throws ServletException, IOException {
+        final TenantRegistry tenants = this.tenantRegistry;
+        if (tenants != null) {
+            final CasClientContext context = tenants.resolve(request);
+            if (context != null) {
+                return context;
+            }
+        }
+        return this.configResolver.resolve(this.configKey(request), () -> {
+            final long start = this.startTiming();
+            try {
+                return this.load(request, response);
+            } finally {
+                this.stopTiming(FilterStage.LOAD, start);
+            }
+        });
+    }
 
     /**
      * This processes the ProxyReceptor request before the ticket validation code executes.
+     *
+     * @deprecated 配置不再保存在过滤器的共享字段中，此方法按当前请求重新解析配置，请改用{@link #preFilter(HttpServletRequest, HttpServletResponse, DefaultCasClientConfig)}
      */
+    @Deprecated
     protected final boolean preFilter(final HttpServletRequest request, final HttpServletResponse response) throws IOException, ServletException {
+        final CasClientContext context = this.resolveContext(request, response);
+        return context == null || this.preFilter(request, response, context.getConfig());
+    }
+
+    /**
+     * This processes the ProxyReceptor request before the ticket validation code executes.
+     */
+    protected final boolean preFilter(final HttpServletRequest request, final HttpServletResponse response, final DefaultCasClientConfig config) throws IOException, ServletException {
         final String requestUri = request.getRequestURI();
 
-        if (CommonUtils.isEmpty(this.defaultCasClientConfig.getProxyReceptorUrl()) || !requestUri.endsWith(this.defaultCasClientConfig.getProxyReceptorUrl())) {
+        if (CommonUtils.isEmpty(config.getProxyReceptorUrl()) || !requestUri.endsWith(config.getProxyReceptorUrl())) {
             return true;
         }
 
-        CommonUtils.readAndRespondToProxyReceptorRequest(request, response, this.defaultCasClientConfig.getProxyGrantingTicketStorage());
+        CommonUtils.readAndRespondToProxyReceptorRequest(request, response, config.getProxyGrantingTicketStorage());
 
         return false;
     }
@@ -0,0 +1,22 @@
+package com.github.wpyuan.casclienthelper.filter;
+
+import org.jasig.cas.client.validation.TicketValidationException;
+
+/**
+ * <p>
+ * 在异步校验的CompletableFuture中传递{@link TicketValidationException}
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 17:50
+ */
+class AsyncValidationException extends RuntimeException {
+
+    AsyncValidationException(TicketValidationException cause) {
+        super(cause.getMessage(), cause, false, false);
+    }
+
+    TicketValidationException getTicketValidationException() {
+        return (TicketValidationException) this.getCause();
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.wpyuan.casclienthelper.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+
+/**
+ * <p>
+ * 限制最大读取字节数及截止时间的输入流，超出时抛出异常
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 11:15
+ */
+class BoundedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private final long deadline;
+    private long count;
+    private boolean closed;
+
+    /**
+     * @param in       原始输入流
+     * @param maxBytes 最大读取字节数，小于等于0表示不限制
+     * @param deadline 截止时间（{@link System#currentTimeMillis()}），小于等于0表示不限制
+     */
+    BoundedInputStream(InputStream in, long maxBytes, long deadline) {
+        super(in);
+        this.maxBytes = maxBytes;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            this.consumed(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read > 0) {
+            this.consumed(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        this.consumed(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+        super.close();
+    }
+
+    /**
+     * @return 是否已关闭，如解析器读到文档结尾时会自行关闭输入流
+     */
+    boolean isClosed() {
+        return this.closed;
+    }
+
+    private void consumed(long bytes) throws IOException {
+        this.count += bytes;
+        if (this.maxBytes > 0 && this.count > this.maxBytes) {
+            throw new ResponseTooLargeException("response exceeds " + this.maxBytes + " bytes");
+        }
+        if (this.deadline > 0 && System.currentTimeMillis() > this.deadline) {
+            throw new SocketTimeoutException("total timeout exceeded while reading response");
+        }
+    }
+}
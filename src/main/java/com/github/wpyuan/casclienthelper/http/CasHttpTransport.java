@@ -0,0 +1,55 @@
+package com.github.wpyuan.casclienthelper.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.Charset;
+
+/**
+ * <p>
+ * 访问cas服务端的http传输层
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 11:10
+ */
+public interface CasHttpTransport {
+
+    /**
+     * 发送GET请求，由handler处理响应体
+     *
+     * @param url     请求地址
+     * @param handler 响应体处理，传入的输入流已限制最大读取字节数，无需关闭
+     * @return 处理结果
+     * @throws IOException 连接、超时或响应体超出上限
+     */
+    <T> T execute(URL url, ResponseHandler<T> handler) throws IOException;
+
+    /**
+     * 发送GET请求，读取完整响应体
+     *
+     * @param url      请求地址
+     * @param encoding 响应编码，为空时使用平台默认编码
+     * @return 响应内容
+     */
+    default String getResponse(URL url, String encoding) throws IOException {
+        return this.execute(url, body -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return encoding == null || encoding.isEmpty() ? out.toString() : new String(out.toByteArray(), Charset.forName(encoding));
+        });
+    }
+
+    /**
+     * 响应体处理
+     */
+    @FunctionalInterface
+    interface ResponseHandler<T> {
+        T handle(InputStream body) throws IOException;
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.wpyuan.casclienthelper.http;
+
+import com.github.wpyuan.casclienthelper.cache.LocalCache;
+import com.github.wpyuan.casclienthelper.config.DefaultCasClientConfig;
+import lombok.Value;
+
+/**
+ * <p>
+ * 按配置获取传输实现，相同超时参数的配置共享同一个连接池。
+ * 默认为{@link PooledHttpURLConnectionTransport}，Java 21及以上（多版本jar）为基于JDK HttpClient的实现
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 11:35
+ */
+public final class CasHttpTransports {
+
+    private static final LocalCache<TransportKey, CasHttpTransport> TRANSPORTS = new LocalCache<>(64, 0);
+
+    private CasHttpTransports() {
+    }
+
+    /**
+     * 获取配置对应的传输实现，配置了{@link DefaultCasClientConfig#httpTransport}则直接使用
+     *
+     * @param config cas配置
+     * @return 传输实现
+     */
+    public static CasHttpTransport forConfig(DefaultCasClientConfig config) {
+        if (config.getHttpTransport() != null) {
+            return config.getHttpTransport();
+        }
+        TransportKey key = new TransportKey(config.getConnectTimeout(), config.getReadTimeout(), config.getTotalTimeout(),
+                config.getMaxResponseSize(), config.getMaxConnectionsPerHost());
+        CasHttpTransport transport = TRANSPORTS.get(key);
+        if (transport != null) {
+            return transport;
+        }
+        transport = PlatformTransports.newDefaultTransport(key.getConnectTimeout(), key.getReadTimeout(),
+                key.getTotalTimeout(), key.getMaxResponseSize(), key.getMaxConnectionsPerHost());
+        CasHttpTransport existing = TRANSPORTS.putIfAbsent(key, transport);
+        return existing != null ? existing : transport;
+    }
+
+    @Value
+    private static class TransportKey {
+        int connectTimeout;
+        int readTimeout;
+        long totalTimeout;
+        long maxResponseSize;
+        int maxConnectionsPerHost;
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.wpyuan.casclienthelper.http;
+
+/**
+ * <p>
+ * 与Java版本相关的默认传输实现。Java 21及以上使用src/main/java21中的同名类（多版本jar）
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 13:20
+ */
+final class PlatformTransports {
+
+    private PlatformTransports() {
+    }
+
+    static CasHttpTransport newDefaultTransport(int connectTimeout, int readTimeout, long totalTimeout,
+                                                long maxResponseSize, int maxConnectionsPerHost) {
+        return new PooledHttpURLConnectionTransport(null, connectTimeout, readTimeout, totalTimeout, maxResponseSize, maxConnectionsPerHost);
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.wpyuan.casclienthelper.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jasig.cas.client.ssl.HttpURLConnectionFactory;
+import org.jasig.cas.client.ssl.HttpsURLConnectionFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * 基于{@link HttpURLConnection}的默认传输实现：
+ * <ul>
+ *     <li>读完并关闭响应流而不调用disconnect()，连接回到JDK keep-alive缓存，按host复用</li>
+ *     <li>按host限制并发连接数，超出时在总超时内排队等待</li>
+ *     <li>连接、读取、总超时，以及响应体大小上限</li>
+ * </ul>
+ * JDK每个host最多缓存{@code http.maxConnections}（默认5）个空闲连接，建议启动参数设置为不小于maxConnectionsPerHost
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 11:20
+ */
+@Slf4j
+public class PooledHttpURLConnectionTransport implements CasHttpTransport {
+
+    private static final int DRAIN_BUFFER_SIZE = 4096;
+
+    private final HttpURLConnectionFactory connectionFactory;
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final long totalTimeout;
+    private final long maxResponseSize;
+    private final int maxConnectionsPerHost;
+    private final ConcurrentHashMap<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    /**
+     * @param connectionFactory     连接工厂，处理https配置
+     * @param connectTimeout        连接超时（毫秒），小于等于0表示不限制
+     * @param readTimeout           读取超时（毫秒），小于等于0表示不限制
+     * @param totalTimeout          总超时，含排队、连接、读取（毫秒），小于等于0表示不限制
+     * @param maxResponseSize       响应体上限（字节），小于等于0表示不限制
+     * @param maxConnectionsPerHost 每个host的最大并发连接数，小于等于0表示不限制
+     */
+    public PooledHttpURLConnectionTransport(HttpURLConnectionFactory connectionFactory, int connectTimeout, int readTimeout,
+                                            long totalTimeout, long maxResponseSize, int maxConnectionsPerHost) {
+        this.connectionFactory = connectionFactory != null ? connectionFactory : new HttpsURLConnectionFactory();
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.totalTimeout = totalTimeout;
+        this.maxResponseSize = maxResponseSize;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    @Override
+    public <T> T execute(URL url, ResponseHandler<T> handler) throws IOException {
+        final long deadline = this.totalTimeout > 0 ? System.currentTimeMillis() + this.totalTimeout : 0;
+        final Semaphore permits = this.acquire(url, deadline);
+        try {
+            return this.doExecute(url, handler, deadline);
+        } finally {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    private <T> T doExecute(URL url, ResponseHandler<T> handler, long deadline) throws IOException {
+        final HttpURLConnection conn = this.connectionFactory.buildHttpURLConnection(url.openConnection());
+        conn.setConnectTimeout(this.remaining(this.connectTimeout, deadline));
+        conn.setReadTimeout(this.remaining(this.readTimeout, deadline));
+        conn.setUseCaches(false);
+        final InputStream in;
+        try {
+            in = conn.getInputStream();
+        } catch (IOException e) {
+            // 读完错误响应，连接仍可复用
+            drainQuietly(conn.getErrorStream());
+            throw e;
+        }
+        final BoundedInputStream body = new BoundedInputStream(in, this.maxResponseSize, deadline);
+        boolean reusable = false;
+        try {
+            T result = handler.handle(body);
+            if (!body.isClosed()) {
+                drain(body);
+            }
+            reusable = true;
+            return result;
+        } finally {
+            try {
+                body.close();
+            } catch (IOException ignored) {
+            }
+            if (!reusable) {
+                // 未读完的连接无法复用，直接关闭
+                conn.disconnect();
+            }
+        }
+    }
+
+    private Semaphore acquire(URL url, long deadline) throws IOException {
+        if (this.maxConnectionsPerHost <= 0) {
+            return null;
+        }
+        final String host = url.getProtocol() + "://" + url.getAuthority();
+        final Semaphore permits = this.hostPermits.computeIfAbsent(host, key -> new Semaphore(this.maxConnectionsPerHost));
+        try {
+            if (deadline <= 0) {
+                permits.acquire();
+                return permits;
+            }
+            if (permits.tryAcquire(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                return permits;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a connection to " + host);
+        }
+        throw new SocketTimeoutException("timed out waiting for a connection to " + host);
+    }
+
+    private int remaining(int timeout, long deadline) throws SocketTimeoutException {
+        if (deadline <= 0) {
+            return Math.max(timeout, 0);
+        }
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            throw new SocketTimeoutException("total timeout exceeded");
+        }
+        return (int) (timeout > 0 ? Math.min(timeout, remaining) : remaining);
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[DRAIN_BUFFER_SIZE];
+        while (in.read(buffer) != -1) {
+            // 丢弃剩余内容
+        }
+    }
+
+    private static void drainQuietly(InputStream in) {
+        if (in == null) {
+            return;
+        }
+        try {
+            drain(in);
+        } catch (IOException e) {
+            log.debug("failed to drain error stream", e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.wpyuan.casclienthelper.http;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ * cas服务端响应体超出上限
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 11:15
+ */
+public class ResponseTooLargeException extends IOException {
+
+    public ResponseTooLargeException(String message) {
+        super(message);
+    }
+}
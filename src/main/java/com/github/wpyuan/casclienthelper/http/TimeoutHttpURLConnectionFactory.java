@@ -0,0 +1,39 @@
+package com.github.wpyuan.casclienthelper.http;
+
+import org.jasig.cas.client.ssl.HttpURLConnectionFactory;
+
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+
+/**
+ * <p>
+ * 为cas-client-core校验器创建的连接设置连接、读取超时
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 11:30
+ */
+public class TimeoutHttpURLConnectionFactory implements HttpURLConnectionFactory {
+
+    private final HttpURLConnectionFactory delegate;
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    public TimeoutHttpURLConnectionFactory(HttpURLConnectionFactory delegate, int connectTimeout, int readTimeout) {
+        this.delegate = delegate;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public HttpURLConnection buildHttpURLConnection(URLConnection urlConnection) {
+        HttpURLConnection conn = this.delegate.buildHttpURLConnection(urlConnection);
+        if (this.connectTimeout > 0) {
+            conn.setConnectTimeout(this.connectTimeout);
+        }
+        if (this.readTimeout > 0) {
+            conn.setReadTimeout(this.readTimeout);
+        }
+        return conn;
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.wpyuan.casclienthelper.logout;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * <p>
+ * cas单点登出请求（SAML LogoutRequest）解析，直接扫描字符串取出SessionIndex（即登录时的service ticket），
+ * 不构建DOM、不解析实体。一个LogoutRequest可包含多个SessionIndex，用于批量登出
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 9:10
+ */
+public final class LogoutRequestParser {
+
+    private static final String ELEMENT = "SessionIndex";
+    /**
+     * 前端通道登出请求解压后的最大长度
+     */
+    private static final int MAX_INFLATED_LENGTH = 1024 * 1024;
+
+    private LogoutRequestParser() {
+    }
+
+    /**
+     * 还原登出请求：后端通道为原始xml，前端通道为deflate压缩后base64编码
+     *
+     * @param payload logoutRequest参数值
+     * @return xml，无法解码返回null
+     */
+    public static String decode(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        final String trimmed = payload.trim();
+        if (trimmed.startsWith("<")) {
+            return trimmed;
+        }
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(Base64.getMimeDecoder().decode(trimmed));
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+            final byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                final int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                out.write(buffer, 0, length);
+                if (out.size() > MAX_INFLATED_LENGTH) {
+                    return null;
+                }
+            }
+            if (!inflater.finished()) {
+                // 不是deflate数据或数据不完整
+                return null;
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException | DataFormatException e) {
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * 取出所有SessionIndex元素的文本，元素可带任意命名空间前缀
+     *
+     * @param xml 登出请求
+     * @return SessionIndex列表，按出现顺序
+     */
+    public static List<String> getSessionIndexes(String xml) {
+        if (xml == null) {
+            return Collections.emptyList();
+        }
+        List<String> indexes = null;
+        int from = 0;
+        int found;
+        while ((found = xml.indexOf(ELEMENT, from)) >= 0) {
+            from = found + ELEMENT.length();
+            final int tagStart = startOfTag(xml, found);
+            if (tagStart < 0 || from >= xml.length()) {
+                continue;
+            }
+            final char next = xml.charAt(from);
+            if (next != '>' && !Character.isWhitespace(next)) {
+                // 如SessionIndexes
+                continue;
+            }
+            final int tagEnd = xml.indexOf('>', from);
+            if (tagEnd < 0) {
+                break;
+            }
+            if (xml.charAt(tagEnd - 1) == '/') {
+                continue;
+            }
+            final int textEnd = xml.indexOf('<', tagEnd + 1);
+            if (textEnd < 0) {
+                break;
+            }
+            final String index = xml.substring(tagEnd + 1, textEnd).trim();
+            if (!index.isEmpty()) {
+                if (indexes == null) {
+                    indexes = new ArrayList<>(1);
+                }
+                indexes.add(index);
+            }
+            from = textEnd;
+        }
+        return indexes != null ? indexes : Collections.emptyList();
+    }
+
+    /**
+     * @return 元素名所在开始标签的'<'位置，不是开始标签（如结束标签、属性值中的文本）返回-1
+     */
+    private static int startOfTag(String xml, int nameStart) {
+        int i = nameStart - 1;
+        if (i >= 0 && xml.charAt(i) == ':') {
+            // 命名空间前缀
+            i--;
+            while (i >= 0 && isNameChar(xml.charAt(i))) {
+                i--;
+            }
+        }
+        return i >= 0 && xml.charAt(i) == '<' ? i : -1;
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.';
+    }
+}
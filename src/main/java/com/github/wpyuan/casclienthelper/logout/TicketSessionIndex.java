@@ -0,0 +1,62 @@
+package com.github.wpyuan.casclienthelper.logout;
+
+import com.github.wpyuan.casclienthelper.cache.LocalCache;
+import com.github.wpyuan.casclienthelper.store.AssertionStore;
+
+/**
+ * <p>
+ * 单点登出索引：校验通过时记录service ticket到assertion存储key（见{@link AssertionStore#keyOf}）的映射，
+ * cas服务端按ticket通知登出时据此定位并移除assertion。条目容量有限并按写入时间过期，只保存两个字符串
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 9:30
+ */
+public class TicketSessionIndex {
+
+    /**
+     * 默认最多记录的ticket数
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 100000;
+
+    /**
+     * 默认记录保留时间（毫秒），应不短于session超时时间
+     */
+    public static final long DEFAULT_EXPIRE_AFTER_WRITE = 12 * 60 * 60 * 1000L;
+
+    private final LocalCache<String, String> keys;
+
+    public TicketSessionIndex() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_EXPIRE_AFTER_WRITE);
+    }
+
+    /**
+     * @param maximumSize            最多记录的ticket数
+     * @param expireAfterWriteMillis 记录保留时间（毫秒），小于等于0表示不过期
+     */
+    public TicketSessionIndex(int maximumSize, long expireAfterWriteMillis) {
+        this.keys = new LocalCache<>(maximumSize, expireAfterWriteMillis);
+    }
+
+    /**
+     * @param ticket 校验通过的service ticket
+     * @param key    assertion存储key
+     */
+    public void put(String ticket, String key) {
+        this.keys.put(ticket, key);
+    }
+
+    /**
+     * 移除并返回ticket对应的key
+     *
+     * @param ticket service ticket
+     * @return assertion存储key，不存在返回null
+     */
+    public String remove(String ticket) {
+        return this.keys.invalidate(ticket);
+    }
+
+    public int size() {
+        return this.keys.size();
+    }
+}
@@ -0,0 +1,220 @@
+package com.github.wpyuan.casclienthelper.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * 一组编译后的url匹配规则：精确匹配走哈希集合，ant规则按通配符前的字面前缀挂在前缀树上，正则规则合并为一个正则，
+ * 匹配时沿路径走一遍前缀树，只有落在前缀上的ant规则才需要做正则匹配
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 14:05
+ */
+final class PatternSet {
+
+    static final String MODE_ANT = "ant:";
+    static final String MODE_REGEX = "regex:";
+    static final String MODE_EXACT = "exact:";
+
+    private static final PatternSet EMPTY = new PatternSet(new HashSet<>(), new TrieNode(), null);
+
+    private final Set<String> exact;
+    private final TrieNode root;
+    private final Pattern combinedRegex;
+
+    private PatternSet(Set<String> exact, TrieNode root, Pattern combinedRegex) {
+        this.exact = exact;
+        this.root = root;
+        this.combinedRegex = combinedRegex;
+    }
+
+    /**
+     * 编译规则，多个规则以逗号、空白或换行分隔；每个规则可加前缀{@code ant:}（默认）、{@code regex:}、{@code exact:}指定匹配方式
+     *
+     * @param patterns 规则
+     * @return 编译结果
+     */
+    static PatternSet compile(String patterns) {
+        List<String> tokens = split(patterns);
+        if (tokens.isEmpty()) {
+            return EMPTY;
+        }
+        Set<String> exact = new HashSet<>();
+        TrieNode root = new TrieNode();
+        List<String> regexes = new ArrayList<>();
+        for (String token : tokens) {
+            if (token.startsWith(MODE_EXACT)) {
+                exact.add(token.substring(MODE_EXACT.length()));
+            } else if (token.startsWith(MODE_REGEX)) {
+                regexes.add("(?:" + token.substring(MODE_REGEX.length()) + ")");
+            } else {
+                addAnt(token.startsWith(MODE_ANT) ? token.substring(MODE_ANT.length()) : token, exact, root);
+            }
+        }
+        Pattern combined = regexes.isEmpty() ? null : Pattern.compile(String.join("|", regexes));
+        return new PatternSet(exact, root, combined);
+    }
+
+    boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    boolean matches(String path) {
+        if (this.exact.contains(path)) {
+            return true;
+        }
+        TrieNode node = this.root;
+        final int length = path.length();
+        for (int i = 0; ; i++) {
+            if (node.matchAll || node.matchesCandidate(path)) {
+                return true;
+            }
+            if (i == length || (node = node.child(path.charAt(i))) == null) {
+                break;
+            }
+        }
+        return this.combinedRegex != null && this.combinedRegex.matcher(path).matches();
+    }
+
+    private static void addAnt(String pattern, Set<String> exact, TrieNode root) {
+        int wildcard = indexOfWildcard(pattern);
+        if (wildcard == -1) {
+            exact.add(pattern);
+            return;
+        }
+        String prefix = pattern.substring(0, wildcard);
+        TrieNode node = root.descend(prefix);
+        if (wildcard == pattern.length() - 2 && pattern.endsWith("**") && prefix.endsWith("/")) {
+            // /static/** 匹配前缀下的所有路径，以及/static本身
+            node.matchAll = true;
+            exact.add(prefix.substring(0, prefix.length() - 1));
+            return;
+        }
+        node.addCandidate(Pattern.compile(antToRegex(pattern)));
+    }
+
+    private static int indexOfWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static String antToRegex(String pattern) {
+        StringBuilder regex = new StringBuilder(pattern.length() + 16);
+        int literalStart = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c != '*' && c != '?') {
+                continue;
+            }
+            if (i > literalStart) {
+                regex.append(Pattern.quote(pattern.substring(literalStart, i)));
+            }
+            if (c == '?') {
+                regex.append("[^/]");
+            } else if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '*') {
+                // /**/ 也匹配零级目录
+                if (i + 2 < pattern.length() && pattern.charAt(i + 2) == '/') {
+                    regex.append("(?:.*/)?");
+                    i += 2;
+                } else {
+                    regex.append(".*");
+                    i++;
+                }
+            } else {
+                regex.append("[^/]*");
+            }
+            literalStart = i + 1;
+        }
+        if (literalStart < pattern.length()) {
+            regex.append(Pattern.quote(pattern.substring(literalStart)));
+        }
+        return regex.toString();
+    }
+
+    /**
+     * 按逗号、空白拆分规则，正则中花括号内的逗号（如{1,3}）不拆分
+     */
+    static List<String> split(String patterns) {
+        List<String> tokens = new ArrayList<>();
+        if (patterns == null) {
+            return tokens;
+        }
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i <= patterns.length(); i++) {
+            char c = i < patterns.length() ? patterns.charAt(i) : ',';
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && depth > 0) {
+                depth--;
+            } else if (depth == 0 && (c == ',' || Character.isWhitespace(c))) {
+                if (i > start) {
+                    tokens.add(patterns.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return tokens;
+    }
+
+    private static final class TrieNode {
+        private static final Pattern[] NO_CANDIDATES = new Pattern[0];
+
+        private char[] keys = new char[0];
+        private TrieNode[] children = new TrieNode[0];
+        private Pattern[] candidates = NO_CANDIDATES;
+        private boolean matchAll;
+
+        private TrieNode child(char c) {
+            final char[] keys = this.keys;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return this.children[i];
+                }
+            }
+            return null;
+        }
+
+        private TrieNode descend(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                char c = prefix.charAt(i);
+                TrieNode next = node.child(c);
+                if (next == null) {
+                    next = new TrieNode();
+                    node.keys = Arrays.copyOf(node.keys, node.keys.length + 1);
+                    node.keys[node.keys.length - 1] = c;
+                    node.children = Arrays.copyOf(node.children, node.children.length + 1);
+                    node.children[node.children.length - 1] = next;
+                }
+                node = next;
+            }
+            return node;
+        }
+
+        private void addCandidate(Pattern pattern) {
+            this.candidates = Arrays.copyOf(this.candidates, this.candidates.length + 1);
+            this.candidates[this.candidates.length - 1] = pattern;
+        }
+
+        private boolean matchesCandidate(String path) {
+            for (Pattern candidate : this.candidates) {
+                if (candidate.matcher(path).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
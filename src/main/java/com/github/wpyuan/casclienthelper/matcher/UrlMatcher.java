@@ -0,0 +1,108 @@
+package com.github.wpyuan.casclienthelper.matcher;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * <p>
+ * 根据{@code includeUrlMath}、{@code excludeUrlMath}判断请求是否需要cas认证，规则只在创建时编译一次。
+ * 配置了include时只处理匹配的请求，匹配exclude的请求不处理。
+ * 规则写法见{@link PatternSet#compile(String)}，如：{@code /api/**, exact:/health, regex:/v\d+/.*}
+ * </p>
+ * <p>
+ * 匹配的是容器解码、规范化后实际用于路由的路径（servletPath + pathInfo），而不是原始请求uri：
+ * 否则{@code /static/..;/admin}、{@code /static/%2e%2e/admin}会被当作{@code /static/**}而跳过认证，容器却按{@code /admin}处理。
+ * 路径中仍含{@code ..}、{@code ;}等无法确定实际路由的请求一律需要认证
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 14:30
+ */
+public final class UrlMatcher {
+
+    private static final UrlMatcher MATCH_ALL = new UrlMatcher(PatternSet.compile(null), PatternSet.compile(null));
+
+    private final PatternSet include;
+    private final PatternSet exclude;
+
+    private UrlMatcher(PatternSet include, PatternSet exclude) {
+        this.include = include;
+        this.exclude = exclude;
+    }
+
+    /**
+     * @param includeUrlMath 需要cas认证的url规则，为空表示全部
+     * @param excludeUrlMath 不需要cas认证的url规则
+     * @return url匹配器
+     */
+    public static UrlMatcher of(String includeUrlMath, String excludeUrlMath) {
+        PatternSet include = PatternSet.compile(includeUrlMath);
+        PatternSet exclude = PatternSet.compile(excludeUrlMath);
+        return include.isEmpty() && exclude.isEmpty() ? MATCH_ALL : new UrlMatcher(include, exclude);
+    }
+
+    /**
+     * @param request 请求
+     * @return 是否需要cas认证
+     */
+    public boolean matches(HttpServletRequest request) {
+        if (this == MATCH_ALL) {
+            return true;
+        }
+        final String path = routedPath(request);
+        return path == null || this.matches(path);
+    }
+
+    /**
+     * @param path 去掉contextPath后的请求路径
+     * @return 是否需要cas认证
+     */
+    public boolean matches(String path) {
+        if (!this.include.isEmpty() && !this.include.matches(path)) {
+            return false;
+        }
+        return this.exclude.isEmpty() || !this.exclude.matches(path);
+    }
+
+    /**
+     * 容器实际路由的路径。servletPath、pathInfo已由容器解码并规范化；两者都为空时（如未经servlet映射的请求）退回到去掉contextPath的请求uri
+     *
+     * @param request 请求
+     * @return 路径，含点号路径段、路径参数、编码字符等无法确定实际路由时返回null
+     */
+    static String routedPath(HttpServletRequest request) {
+        final String servletPath = request.getServletPath();
+        final String pathInfo = request.getPathInfo();
+        String path;
+        if ((servletPath == null || servletPath.isEmpty()) && pathInfo == null) {
+            final String uri = request.getRequestURI();
+            final String contextPath = request.getContextPath();
+            path = contextPath == null || contextPath.isEmpty() || !uri.startsWith(contextPath) ? uri : uri.substring(contextPath.length());
+            if (path.indexOf('%') >= 0) {
+                return null;
+            }
+        } else {
+            path = pathInfo == null ? servletPath : servletPath == null ? pathInfo : servletPath + pathInfo;
+        }
+        return isNormalized(path) ? path : null;
+    }
+
+    private static boolean isNormalized(String path) {
+        if (path.indexOf(';') >= 0 || path.indexOf('\\') >= 0) {
+            return false;
+        }
+        // 点号路径段：. 或 ..
+        final int length = path.length();
+        int segmentStart = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || path.charAt(i) == '/') {
+                final int segmentLength = i - segmentStart;
+                if ((segmentLength == 1 || segmentLength == 2) && path.charAt(segmentStart) == '.'
+                        && path.charAt(i - 1) == '.') {
+                    return false;
+                }
+                segmentStart = i + 1;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.wpyuan.casclienthelper.metrics;
+
+/**
+ * <p>
+ * 过滤器指标SPI，可桥接到Micrometer等指标库。未配置时使用{@link #NOOP}，过滤器不会调用{@link System#nanoTime()}，没有额外开销
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 20:10
+ */
+public interface CasClientMetrics {
+
+    /**
+     * 不记录任何指标
+     */
+    CasClientMetrics NOOP = new CasClientMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * @return 是否记录指标，返回false时过滤器跳过计时
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * 记录一次请求处理结果
+     *
+     * @param outcome 处理结果
+     */
+    default void increment(FilterOutcome outcome) {
+    }
+
+    /**
+     * 记录阶段耗时
+     *
+     * @param stage       阶段
+     * @param elapsedNanos 耗时（纳秒）
+     */
+    default void record(FilterStage stage, long elapsedNanos) {
+    }
+
+    /**
+     * 开始一次票据校验，与{@link #validationFinished()}成对调用，用于统计进行中的校验数
+     */
+    default void validationStarted() {
+    }
+
+    /**
+     * 结束一次票据校验
+     */
+    default void validationFinished() {
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.wpyuan.casclienthelper.metrics;
+
+/**
+ * <p>
+ * 过滤器单次请求的处理结果
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 20:10
+ */
+public enum FilterOutcome {
+    /**
+     * before()返回false，跳过cas处理
+     */
+    SKIPPED,
+    /**
+     * load()未返回配置
+     */
+    NULL_CONFIG,
+    /**
+     * 被includeUrlMath/excludeUrlMath排除
+     */
+    EXCLUDED,
+    /**
+     * 已有assertion，直接放行
+     */
+    SESSION_HIT,
+    /**
+     * 未登录，重定向到cas登录页
+     */
+    REDIRECT_TO_LOGIN,
+    /**
+     * 未登录的非页面导航请求，按配置返回401而不重定向
+     */
+    NON_NAVIGATION_UNAUTHORIZED,
+    /**
+     * 客户端登录重定向过于频繁，返回429
+     */
+    LOGIN_REDIRECT_THROTTLED,
+    /**
+     * gateway模式下已跳转过登录页，未登录放行
+     */
+    GATEWAY,
+    /**
+     * 未登录且未开启跳转，直接放行
+     */
+    UNAUTHENTICATED,
+    /**
+     * 票据校验成功
+     */
+    VALIDATION_SUCCESS,
+    /**
+     * 票据校验失败
+     */
+    VALIDATION_FAILURE,
+    /**
+     * 代理回调（proxy receptor）请求
+     */
+    PROXY_RECEPTOR,
+    /**
+     * cas服务端发起的单点登出请求
+     */
+    LOGOUT
+}
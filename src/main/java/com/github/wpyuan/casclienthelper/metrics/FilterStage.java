@@ -0,0 +1,28 @@
+package com.github.wpyuan.casclienthelper.metrics;
+
+/**
+ * <p>
+ * 过滤器中记录耗时的阶段
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 20:10
+ */
+public enum FilterStage {
+    /**
+     * load()装配配置，命中配置缓存时不记录
+     */
+    LOAD,
+    /**
+     * 构造service url
+     */
+    SERVICE_URL,
+    /**
+     * 票据校验，含访问cas服务端的往返时间
+     */
+    TICKET_VALIDATION,
+    /**
+     * onSuccessfulValidation()
+     */
+    ON_SUCCESSFUL_VALIDATION
+}
@@ -0,0 +1,80 @@
+package com.github.wpyuan.casclienthelper.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * 无锁耗时直方图，按微秒的2的幂分桶（1us、2us、4us……约35分钟），分位数取所在桶的上界，误差不超过一倍
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 20:20
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 32;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long elapsedNanos) {
+        long nanos = Math.max(0, elapsedNanos);
+        long micros = nanos / 1000;
+        int bucket = micros == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        this.buckets.incrementAndGet(bucket);
+        this.count.increment();
+        this.totalNanos.add(nanos);
+        long max;
+        while (nanos > (max = this.maxNanos.get()) && !this.maxNanos.compareAndSet(max, nanos)) {
+            // 重试
+        }
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getTotalNanos() {
+        return this.totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return this.maxNanos.get();
+    }
+
+    public double getMeanNanos() {
+        long count = this.getCount();
+        return count == 0 ? 0 : (double) this.getTotalNanos() / count;
+    }
+
+    /**
+     * 估算分位数
+     *
+     * @param quantile 分位，如0.99
+     * @return 耗时上界（纳秒），没有数据时返回0
+     */
+    public long getQuantileNanos(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = this.buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(Math.min(1, Math.max(0, quantile)) * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min((1L << i) * 1000, this.getMaxNanos());
+            }
+        }
+        return this.getMaxNanos();
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.wpyuan.casclienthelper.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * 进程内指标实现，计数器与耗时直方图均无锁，可直接暴露给监控端点，或定期读取后上报
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 20:20
+ */
+public class SimpleCasClientMetrics implements CasClientMetrics {
+
+    private final LongAdder[] counters = new LongAdder[FilterOutcome.values().length];
+    private final LatencyHistogram[] histograms = new LatencyHistogram[FilterStage.values().length];
+    private final AtomicInteger inFlightValidations = new AtomicInteger();
+
+    public SimpleCasClientMetrics() {
+        for (int i = 0; i < this.counters.length; i++) {
+            this.counters[i] = new LongAdder();
+        }
+        for (int i = 0; i < this.histograms.length; i++) {
+            this.histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    @Override
+    public void increment(FilterOutcome outcome) {
+        this.counters[outcome.ordinal()].increment();
+    }
+
+    @Override
+    public void record(FilterStage stage, long elapsedNanos) {
+        this.histograms[stage.ordinal()].record(elapsedNanos);
+    }
+
+    @Override
+    public void validationStarted() {
+        this.inFlightValidations.incrementAndGet();
+    }
+
+    @Override
+    public void validationFinished() {
+        this.inFlightValidations.decrementAndGet();
+    }
+
+    public long getCount(FilterOutcome outcome) {
+        return this.counters[outcome.ordinal()].sum();
+    }
+
+    public LatencyHistogram getHistogram(FilterStage stage) {
+        return this.histograms[stage.ordinal()];
+    }
+
+    /**
+     * @return 进行中的票据校验数
+     */
+    public int getInFlightValidations() {
+        return this.inFlightValidations.get();
+    }
+}
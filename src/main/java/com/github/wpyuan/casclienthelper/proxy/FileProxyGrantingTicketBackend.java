@@ -0,0 +1,144 @@
+package com.github.wpyuan.casclienthelper.proxy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+/**
+ * <p>
+ * 基于本地（或多节点共享挂载）目录的PGT后端，每个IOU一个文件。写入先写临时文件再原子重命名；
+ * 取出时先把文件原子重命名为本节点独占的名称再读取，保证同一IOU只被取出一次
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 21:40
+ */
+@Slf4j
+public class FileProxyGrantingTicketBackend implements ProxyGrantingTicketBackend {
+
+    private static final String SUFFIX = ".pgt";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path directory;
+
+    /**
+     * @param directory 存放目录，不存在时创建
+     */
+    public FileProxyGrantingTicketBackend(Path directory) {
+        try {
+            this.directory = Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to create pgt directory " + directory, e);
+        }
+    }
+
+    @Override
+    public void save(String proxyGrantingTicketIou, String proxyGrantingTicket, long expiresAt) {
+        Path target = this.fileOf(proxyGrantingTicketIou);
+        Path temp = this.directory.resolve(UUID.randomUUID() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+                out.writeLong(expiresAt);
+                out.writeUTF(proxyGrantingTicket);
+            }
+            move(temp, target);
+        } catch (IOException e) {
+            log.error("failed to save pgt for iou [{}]", proxyGrantingTicketIou, e);
+            deleteQuietly(temp);
+        }
+    }
+
+    @Override
+    public String remove(String proxyGrantingTicketIou) {
+        Path claimed = this.directory.resolve(UUID.randomUUID() + ".claimed");
+        try {
+            move(this.fileOf(proxyGrantingTicketIou), claimed);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.error("failed to claim pgt for iou [{}]", proxyGrantingTicketIou, e);
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(claimed))) {
+            long expiresAt = in.readLong();
+            String proxyGrantingTicket = in.readUTF();
+            return System.currentTimeMillis() < expiresAt ? proxyGrantingTicket : null;
+        } catch (IOException e) {
+            log.error("failed to read pgt for iou [{}]", proxyGrantingTicketIou, e);
+            return null;
+        } finally {
+            deleteQuietly(claimed);
+        }
+    }
+
+    @Override
+    public int purgeExpired(long now) {
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                if (isExpired(file, now)) {
+                    deleteQuietly(file);
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("failed to purge expired pgt files in {}", this.directory, e);
+        }
+        return removed;
+    }
+
+    private Path fileOf(String proxyGrantingTicketIou) {
+        // IOU由cas服务端生成，不直接作为文件名，避免路径穿越
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(proxyGrantingTicketIou.getBytes(StandardCharsets.UTF_8));
+            char[] name = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                name[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+                name[i * 2 + 1] = HEX[digest[i] & 0xF];
+            }
+            return this.directory.resolve(new String(name) + SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isExpired(Path file, long now) {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return in.readLong() <= now;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            // 内容损坏的文件同样清理
+            return true;
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("failed to delete {}", file, e);
+        }
+    }
+}
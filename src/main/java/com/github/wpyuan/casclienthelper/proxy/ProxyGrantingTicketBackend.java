@@ -0,0 +1,38 @@
+package com.github.wpyuan.casclienthelper.proxy;
+
+/**
+ * <p>
+ * PGT持久化后端SPI，如本地文件、嵌入式数据库、共享存储。cas服务端回调pgtUrl与票据校验可能落在不同节点，
+ * 或回调后应用重启，都需要从这里取回PGT
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 21:30
+ */
+public interface ProxyGrantingTicketBackend {
+
+    /**
+     * 保存PGT
+     *
+     * @param proxyGrantingTicketIou PGT IOU
+     * @param proxyGrantingTicket    PGT
+     * @param expiresAt              过期时间（毫秒时间戳）
+     */
+    void save(String proxyGrantingTicketIou, String proxyGrantingTicket, long expiresAt);
+
+    /**
+     * 取出并删除PGT，并发取同一个IOU时只有一个调用方能取到
+     *
+     * @param proxyGrantingTicketIou PGT IOU
+     * @return PGT，不存在或已过期返回null
+     */
+    String remove(String proxyGrantingTicketIou);
+
+    /**
+     * 删除已过期的PGT
+     *
+     * @param now 当前时间
+     * @return 删除条数
+     */
+    int purgeExpired(long now);
+}
@@ -0,0 +1,209 @@
+package com.github.wpyuan.casclienthelper.proxy;
+
+import com.github.wpyuan.casclienthelper.concurrent.CasClientExecutors;
+import com.github.wpyuan.casclienthelper.config.DefaultCasClientConfig;
+import com.github.wpyuan.casclienthelper.http.CasHttpTransport;
+import com.github.wpyuan.casclienthelper.http.CasHttpTransports;
+import com.github.wpyuan.casclienthelper.resilience.CasServerGuard;
+import com.github.wpyuan.casclienthelper.resilience.CasServerGuards;
+import com.github.wpyuan.casclienthelper.resilience.CasServerUnavailableException;
+import com.github.wpyuan.casclienthelper.utill.CommonUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.jasig.cas.client.authentication.AttributePrincipal;
+import org.jasig.cas.client.proxy.ProxyRetriever;
+import org.jasig.cas.client.util.XmlUtils;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * 代理票据（PT）客户端，通过连接池访问cas服务端/proxy接口。一个页面需要调用多个后端服务时，
+ * 可用{@link #getProxyTickets(String, Collection, long)}并行申请所有PT，N次串行往返变为一次并行批量。
+ * PT只能使用一次，这里不做任何缓存
+ * </p>
+ * <p>
+ * 同时实现{@link ProxyRetriever}，配置了proxyCallbackUrl时校验器用它创建principal，
+ * {@link AttributePrincipal#getProxyTicketFor(String)}同样走连接池
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 22:10
+ */
+@Slf4j
+public class ProxyTicketClient implements ProxyRetriever {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String casServerUrlPrefix;
+    private final String encoding;
+    /**
+     * principal随session序列化时不携带连接池，反序列化后使用默认配置的连接池
+     */
+    private transient CasHttpTransport transport;
+    private transient Executor executor;
+    /**
+     * 与票据校验共用的并发隔离及熔断，反序列化后不再受保护
+     */
+    private transient CasServerGuard guard;
+
+    /**
+     * @param casServerUrlPrefix cas服务地址前缀
+     * @param encoding           响应编码，为空使用平台默认编码
+     * @param transport          http传输，为null使用默认配置的连接池
+     * @param executor           批量申请的线程池，为null使用共享线程池
+     */
+    public ProxyTicketClient(String casServerUrlPrefix, String encoding, CasHttpTransport transport, Executor executor) {
+        this(casServerUrlPrefix, encoding, transport, executor, CasServerGuard.UNGUARDED);
+    }
+
+    /**
+     * @param casServerUrlPrefix cas服务地址前缀
+     * @param encoding           响应编码，为空使用平台默认编码
+     * @param transport          http传输，为null使用默认配置的连接池
+     * @param executor           批量申请的线程池，为null使用共享线程池
+     * @param guard              访问cas服务端的保护，为null不限制
+     */
+    public ProxyTicketClient(String casServerUrlPrefix, String encoding, CasHttpTransport transport, Executor executor, CasServerGuard guard) {
+        CommonUtils.assertNotNull(casServerUrlPrefix, "casServerUrlPrefix cannot be null.");
+        this.casServerUrlPrefix = casServerUrlPrefix;
+        this.encoding = encoding;
+        this.transport = transport;
+        this.executor = executor;
+        this.guard = guard;
+    }
+
+    /**
+     * @param config cas配置，使用其cas服务地址、编码、连接池参数，以及同一cas服务端共享的并发隔离及熔断
+     */
+    public static ProxyTicketClient forConfig(DefaultCasClientConfig config) {
+        return new ProxyTicketClient(config.getCasServerUrlPrefix(), config.getEncoding(), CasHttpTransports.forConfig(config), null,
+                CasServerGuards.forConfig(config));
+    }
+
+    /**
+     * 申请一个PT
+     *
+     * @param proxyGrantingTicketId PGT
+     * @param targetService         目标服务
+     * @return PT，申请失败返回null
+     */
+    @Override
+    public String getProxyTicketIdFor(String proxyGrantingTicketId, String targetService) {
+        CommonUtils.assertNotNull(proxyGrantingTicketId, "proxyGrantingTicketId cannot be null.");
+        final CasServerGuard guard = this.guard != null ? this.guard : CasServerGuard.UNGUARDED;
+        final String response;
+        try {
+            final URL url = this.constructUrl(proxyGrantingTicketId, targetService);
+            response = guard.call(() -> this.getTransport().getResponse(url, this.encoding));
+        } catch (CasServerUnavailableException e) {
+            log.debug("proxy ticket request for [{}] rejected: {}", targetService, e.getMessage());
+            return null;
+        } catch (IOException e) {
+            log.warn("failed to request proxy ticket for [{}]: {}", targetService, e.getMessage());
+            return null;
+        }
+        final String error = XmlUtils.getTextForElement(response, "proxyFailure");
+        if (CommonUtils.isNotEmpty(error)) {
+            log.debug("proxy ticket request for [{}] failed: {}", targetService, error);
+            return null;
+        }
+        return XmlUtils.getTextForElement(response, "proxyTicket");
+    }
+
+    /**
+     * 并行申请多个目标服务的PT
+     *
+     * @param proxyGrantingTicketId PGT
+     * @param targetServices        目标服务
+     * @param timeoutMillis         整批等待时间（毫秒），超时未返回的目标不在结果中
+     * @return 目标服务到PT的映射，按传入顺序；申请失败或超时的目标不在其中
+     */
+    public Map<String, String> getProxyTickets(String proxyGrantingTicketId, Collection<String> targetServices, long timeoutMillis) {
+        CommonUtils.assertNotNull(proxyGrantingTicketId, "proxyGrantingTicketId cannot be null.");
+        return this.batch(targetServices, timeoutMillis, service -> this.getProxyTicketIdFor(proxyGrantingTicketId, service));
+    }
+
+    /**
+     * 并行申请多个目标服务的PT，PGT取自校验通过的principal
+     *
+     * @param principal     principal
+     * @param targetServices 目标服务
+     * @param timeoutMillis 整批等待时间（毫秒）
+     * @return 目标服务到PT的映射，申请失败或超时的目标不在其中
+     */
+    public Map<String, String> getProxyTickets(AttributePrincipal principal, Collection<String> targetServices, long timeoutMillis) {
+        return this.batch(targetServices, timeoutMillis, principal::getProxyTicketFor);
+    }
+
+    private Map<String, String> batch(Collection<String> targetServices, long timeoutMillis, Function<String, String> request) {
+        final List<String> services = new ArrayList<>(new LinkedHashSet<>(targetServices));
+        final List<CompletableFuture<String>> futures = new ArrayList<>(services.size());
+        final Executor executor = this.getExecutor();
+        for (String service : services) {
+            futures.add(CompletableFuture.supplyAsync(() -> request.apply(service), executor));
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        final Map<String, String> tickets = new LinkedHashMap<>(services.size() * 2);
+        for (int i = 0; i < services.size(); i++) {
+            final CompletableFuture<String> future = futures.get(i);
+            try {
+                final String ticket = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (ticket != null) {
+                    tickets.put(services.get(i), ticket);
+                }
+            } catch (TimeoutException e) {
+                log.warn("proxy ticket request for [{}] timed out after {} ms", services.get(i), timeoutMillis);
+                future.cancel(false);
+            } catch (ExecutionException e) {
+                log.warn("proxy ticket request for [{}] failed", services.get(i), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(false));
+                break;
+            }
+        }
+        return tickets;
+    }
+
+    private URL constructUrl(String proxyGrantingTicketId, String targetService) throws IOException {
+        final StringBuilder url = new StringBuilder(this.casServerUrlPrefix.length() + proxyGrantingTicketId.length() + targetService.length() + 32);
+        url.append(this.casServerUrlPrefix);
+        if (!this.casServerUrlPrefix.endsWith("/")) {
+            url.append('/');
+        }
+        url.append("proxy?pgt=").append(CommonUtils.urlEncode(proxyGrantingTicketId))
+                .append("&targetService=").append(CommonUtils.urlEncode(targetService));
+        return new URL(url.toString());
+    }
+
+    private CasHttpTransport getTransport() {
+        CasHttpTransport transport = this.transport;
+        if (transport == null) {
+            transport = CasHttpTransports.forConfig(new DefaultCasClientConfig());
+            this.transport = transport;
+        }
+        return transport;
+    }
+
+    private Executor getExecutor() {
+        Executor executor = this.executor;
+        return executor != null ? executor : DefaultExecutorHolder.EXECUTOR;
+    }
+
+    private static final class DefaultExecutorHolder {
+        private static final Executor EXECUTOR = CasClientExecutors.newBlockingIoExecutor("cas-proxy");
+    }
+}
@@ -0,0 +1,297 @@
+package com.github.wpyuan.casclienthelper.proxy;
+
+import com.github.wpyuan.casclienthelper.concurrent.CasClientExecutors;
+import lombok.extern.slf4j.Slf4j;
+import org.jasig.cas.client.proxy.ProxyGrantingTicketStorage;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * 可共享的PGT存储：按IOU分段加锁，容量有限（超出时淘汰最早保存的），超时未取走的PGT由共享的定时线程清理。
+ * 配置了{@link ProxyGrantingTicketBackend}时PGT只保存在后端，由后端保证只被取走一次，PGT可跨节点、跨重启使用。
+ * 默认配置使用{@link #getDefault()}，每次load()重新构建配置也不会丢失已保存的PGT
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 21:50
+ */
+@Slf4j
+public class SharedProxyGrantingTicketStorage implements ProxyGrantingTicketStorage {
+
+    /**
+     * 默认PGT保存时间（毫秒），与{@link org.jasig.cas.client.proxy.ProxyGrantingTicketStorageImpl}一致
+     */
+    public static final long DEFAULT_TIMEOUT = 60000;
+
+    /**
+     * 默认最多保存的PGT数
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 100000;
+
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes;
+    private final long timeoutMillis;
+    private final ProxyGrantingTicketBackend backend;
+    private final ScheduledFuture<?> cleanupTask;
+
+    private final LongAdder savedCount = new LongAdder();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public SharedProxyGrantingTicketStorage() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIMEOUT, null);
+    }
+
+    /**
+     * @param maximumSize   最多保存的PGT数
+     * @param timeoutMillis PGT保存时间（毫秒），同时决定清理周期
+     * @param backend       持久化后端，为null只保存在本地内存
+     */
+    public SharedProxyGrantingTicketStorage(int maximumSize, long timeoutMillis, ProxyGrantingTicketBackend backend) {
+        if (maximumSize <= 0 || timeoutMillis <= 0) {
+            throw new IllegalArgumentException("maximumSize and timeoutMillis must be positive");
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.backend = backend;
+        int stripeCapacity = Math.max(1, (maximumSize + STRIPES - 1) / STRIPES);
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            this.stripes[i] = new Stripe(stripeCapacity);
+        }
+        long period = Math.max(1000, timeoutMillis);
+        CleanupTask task = new CleanupTask(this);
+        this.cleanupTask = CasClientExecutors.scheduler().scheduleWithFixedDelay(task, period, period, TimeUnit.MILLISECONDS);
+        task.future = this.cleanupTask;
+    }
+
+    /**
+     * @return 进程内共享的默认存储
+     */
+    public static SharedProxyGrantingTicketStorage getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    @Override
+    public void save(String proxyGrantingTicketIou, String proxyGrantingTicket) {
+        long expiresAt = System.currentTimeMillis() + this.timeoutMillis;
+        if (this.backend != null) {
+            this.backend.save(proxyGrantingTicketIou, proxyGrantingTicket, expiresAt);
+        } else {
+            this.stripeFor(proxyGrantingTicketIou).put(proxyGrantingTicketIou, new Holder(proxyGrantingTicket, expiresAt));
+        }
+        this.savedCount.increment();
+    }
+
+    @Override
+    public String retrieve(String proxyGrantingTicketIou) {
+        if (proxyGrantingTicketIou == null) {
+            return null;
+        }
+        String proxyGrantingTicket = null;
+        if (this.backend != null) {
+            proxyGrantingTicket = this.backend.remove(proxyGrantingTicketIou);
+        } else {
+            Holder holder = this.stripeFor(proxyGrantingTicketIou).remove(proxyGrantingTicketIou);
+            if (holder != null && !holder.isExpired(System.currentTimeMillis())) {
+                proxyGrantingTicket = holder.proxyGrantingTicket;
+            }
+        }
+        if (proxyGrantingTicket == null) {
+            log.debug("No Proxy Ticket found for [{}].", proxyGrantingTicketIou);
+            this.missCount.increment();
+        } else {
+            this.hitCount.increment();
+        }
+        return proxyGrantingTicket;
+    }
+
+    @Override
+    public void cleanUp() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (Stripe stripe : this.stripes) {
+            removed += stripe.purgeExpired(now);
+        }
+        if (this.backend != null) {
+            removed += this.backend.purgeExpired(now);
+        }
+        this.expiredCount.add(removed);
+        if (removed > 0) {
+            log.debug("removed {} expired proxy granting tickets", removed);
+        }
+    }
+
+    /**
+     * 停止定时清理，不再使用的非默认实例应调用
+     */
+    public void close() {
+        this.cleanupTask.cancel(false);
+    }
+
+    /**
+     * @return 本地内存中的PGT数，配置了后端时为0
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : this.stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public long getSavedCount() {
+        return this.savedCount.sum();
+    }
+
+    /**
+     * @return 取到PGT的次数
+     */
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    /**
+     * @return 未取到PGT的次数
+     */
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    /**
+     * @return 超时被清理的PGT数
+     */
+    public long getExpiredCount() {
+        return this.expiredCount.sum();
+    }
+
+    /**
+     * @return 因容量不足被淘汰的PGT数
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    private Stripe stripeFor(String proxyGrantingTicketIou) {
+        int hash = proxyGrantingTicketIou.hashCode();
+        return this.stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Holder> holders = new LinkedHashMap<>();
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void put(String key, Holder holder) {
+            this.lock.lock();
+            try {
+                this.holders.remove(key);
+                this.holders.put(key, holder);
+                if (this.holders.size() > this.capacity) {
+                    Iterator<Holder> eldest = this.holders.values().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    evictionCount.increment();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private Holder remove(String key) {
+            this.lock.lock();
+            try {
+                return this.holders.remove(key);
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private int purgeExpired(long now) {
+            this.lock.lock();
+            try {
+                int removed = 0;
+                // 按保存顺序排列，遇到未过期的即可停止
+                for (Iterator<Holder> iterator = this.holders.values().iterator(); iterator.hasNext(); ) {
+                    if (!iterator.next().isExpired(now)) {
+                        break;
+                    }
+                    iterator.remove();
+                    removed++;
+                }
+                return removed;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private int size() {
+            this.lock.lock();
+            try {
+                return this.holders.size();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    private static final class Holder {
+        private final String proxyGrantingTicket;
+        private final long expiresAt;
+
+        private Holder(String proxyGrantingTicket, long expiresAt) {
+            this.proxyGrantingTicket = proxyGrantingTicket;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= this.expiresAt;
+        }
+    }
+
+    /**
+     * 只弱引用存储，被丢弃的存储可以被回收，回收后任务自行取消
+     */
+    private static final class CleanupTask implements Runnable {
+        private final WeakReference<SharedProxyGrantingTicketStorage> storage;
+        private volatile ScheduledFuture<?> future;
+
+        private CleanupTask(SharedProxyGrantingTicketStorage storage) {
+            this.storage = new WeakReference<>(storage);
+        }
+
+        @Override
+        public void run() {
+            SharedProxyGrantingTicketStorage storage = this.storage.get();
+            if (storage == null) {
+                ScheduledFuture<?> future = this.future;
+                if (future != null) {
+                    future.cancel(false);
+                }
+                return;
+            }
+            try {
+                storage.cleanUp();
+            } catch (RuntimeException e) {
+                log.warn("failed to clean up proxy granting tickets", e);
+            }
+        }
+    }
+
+    private static final class DefaultHolder {
+        private static final SharedProxyGrantingTicketStorage INSTANCE = new SharedProxyGrantingTicketStorage();
+    }
+}
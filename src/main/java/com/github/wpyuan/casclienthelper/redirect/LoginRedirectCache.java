@@ -0,0 +1,61 @@
+package com.github.wpyuan.casclienthelper.redirect;
+
+import com.github.wpyuan.casclienthelper.cache.LocalCache;
+import com.github.wpyuan.casclienthelper.url.RedirectUrlTemplate;
+
+/**
+ * <p>
+ * 按service url缓存渲染好的cas登录重定向地址。session集中失效时大量请求指向同一批页面，
+ * 命中缓存时不再逐个编码service url
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 22:35
+ */
+public class LoginRedirectCache {
+
+    private final RedirectUrlTemplate template;
+    /**
+     * 为null表示不缓存
+     */
+    private final LocalCache<String, String> cache;
+
+    /**
+     * @param template    重定向地址模板
+     * @param maximumSize 最多缓存的地址数，小于等于0表示不缓存
+     */
+    public LoginRedirectCache(RedirectUrlTemplate template, int maximumSize) {
+        this.template = template;
+        this.cache = maximumSize > 0 ? new LocalCache<>(maximumSize, 0) : null;
+    }
+
+    /**
+     * @param serviceUrl service url，未编码
+     * @return 重定向地址
+     */
+    public String get(String serviceUrl) {
+        if (this.cache == null) {
+            return this.template.render(serviceUrl);
+        }
+        String url = this.cache.get(serviceUrl);
+        if (url == null) {
+            url = this.template.render(serviceUrl);
+            this.cache.put(serviceUrl, url);
+        }
+        return url;
+    }
+
+    /**
+     * @return 重定向地址模板
+     */
+    public RedirectUrlTemplate getTemplate() {
+        return this.template;
+    }
+
+    /**
+     * @return 当前缓存的地址数
+     */
+    public int size() {
+        return this.cache == null ? 0 : this.cache.size();
+    }
+}
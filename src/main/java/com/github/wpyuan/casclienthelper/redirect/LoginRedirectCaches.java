@@ -0,0 +1,52 @@
+package com.github.wpyuan.casclienthelper.redirect;
+
+import com.github.wpyuan.casclienthelper.cache.LocalCache;
+import com.github.wpyuan.casclienthelper.config.DefaultCasClientConfig;
+import com.github.wpyuan.casclienthelper.url.RedirectUrlTemplate;
+import lombok.Value;
+
+/**
+ * <p>
+ * 按cas登录地址、service参数名、renew、gateway及缓存容量获取{@link LoginRedirectCache}，
+ * 每次load()重新构建配置也共用同一份已渲染的重定向地址
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/20 9:30
+ */
+public final class LoginRedirectCaches {
+
+    private static final LocalCache<CacheKey, LoginRedirectCache> CACHES = new LocalCache<>(64, 0);
+
+    private LoginRedirectCaches() {
+    }
+
+    /**
+     * @param config cas配置
+     * @return 登录重定向地址缓存，未配置{@link DefaultCasClientConfig#casServerLoginUrl}时返回null
+     */
+    public static LoginRedirectCache forConfig(DefaultCasClientConfig config) {
+        if (config.getCasServerLoginUrl() == null) {
+            return null;
+        }
+        CacheKey key = new CacheKey(config.getCasServerLoginUrl(), config.getServiceParameterName(), config.isRenew(),
+                config.isGateway(), config.getLoginRedirectCacheSize());
+        LoginRedirectCache cache = CACHES.get(key);
+        if (cache != null) {
+            return cache;
+        }
+        cache = new LoginRedirectCache(new RedirectUrlTemplate(key.getCasServerLoginUrl(), key.getServiceParameterName(),
+                key.isRenew(), key.isGateway()), key.getMaximumSize());
+        LoginRedirectCache existing = CACHES.putIfAbsent(key, cache);
+        return existing != null ? existing : cache;
+    }
+
+    @Value
+    private static class CacheKey {
+        String casServerLoginUrl;
+        String serviceParameterName;
+        boolean renew;
+        boolean gateway;
+        int maximumSize;
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.wpyuan.casclienthelper.redirect;
+
+import com.github.wpyuan.casclienthelper.cache.LocalCache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * 按客户端限制重定向到cas登录页的频率，相当于每个客户端一个令牌桶：每秒补充rate个令牌，最多积攒burst个。
+ * 以GCRA实现，每个客户端只保存下一次令牌到期的时间，CAS更新，不加锁
+ * </p>
+ * <p>
+ * 空闲客户端的状态与新客户端等价，不设过期时间，超出容量时淘汰最久未访问的客户端
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 22:20
+ */
+public class LoginRedirectLimiter {
+
+    /**
+     * 默认最多记录的客户端数
+     */
+    public static final int DEFAULT_MAXIMUM_CLIENTS = 10000;
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final LocalCache<String, AtomicLong> clients;
+
+    /**
+     * @param rate           每个客户端每秒允许的重定向数，须大于0
+     * @param burst          允许的突发重定向数，小于1时按1处理
+     * @param maximumClients 最多记录的客户端数，小于等于0表示不限制
+     */
+    public LoginRedirectLimiter(double rate, int burst, int maximumClients) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("rate must be positive: " + rate);
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+        this.toleranceNanos = this.intervalNanos * (Math.max(burst, 1) - 1);
+        this.clients = new LocalCache<>(maximumClients, 0);
+    }
+
+    /**
+     * 尝试为客户端取一个令牌
+     *
+     * @param client 客户端标识
+     * @return 0表示允许重定向，否则为需要等待的纳秒数
+     */
+    public long tryAcquire(String client) {
+        final long now = System.nanoTime();
+        AtomicLong state = this.clients.get(client);
+        if (state == null) {
+            final AtomicLong created = new AtomicLong(now);
+            state = this.clients.putIfAbsent(client, created);
+            if (state == null) {
+                state = created;
+            }
+        }
+        for (; ; ) {
+            final long theoreticalArrival = state.get();
+            final long base = theoreticalArrival - now > 0 ? theoreticalArrival : now;
+            final long wait = base - this.toleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (state.compareAndSet(theoreticalArrival, base + this.intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return 当前记录的客户端数
+     */
+    public int size() {
+        return this.clients.size();
+    }
+}
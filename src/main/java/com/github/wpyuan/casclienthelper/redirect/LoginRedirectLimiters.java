@@ -0,0 +1,47 @@
+package com.github.wpyuan.casclienthelper.redirect;
+
+import com.github.wpyuan.casclienthelper.cache.LocalCache;
+import com.github.wpyuan.casclienthelper.config.DefaultCasClientConfig;
+import lombok.Value;
+
+/**
+ * <p>
+ * 按cas登录地址及限流参数获取{@link LoginRedirectLimiter}，每次load()重新构建配置也不会丢失客户端的限流状态
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 22:30
+ */
+public final class LoginRedirectLimiters {
+
+    private static final LocalCache<LimiterKey, LoginRedirectLimiter> LIMITERS = new LocalCache<>(64, 0);
+
+    private LoginRedirectLimiters() {
+    }
+
+    /**
+     * @param config cas配置
+     * @return 登录重定向限流，未配置{@link DefaultCasClientConfig#loginRedirectRate}时返回null
+     */
+    public static LoginRedirectLimiter forConfig(DefaultCasClientConfig config) {
+        if (!(config.getLoginRedirectRate() > 0)) {
+            return null;
+        }
+        LimiterKey key = new LimiterKey(String.valueOf(config.getCasServerLoginUrl()), config.getLoginRedirectRate(),
+                config.getLoginRedirectBurst());
+        LoginRedirectLimiter limiter = LIMITERS.get(key);
+        if (limiter != null) {
+            return limiter;
+        }
+        limiter = new LoginRedirectLimiter(key.getRate(), key.getBurst(), LoginRedirectLimiter.DEFAULT_MAXIMUM_CLIENTS);
+        LoginRedirectLimiter existing = LIMITERS.putIfAbsent(key, limiter);
+        return existing != null ? existing : limiter;
+    }
+
+    @Value
+    private static class LimiterKey {
+        String casServerLoginUrl;
+        double rate;
+        int burst;
+    }
+}
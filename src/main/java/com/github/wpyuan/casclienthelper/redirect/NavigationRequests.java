@@ -0,0 +1,42 @@
+package com.github.wpyuan.casclienthelper.redirect;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * <p>
+ * 判断请求是否为浏览器的页面导航。XHR、fetch及图片、脚本等资源请求即使被重定向到cas登录页也无法完成登录，
+ * 只会增加cas服务端的压力
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 22:15
+ */
+public final class NavigationRequests {
+
+    private NavigationRequests() {
+    }
+
+    /**
+     * 依次按以下规则判断：
+     * <ol>
+     *     <li>带{@code Sec-Fetch-Mode}时（现代浏览器），值为navigate即为页面导航</li>
+     *     <li>{@code X-Requested-With: XMLHttpRequest}不是页面导航</li>
+     *     <li>没有{@code Accept}时按页面导航处理，与此前行为一致</li>
+     *     <li>{@code Accept}包含text/html或application/xhtml+xml时为页面导航</li>
+     * </ol>
+     *
+     * @param request 请求
+     * @return 是否为页面导航
+     */
+    public static boolean isNavigation(HttpServletRequest request) {
+        final String fetchMode = request.getHeader("Sec-Fetch-Mode");
+        if (fetchMode != null) {
+            return "navigate".equalsIgnoreCase(fetchMode);
+        }
+        if ("XMLHttpRequest".equalsIgnoreCase(request.getHeader("X-Requested-With"))) {
+            return false;
+        }
+        final String accept = request.getHeader("Accept");
+        return accept == null || accept.contains("text/html") || accept.contains("application/xhtml+xml");
+    }
+}
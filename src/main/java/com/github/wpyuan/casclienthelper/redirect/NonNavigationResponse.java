@@ -0,0 +1,24 @@
+package com.github.wpyuan.casclienthelper.redirect;
+
+/**
+ * <p>
+ * 非页面导航请求（XHR、fetch、静态资源等）未登录时的响应方式
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 22:10
+ */
+public enum NonNavigationResponse {
+    /**
+     * 与页面请求一样重定向到cas登录页
+     */
+    REDIRECT,
+    /**
+     * 返回401，不带响应体
+     */
+    UNAUTHORIZED,
+    /**
+     * 返回401及json响应体，包含cas登录地址，如{"error":"unauthenticated","loginUrl":"..."}
+     */
+    JSON
+}
@@ -0,0 +1,155 @@
+package com.github.wpyuan.casclienthelper.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.TicketValidationException;
+import org.jasig.cas.client.validation.TicketValidator;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * 访问cas服务端的保护：并发隔离（bulkhead）限制同时进行的调用数，熔断器在失败率过高时直接拒绝调用，
+ * cas服务端故障时不会占满容器线程。同一cas服务端host共享一个实例，见{@link CasServerGuards}
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 21:00
+ */
+@Slf4j
+public class CasServerGuard {
+
+    /**
+     * 不做任何限制
+     */
+    public static final CasServerGuard UNGUARDED = new CasServerGuard(null, 0, null);
+
+    private final Semaphore bulkhead;
+    private final long maxWaitMillis;
+    private final CircuitBreaker circuitBreaker;
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * @param bulkhead       并发许可，为null不限制
+     * @param maxWaitMillis  等待许可的最长时间（毫秒）
+     * @param circuitBreaker 熔断器，为null不熔断
+     */
+    public CasServerGuard(Semaphore bulkhead, long maxWaitMillis, CircuitBreaker circuitBreaker) {
+        this.bulkhead = bulkhead;
+        this.maxWaitMillis = maxWaitMillis;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * 校验票据
+     *
+     * @throws CasServerUnavailableException 熔断器打开或并发已满
+     * @throws TicketValidationException     校验失败
+     */
+    public Assertion validate(TicketValidator validator, String ticket, String service) throws TicketValidationException {
+        this.acquire();
+        boolean failed = true;
+        try {
+            Assertion assertion = validator.validate(ticket, service);
+            failed = false;
+            return assertion;
+        } catch (TicketValidationException e) {
+            // 服务端正常返回的校验失败（如票据无效）不计入失败率，只有通讯失败才算
+            failed = isServerFailure(e);
+            throw e;
+        } finally {
+            this.release(failed);
+        }
+    }
+
+    /**
+     * 访问cas服务端的其他调用，如申请代理票据。抛出IOException或运行时异常计入失败率
+     *
+     * @throws CasServerUnavailableException 熔断器打开或并发已满
+     * @throws IOException                   通讯失败
+     */
+    public <T> T call(CasCall<T> call) throws CasServerUnavailableException, IOException {
+        this.acquire();
+        boolean failed = true;
+        try {
+            T result = call.call();
+            failed = false;
+            return result;
+        } finally {
+            this.release(failed);
+        }
+    }
+
+    /**
+     * @return 熔断器状态，未启用熔断时返回CLOSED
+     */
+    public CircuitBreaker.State getState() {
+        return this.circuitBreaker != null ? this.circuitBreaker.getState() : CircuitBreaker.State.CLOSED;
+    }
+
+    /**
+     * @return 因熔断或并发已满被拒绝的调用数
+     */
+    public long getRejectedCount() {
+        return this.rejectedCount.sum();
+    }
+
+    private void acquire() throws CasServerUnavailableException {
+        if (this.circuitBreaker != null && !this.circuitBreaker.tryAcquirePermission()) {
+            this.rejectedCount.increment();
+            throw new CasServerUnavailableException("circuit breaker is open, cas server considered unavailable");
+        }
+        if (!this.acquireBulkhead()) {
+            if (this.circuitBreaker != null) {
+                this.circuitBreaker.releasePermission();
+            }
+            this.rejectedCount.increment();
+            throw new CasServerUnavailableException("too many concurrent calls to cas server");
+        }
+    }
+
+    private void release(boolean failed) {
+        if (this.bulkhead != null) {
+            this.bulkhead.release();
+        }
+        if (this.circuitBreaker != null) {
+            if (failed) {
+                this.circuitBreaker.onFailure();
+            } else {
+                this.circuitBreaker.onSuccess();
+            }
+        }
+    }
+
+    private boolean acquireBulkhead() {
+        if (this.bulkhead == null) {
+            return true;
+        }
+        if (this.maxWaitMillis <= 0) {
+            return this.bulkhead.tryAcquire();
+        }
+        try {
+            return this.bulkhead.tryAcquire(this.maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean isServerFailure(TicketValidationException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof IOException || cause instanceof RuntimeException
+                || (cause == null && "The CAS server returned no response.".equals(e.getMessage()));
+    }
+
+    /**
+     * 访问cas服务端的调用
+     */
+    @FunctionalInterface
+    public interface CasCall<T> {
+        T call() throws IOException;
+    }
+}
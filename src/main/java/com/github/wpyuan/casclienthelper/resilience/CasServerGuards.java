@@ -0,0 +1,77 @@
+package com.github.wpyuan.casclienthelper.resilience;
+
+import com.github.wpyuan.casclienthelper.cache.LocalCache;
+import com.github.wpyuan.casclienthelper.config.DefaultCasClientConfig;
+import lombok.Value;
+
+import java.net.URI;
+import java.util.concurrent.Semaphore;
+
+/**
+ * <p>
+ * 按cas服务端host及保护参数获取{@link CasServerGuard}，同一cas服务端的配置共享并发许可与熔断状态
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 21:10
+ */
+public final class CasServerGuards {
+
+    private static final LocalCache<GuardKey, CasServerGuard> GUARDS = new LocalCache<>(64, 0);
+
+    private CasServerGuards() {
+    }
+
+    /**
+     * @param config cas配置
+     * @return 访问cas服务端的保护，未启用并发隔离及熔断时返回{@link CasServerGuard#UNGUARDED}
+     */
+    public static CasServerGuard forConfig(DefaultCasClientConfig config) {
+        if (config.getBulkheadMaxConcurrentCalls() <= 0 && !config.isCircuitBreakerEnabled()) {
+            return CasServerGuard.UNGUARDED;
+        }
+        GuardKey key = new GuardKey(hostOf(config.getCasServerUrlPrefix()), config.getBulkheadMaxConcurrentCalls(),
+                config.getBulkheadMaxWait(), config.isCircuitBreakerEnabled(), config.getCircuitBreakerFailureRateThreshold(),
+                config.getCircuitBreakerWindowSize(), config.getCircuitBreakerMinimumCalls(),
+                config.getCircuitBreakerOpenDuration(), config.getCircuitBreakerHalfOpenCalls());
+        CasServerGuard guard = GUARDS.get(key);
+        if (guard != null) {
+            return guard;
+        }
+        guard = new CasServerGuard(
+                key.getMaxConcurrentCalls() > 0 ? new Semaphore(key.getMaxConcurrentCalls()) : null,
+                key.getMaxWait(),
+                key.isCircuitBreakerEnabled() ? new CircuitBreaker(key.getFailureRateThreshold(), key.getWindowSize(),
+                        key.getMinimumCalls(), key.getOpenDuration(), key.getHalfOpenCalls()) : null);
+        CasServerGuard existing = GUARDS.putIfAbsent(key, guard);
+        return existing != null ? existing : guard;
+    }
+
+    private static String hostOf(String casServerUrlPrefix) {
+        if (casServerUrlPrefix == null) {
+            return "";
+        }
+        try {
+            URI uri = URI.create(casServerUrlPrefix);
+            if (uri.getHost() != null) {
+                return uri.getHost() + ":" + uri.getPort();
+            }
+        } catch (IllegalArgumentException e) {
+            // 非法地址按原值区分
+        }
+        return casServerUrlPrefix;
+    }
+
+    @Value
+    private static class GuardKey {
+        String host;
+        int maxConcurrentCalls;
+        long maxWait;
+        boolean circuitBreakerEnabled;
+        int failureRateThreshold;
+        int windowSize;
+        int minimumCalls;
+        long openDuration;
+        int halfOpenCalls;
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.wpyuan.casclienthelper.resilience;
+
+import org.jasig.cas.client.validation.TicketValidationException;
+
+/**
+ * <p>
+ * 熔断器打开或并发数已满，未访问cas服务端直接失败。继承{@link TicketValidationException}，
+ * 过滤器按校验失败处理（调用onFailedValidation）
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 20:40
+ */
+public class CasServerUnavailableException extends TicketValidationException {
+
+    public CasServerUnavailableException(String message) {
+        super(message);
+    }
+}
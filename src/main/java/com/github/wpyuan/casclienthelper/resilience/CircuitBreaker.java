@@ -0,0 +1,162 @@
+package com.github.wpyuan.casclienthelper.resilience;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * 基于最近N次调用失败率的熔断器。关闭状态下失败率达到阈值即打开，打开期间拒绝调用；
+ * 等待openDuration后进入半开状态，放行少量试探调用，全部成功则关闭，任一失败则重新打开
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 20:50
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationMillis;
+    private final int halfOpenCalls;
+    private final boolean[] window;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile State state = State.CLOSED;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    /**
+     * @param failureRateThreshold 失败率阈值（百分比）
+     * @param windowSize           统计最近的调用次数
+     * @param minimumCalls         窗口内至少调用多少次才计算失败率
+     * @param openDurationMillis   打开后多久进入半开（毫秒）
+     * @param halfOpenCalls        半开状态放行的试探调用数
+     */
+    public CircuitBreaker(int failureRateThreshold, int windowSize, int minimumCalls, long openDurationMillis, int halfOpenCalls) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 100 || windowSize <= 0) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 100] and windowSize must be positive");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, windowSize));
+        this.openDurationMillis = openDurationMillis;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    /**
+     * 申请调用，返回true时调用方必须随后调用{@link #onSuccess()}或{@link #onFailure()}
+     *
+     * @return 是否允许调用
+     */
+    public boolean tryAcquirePermission() {
+        if (this.state == State.CLOSED) {
+            return true;
+        }
+        this.lock.lock();
+        try {
+            if (this.state == State.OPEN) {
+                if (System.currentTimeMillis() - this.openedAt < this.openDurationMillis) {
+                    return false;
+                }
+                this.state = State.HALF_OPEN;
+                this.halfOpenPermits = this.halfOpenCalls;
+                this.halfOpenSuccesses = 0;
+            }
+            if (this.state == State.HALF_OPEN) {
+                if (this.halfOpenPermits <= 0) {
+                    return false;
+                }
+                this.halfOpenPermits--;
+            }
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * 已申请到许可但未实际调用时归还许可，不计入统计
+     */
+    public void releasePermission() {
+        if (this.state != State.HALF_OPEN) {
+            return;
+        }
+        this.lock.lock();
+        try {
+            if (this.state == State.HALF_OPEN) {
+                this.halfOpenPermits++;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        this.record(false);
+    }
+
+    public void onFailure() {
+        this.record(true);
+    }
+
+    public State getState() {
+        return this.state;
+    }
+
+    private void record(boolean failure) {
+        this.lock.lock();
+        try {
+            switch (this.state) {
+                case HALF_OPEN:
+                    if (failure) {
+                        this.open();
+                    } else if (++this.halfOpenSuccesses >= this.halfOpenCalls) {
+                        this.close();
+                    }
+                    break;
+                case CLOSED:
+                    if (this.windowCount == this.window.length) {
+                        if (this.window[this.windowIndex]) {
+                            this.windowFailures--;
+                        }
+                    } else {
+                        this.windowCount++;
+                    }
+                    this.window[this.windowIndex] = failure;
+                    if (failure) {
+                        this.windowFailures++;
+                    }
+                    this.windowIndex = (this.windowIndex + 1) % this.window.length;
+                    if (this.windowCount >= this.minimumCalls
+                            && this.windowFailures * 100 >= this.failureRateThreshold * this.windowCount) {
+                        this.open();
+                    }
+                    break;
+                default:
+                    // 打开前已放行的调用，结果不再统计
+                    break;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void open() {
+        this.state = State.OPEN;
+        this.openedAt = System.currentTimeMillis();
+    }
+
+    private void close() {
+        this.windowIndex = 0;
+        this.windowCount = 0;
+        this.windowFailures = 0;
+        this.state = State.CLOSED;
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.wpyuan.casclienthelper.resilience;
+
+/**
+ * <p>
+ * cas服务端不可用（熔断或并发已满）时的处理方式
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 20:40
+ */
+public enum CircuitOpenFallback {
+    /**
+     * 立即按校验失败处理
+     */
+    FAIL_FAST,
+    /**
+     * 同一(ticket, service)在ticket有效期内（默认10秒）刚校验成功且assertion仍在有效期内时使用该结果，
+     * 保留的结果只能使用一次；否则按校验失败处理
+     */
+    SERVE_CACHED
+}
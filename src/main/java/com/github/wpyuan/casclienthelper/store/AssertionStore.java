@@ -0,0 +1,81 @@
+package com.github.wpyuan.casclienthelper.store;
+
+import org.jasig.cas.client.validation.Assertion;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * <p>
+ * 校验通过后的{@link Assertion}存储，过滤器优先从这里取assertion判断请求是否已认证
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 18:20
+ */
+public interface AssertionStore {
+
+    /**
+     * 获取当前请求的assertion
+     *
+     * @param request 请求
+     * @return assertion，不存在或已失效返回null
+     */
+    Assertion get(HttpServletRequest request);
+
+    /**
+     * 保存校验通过的assertion
+     *
+     * @param request   请求
+     * @param response  响应
+     * @param assertion assertion
+     */
+    void put(HttpServletRequest request, HttpServletResponse response, Assertion assertion);
+
+    /**
+     * 移除当前请求的assertion
+     *
+     * @param request  请求
+     * @param response 响应
+     */
+    void evict(HttpServletRequest request, HttpServletResponse response);
+
+    /**
+     * 单点登出时定位assertion的key，在{@link #put}之后调用
+     *
+     * @param request   请求
+     * @param assertion 刚保存的assertion
+     * @return key，不支持按key移除时返回null
+     */
+    default String keyOf(HttpServletRequest request, Assertion assertion) {
+        return null;
+    }
+
+    /**
+     * 按{@link #keyOf}返回的key移除assertion，用于cas服务端发起的单点登出，此时没有对应用户的请求
+     *
+     * @param key key
+     * @return 是否支持按key移除
+     */
+    default boolean evictByKey(String key) {
+        return false;
+    }
+
+    /**
+     * 清理所有已超过validUntilDate的assertion，无法遍历的存储（如session、cookie）在get时判断，这里不做处理
+     *
+     * @return 清理条数
+     */
+    default int expire() {
+        return 0;
+    }
+
+    /**
+     * @param assertion assertion
+     * @param now       当前时间
+     * @return 是否已超过validUntilDate
+     */
+    static boolean isExpired(Assertion assertion, long now) {
+        return assertion.getValidUntilDate() != null && assertion.getValidUntilDate().getTime() <= now;
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.wpyuan.casclienthelper.store;
+
+import com.github.wpyuan.casclienthelper.cache.LocalCache;
+import org.jasig.cas.client.validation.Assertion;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import static org.jasig.cas.client.util.AbstractCasFilter.CONST_CAS_ASSERTION;
+
+/**
+ * <p>
+ * 把assertion保存在{@link HttpSession}属性{@code CONST_CAS_ASSERTION}中。
+ * servlet规范不能按id取得session，单点登出时只记下session id，该session下次访问时作废
+ * </p>
+ * <p>
+ * 登出记录只保存在本进程内：集群部署时，cas服务端的后端通道登出请求只会到达其中一个节点，
+ * 即使session已复制到其他节点，在其他节点上该session仍然有效。集群需要单点登出时应使用共享的{@link AssertionStore}，
+ * 在{@link #evictByKey(String)}中写入各节点可见的登出状态
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 18:25
+ */
+public class HttpSessionAssertionStore implements AssertionStore {
+
+    /**
+     * 读写session
+     */
+    public static final HttpSessionAssertionStore INSTANCE = new HttpSessionAssertionStore(true);
+    /**
+     * 只读session，对应useSession=false
+     */
+    public static final HttpSessionAssertionStore READ_ONLY = new HttpSessionAssertionStore(false);
+
+    /**
+     * 已单点登出、尚未作废的session最多记录数
+     */
+    public static final int DEFAULT_MAXIMUM_LOGGED_OUT = 100000;
+
+    /**
+     * 已单点登出的session id记录保留时间（毫秒），超过该时间未访问的session通常已被容器超时销毁
+     */
+    public static final long DEFAULT_LOGGED_OUT_RETENTION = 12 * 60 * 60 * 1000L;
+
+    private final boolean writable;
+    private final LocalCache<String, Boolean> loggedOut = new LocalCache<>(DEFAULT_MAXIMUM_LOGGED_OUT, DEFAULT_LOGGED_OUT_RETENTION);
+
+    public HttpSessionAssertionStore(boolean writable) {
+        this.writable = writable;
+    }
+
+    @Override
+    public Assertion get(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        Assertion assertion = session != null ? (Assertion) session.getAttribute(CONST_CAS_ASSERTION) : null;
+        if (assertion == null) {
+            return null;
+        }
+        if (this.loggedOut.size() > 0 && this.loggedOut.invalidate(session.getId()) != null) {
+            session.invalidate();
+            return null;
+        }
+        if (AssertionStore.isExpired(assertion, System.currentTimeMillis())) {
+            session.removeAttribute(CONST_CAS_ASSERTION);
+            return null;
+        }
+        return assertion;
+    }
+
+    @Override
+    public void put(HttpServletRequest request, HttpServletResponse response, Assertion assertion) {
+        if (this.writable) {
+            request.getSession().setAttribute(CONST_CAS_ASSERTION, assertion);
+        }
+    }
+
+    @Override
+    public String keyOf(HttpServletRequest request, Assertion assertion) {
+        HttpSession session = request.getSession(false);
+        return session != null ? session.getId() : null;
+    }
+
+    @Override
+    public boolean evictByKey(String key) {
+        this.loggedOut.put(key, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void evict(HttpServletRequest request, HttpServletResponse response) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.removeAttribute(CONST_CAS_ASSERTION);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.github.wpyuan.casclienthelper.store;
+
+import com.github.wpyuan.casclienthelper.cache.FrequencySketch;
+import org.jasig.cas.client.validation.Assertion;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * 容量有限的堆内assertion存储，按session id分段加锁。淘汰策略为W-TinyLFU：
+ * 新条目先进入占容量1%的窗口LRU，被窗口淘汰后与主LRU的淘汰候选比较访问频率，频率高者留下，
+ * 既能容纳新登录用户，又不会让一次性访问挤掉活跃用户
+ * </p>
+ * <p>
+ * 刚写入、还未被读取过的条目（刚校验通过、正被重定向回来的用户）离开窗口时总是进入主区，淘汰主区的候选；
+ * 否则该用户的下一个请求取不到assertion，又会被重定向到cas并消耗一张新的ticket
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 19:30
+ */
+public class InMemoryAssertionStore extends SessionKeyedAssertionStore {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final FrequencySketch sketch;
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maximumSize 最多保存的assertion数
+     */
+    public InMemoryAssertionStore(int maximumSize) {
+        this(maximumSize, DEFAULT_EXPIRE_PERIOD);
+    }
+
+    /**
+     * @param maximumSize        最多保存的assertion数
+     * @param expirePeriodMillis 清理过期assertion的周期（毫秒），小于等于0不定时清理
+     */
+    public InMemoryAssertionStore(int maximumSize, long expirePeriodMillis) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        int segmentCapacity = Math.max(2, (maximumSize + SEGMENTS - 1) / SEGMENTS);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            this.segments[i] = new Segment(segmentCapacity);
+        }
+        this.sketch = new FrequencySketch(maximumSize);
+        this.scheduleExpire(expirePeriodMillis);
+    }
+
+    @Override
+    protected Assertion load(String key) {
+        this.sketch.increment(key);
+        return this.segmentFor(key).get(key);
+    }
+
+    @Override
+    protected void save(String key, Assertion assertion) {
+        this.sketch.increment(key);
+        this.segmentFor(key).put(key, assertion);
+    }
+
+    @Override
+    protected void remove(String key) {
+        this.segmentFor(key).remove(key);
+    }
+
+    @Override
+    public int expire() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (Segment segment : this.segments) {
+            removed += segment.expire(now);
+        }
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : this.segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return 因容量不足被淘汰（或未被接纳）的条目数
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        return this.segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, WindowEntry> window = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<String, Assertion> main = new LinkedHashMap<>(16, 0.75f, true);
+        private final int windowCapacity;
+        private final int mainCapacity;
+
+        private Segment(int capacity) {
+            this.windowCapacity = Math.max(1, capacity / 100);
+            this.mainCapacity = Math.max(1, capacity - this.windowCapacity);
+        }
+
+        private Assertion get(String key) {
+            this.lock.lock();
+            try {
+                WindowEntry entry = this.window.get(key);
+                if (entry != null) {
+                    entry.read = true;
+                    return entry.assertion;
+                }
+                return this.main.get(key);
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void put(String key, Assertion assertion) {
+            this.lock.lock();
+            try {
+                if (this.main.containsKey(key)) {
+                    this.main.put(key, assertion);
+                    return;
+                }
+                this.window.put(key, new WindowEntry(assertion));
+                if (this.window.size() > this.windowCapacity) {
+                    Iterator<Map.Entry<String, WindowEntry>> iterator = this.window.entrySet().iterator();
+                    Map.Entry<String, WindowEntry> eldest = iterator.next();
+                    iterator.remove();
+                    this.admit(eldest.getKey(), eldest.getValue());
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * 窗口淘汰的条目进入主区，主区已满时：未被读取过的条目直接淘汰主区最久未访问的条目，其余与之比较频率
+         */
+        private void admit(String key, WindowEntry candidate) {
+            if (this.main.size() < this.mainCapacity) {
+                this.main.put(key, candidate.assertion);
+                return;
+            }
+            Map.Entry<String, Assertion> victim = this.main.entrySet().iterator().next();
+            if (!candidate.read || sketch.frequency(key) > sketch.frequency(victim.getKey())) {
+                this.main.remove(victim.getKey());
+                this.main.put(key, candidate.assertion);
+            }
+            evictionCount.increment();
+        }
+
+        private void remove(String key) {
+            this.lock.lock();
+            try {
+                if (this.window.remove(key) == null) {
+                    this.main.remove(key);
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private int expire(long now) {
+            this.lock.lock();
+            try {
+                int removed = 0;
+                for (Iterator<WindowEntry> iterator = this.window.values().iterator(); iterator.hasNext(); ) {
+                    if (AssertionStore.isExpired(iterator.next().assertion, now)) {
+                        iterator.remove();
+                        removed++;
+                    }
+                }
+                return removed + purgeExpired(this.main, now);
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private int size() {
+            this.lock.lock();
+            try {
+                return this.window.size() + this.main.size();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 窗口中的条目，记录写入后是否被读取过
+     */
+    private static final class WindowEntry {
+        private final Assertion assertion;
+        private boolean read;
+
+        private WindowEntry(Assertion assertion) {
+            this.assertion = assertion;
+        }
+    }
+
+    private static int purgeExpired(Map<String, Assertion> map, long now) {
+        int removed = 0;
+        for (Iterator<Assertion> iterator = map.values().iterator(); iterator.hasNext(); ) {
+            if (AssertionStore.isExpired(iterator.next(), now)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
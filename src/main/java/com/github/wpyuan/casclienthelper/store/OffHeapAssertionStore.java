@@ -0,0 +1,256 @@
+package com.github.wpyuan.casclienthelper.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jasig.cas.client.validation.Assertion;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * 堆外assertion存储：序列化后的assertion保存在一块直接内存中，堆内只保留session id到槽位的索引，
+ * 大量在线用户时不占用老年代。直接内存按固定大小的槽位分配，一个assertion可占用多个槽位；
+ * 槽位不足时淘汰最久未访问的条目
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 19:50
+ */
+@Slf4j
+public class OffHeapAssertionStore extends SessionKeyedAssertionStore {
+
+    /**
+     * 默认槽位大小（字节）
+     */
+    public static final int DEFAULT_SLOT_SIZE = 512;
+
+    private final ByteBuffer slab;
+    private final int slotSize;
+    private final int[] freeSlots;
+    private int freeCount;
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(256, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param capacityBytes 直接内存大小（字节）
+     */
+    public OffHeapAssertionStore(long capacityBytes) {
+        this(capacityBytes, DEFAULT_SLOT_SIZE);
+    }
+
+    /**
+     * @param capacityBytes 直接内存大小（字节），不超过2GB
+     * @param slotSize      槽位大小（字节）
+     */
+    public OffHeapAssertionStore(long capacityBytes, int slotSize) {
+        this(capacityBytes, slotSize, DEFAULT_EXPIRE_PERIOD);
+    }
+
+    /**
+     * @param capacityBytes      直接内存大小（字节），不超过2GB
+     * @param slotSize           槽位大小（字节）
+     * @param expirePeriodMillis 清理过期assertion、释放槽位的周期（毫秒），小于等于0不定时清理
+     */
+    public OffHeapAssertionStore(long capacityBytes, int slotSize, long expirePeriodMillis) {
+        if (slotSize <= 0 || capacityBytes < slotSize || capacityBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("capacityBytes must be between slotSize and 2GB");
+        }
+        this.slotSize = slotSize;
+        int slots = (int) (capacityBytes / slotSize);
+        this.slab = ByteBuffer.allocateDirect(slots * slotSize);
+        this.freeSlots = new int[slots];
+        for (int i = 0; i < slots; i++) {
+            this.freeSlots[i] = slots - 1 - i;
+        }
+        this.freeCount = slots;
+        this.scheduleExpire(expirePeriodMillis);
+    }
+
+    @Override
+    protected Assertion load(String key) {
+        final byte[] bytes;
+        this.lock.lock();
+        try {
+            Entry entry = this.index.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isExpired(System.currentTimeMillis())) {
+                this.release(this.index.remove(key));
+                return null;
+            }
+            bytes = this.read(entry);
+        } finally {
+            this.lock.unlock();
+        }
+        // 反序列化放在锁外
+        return deserialize(bytes);
+    }
+
+    @Override
+    protected void save(String key, Assertion assertion) {
+        final byte[] bytes = serialize(assertion);
+        if (bytes == null) {
+            return;
+        }
+        final int required = (bytes.length + this.slotSize - 1) / this.slotSize;
+        if (required > this.freeSlots.length) {
+            log.warn("serialized assertion of {} bytes exceeds off-heap store capacity", bytes.length);
+            return;
+        }
+        final long validUntil = assertion.getValidUntilDate() != null ? assertion.getValidUntilDate().getTime() : Long.MAX_VALUE;
+        this.lock.lock();
+        try {
+            this.release(this.index.remove(key));
+            this.reclaim(required);
+            int[] slots = new int[required];
+            for (int i = 0; i < required; i++) {
+                slots[i] = this.freeSlots[--this.freeCount];
+            }
+            Entry entry = new Entry(slots, bytes.length, validUntil);
+            this.write(entry, bytes);
+            this.index.put(key, entry);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    protected void remove(String key) {
+        this.lock.lock();
+        try {
+            this.release(this.index.remove(key));
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public int expire() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        this.lock.lock();
+        try {
+            for (Iterator<Entry> iterator = this.index.values().iterator(); iterator.hasNext(); ) {
+                Entry entry = iterator.next();
+                if (entry.isExpired(now)) {
+                    iterator.remove();
+                    this.release(entry);
+                    removed++;
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        this.lock.lock();
+        try {
+            return this.index.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return 因槽位不足被淘汰的条目数
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    /**
+     * 淘汰最久未访问的条目直到空闲槽位足够，调用方须持有锁
+     */
+    private void reclaim(int required) {
+        Iterator<Map.Entry<String, Entry>> iterator = this.index.entrySet().iterator();
+        while (this.freeCount < required && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            this.release(eldest);
+            this.evictionCount.increment();
+        }
+    }
+
+    private void release(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        for (int slot : entry.slots) {
+            this.freeSlots[this.freeCount++] = slot;
+        }
+    }
+
+    private void write(Entry entry, byte[] bytes) {
+        int offset = 0;
+        for (int slot : entry.slots) {
+            int length = Math.min(this.slotSize, bytes.length - offset);
+            ByteBuffer view = this.slab.duplicate();
+            view.position(slot * this.slotSize);
+            view.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private byte[] read(Entry entry) {
+        byte[] bytes = new byte[entry.length];
+        int offset = 0;
+        for (int slot : entry.slots) {
+            int length = Math.min(this.slotSize, entry.length - offset);
+            ByteBuffer view = this.slab.duplicate();
+            view.position(slot * this.slotSize);
+            view.get(bytes, offset, length);
+            offset += length;
+        }
+        return bytes;
+    }
+
+    private static byte[] serialize(Assertion assertion) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(assertion);
+        } catch (IOException e) {
+            log.error("failed to serialize assertion, make sure the principal attributes are serializable", e);
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Assertion deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (Assertion) in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            log.error("failed to deserialize assertion", e);
+            return null;
+        }
+    }
+
+    private static final class Entry {
+        private final int[] slots;
+        private final int length;
+        private final long validUntil;
+
+        private Entry(int[] slots, int length, long validUntil) {
+            this.slots = slots;
+            this.length = length;
+            this.validUntil = validUntil;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= this.validUntil;
+        }
+    }
+}
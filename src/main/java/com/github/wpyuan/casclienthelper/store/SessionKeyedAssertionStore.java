@@ -0,0 +1,149 @@
+package com.github.wpyuan.casclienthelper.store;
+
+import com.github.wpyuan.casclienthelper.concurrent.CasClientExecutors;
+import lombok.extern.slf4j.Slf4j;
+import org.jasig.cas.client.validation.Assertion;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * 以session id为key、assertion保存在session之外的存储，session中不保存任何属性，避免session复制及老年代膨胀。
+ * 用户不再访问后session id不会再被读取，已过期的条目由共享的定时线程定期调用{@link #expire()}清理
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 19:10
+ */
+@Slf4j
+public abstract class SessionKeyedAssertionStore implements AssertionStore {
+
+    /**
+     * 默认清理过期条目的周期（毫秒）
+     */
+    public static final long DEFAULT_EXPIRE_PERIOD = 60000;
+
+    private volatile ScheduledFuture<?> expireTask;
+
+    @Override
+    public Assertion get(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return null;
+        }
+        Assertion assertion = this.load(session.getId());
+        if (assertion != null && AssertionStore.isExpired(assertion, System.currentTimeMillis())) {
+            this.remove(session.getId());
+            return null;
+        }
+        return assertion;
+    }
+
+    @Override
+    public void put(HttpServletRequest request, HttpServletResponse response, Assertion assertion) {
+        this.save(request.getSession().getId(), assertion);
+    }
+
+    @Override
+    public void evict(HttpServletRequest request, HttpServletResponse response) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            this.remove(session.getId());
+        }
+    }
+
+    @Override
+    public String keyOf(HttpServletRequest request, Assertion assertion) {
+        HttpSession session = request.getSession(false);
+        return session != null ? session.getId() : null;
+    }
+
+    @Override
+    public boolean evictByKey(String key) {
+        this.remove(key);
+        return true;
+    }
+
+    /**
+     * 在共享定时线程中按周期调用{@link #expire()}，子类在构造完成后调用
+     *
+     * @param periodMillis 周期（毫秒），小于等于0不定时清理
+     */
+    protected final void scheduleExpire(long periodMillis) {
+        if (periodMillis <= 0) {
+            return;
+        }
+        ExpireTask task = new ExpireTask(this);
+        this.expireTask = CasClientExecutors.scheduler().scheduleWithFixedDelay(task, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        task.future = this.expireTask;
+    }
+
+    /**
+     * 停止定时清理，不再使用的存储应调用
+     */
+    public void close() {
+        ScheduledFuture<?> task = this.expireTask;
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * @param key session id
+     * @return assertion，不存在返回null
+     */
+    protected abstract Assertion load(String key);
+
+    /**
+     * @param key       session id
+     * @param assertion assertion
+     */
+    protected abstract void save(String key, Assertion assertion);
+
+    /**
+     * @param key session id
+     */
+    protected abstract void remove(String key);
+
+    /**
+     * @return 当前条目数
+     */
+    public abstract int size();
+
+    /**
+     * 只弱引用存储，被丢弃的存储可以被回收，回收后任务自行取消
+     */
+    private static final class ExpireTask implements Runnable {
+        private final WeakReference<SessionKeyedAssertionStore> store;
+        private volatile ScheduledFuture<?> future;
+
+        private ExpireTask(SessionKeyedAssertionStore store) {
+            this.store = new WeakReference<>(store);
+        }
+
+        @Override
+        public void run() {
+            SessionKeyedAssertionStore store = this.store.get();
+            if (store == null) {
+                ScheduledFuture<?> future = this.future;
+                if (future != null) {
+                    future.cancel(false);
+                }
+                return;
+            }
+            try {
+                int removed = store.expire();
+                if (removed > 0) {
+                    log.debug("removed {} expired assertions", removed);
+                }
+            } catch (RuntimeException e) {
+                log.warn("failed to expire assertions", e);
+            }
+        }
+    }
+}
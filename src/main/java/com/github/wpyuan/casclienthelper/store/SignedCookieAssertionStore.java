@@ -0,0 +1,409 @@
+package com.github.wpyuan.casclienthelper.store;
+
+import com.github.wpyuan.casclienthelper.cache.LocalCache;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.jasig.cas.client.authentication.AttributePrincipal;
+import org.jasig.cas.client.authentication.AttributePrincipalImpl;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.AssertionImpl;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * 无状态assertion存储：把用户名、选定的属性及有效期写入HMAC-SHA256签名（可选AES-GCM加密）的cookie，
+ * 读取时只校验签名和有效期，不查询session，应用可水平扩展而无需session复制。
+ * 注意：cookie在有效期内无法在服务端单独作废，有效期不宜过长
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 18:30
+ */
+@Slf4j
+@Getter
+@Setter
+public class SignedCookieAssertionStore implements AssertionStore {
+
+    /**
+     * cookie格式版本，个数及字符串字节数以varint写入，不受64KB及32767个值的限制
+     */
+    private static final byte VERSION = 1;
+    private static final byte FLAG_ENCRYPTED = 1;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String CIPHER_ALGORITHM = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int GCM_TAG_BITS = 128;
+    /**
+     * 浏览器单个cookie（名称加值）的上限，超出的cookie会被浏览器丢弃
+     */
+    private static final int MAX_COOKIE_LENGTH = 4096;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Getter(lombok.AccessLevel.NONE)
+    @Setter(lombok.AccessLevel.NONE)
+    private final SecretKeySpec signingKey;
+    @Getter(lombok.AccessLevel.NONE)
+    @Setter(lombok.AccessLevel.NONE)
+    private final SecretKeySpec encryptionKey;
+    @Getter(lombok.AccessLevel.NONE)
+    @Setter(lombok.AccessLevel.NONE)
+    private final SecureRandom random = new SecureRandom();
+    /**
+     * Mac、Cipher的创建需查找安全提供者，每个线程各缓存一个，Mac已用签名密钥初始化
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    @Setter(lombok.AccessLevel.NONE)
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+    @Getter(lombok.AccessLevel.NONE)
+    @Setter(lombok.AccessLevel.NONE)
+    private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(SignedCookieAssertionStore::newCipher);
+    /**
+     * 已单点登出的cookie（用户名及认证时间），cookie无法在服务端删除，读取时拒绝
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    @Setter(lombok.AccessLevel.NONE)
+    private final LocalCache<String, Boolean> loggedOut = new LocalCache<>(100000, 0);
+
+    /**
+     * cookie名称
+     */
+    private String cookieName = "CAS_ASSERTION";
+    private String cookiePath = "/";
+    private String cookieDomain;
+    private boolean secure = true;
+    private boolean httpOnly = true;
+    /**
+     * SameSite属性，为空不设置
+     */
+    private String sameSite = "Lax";
+    /**
+     * cookie有效期（秒），assertion本身的validUntilDate更早时以其为准
+     */
+    private int maxAge = 8 * 60 * 60;
+    /**
+     * 是否加密cookie内容，不加密时内容可被解码查看但无法篡改
+     */
+    private boolean encrypt = false;
+    /**
+     * 写入cookie的principal属性名，为空则不写属性
+     */
+    private Set<String> attributes = Collections.emptySet();
+
+    /**
+     * @param secret 密钥，至少32字节，集群各节点须一致
+     */
+    public SignedCookieAssertionStore(byte[] secret) {
+        if (secret == null || secret.length < 32) {
+            throw new IllegalArgumentException("secret must be at least 32 bytes");
+        }
+        this.signingKey = new SecretKeySpec(derive(secret, "signing"), HMAC_ALGORITHM);
+        this.encryptionKey = new SecretKeySpec(Arrays.copyOf(derive(secret, "encryption"), 16), "AES");
+    }
+
+    public void setAttributes(Collection<String> attributes) {
+        this.attributes = attributes == null ? Collections.emptySet() : new HashSet<>(attributes);
+    }
+
+    @Override
+    public Assertion get(HttpServletRequest request) {
+        final Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (this.cookieName.equals(cookie.getName())) {
+                return this.decode(cookie.getValue());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @throws IllegalStateException 编码失败或cookie超出浏览器上限。此时不设置cookie，用户每次登录后都会被重新重定向到cas，
+     *                               因此直接失败，应减少{@link #attributes}
+     */
+    @Override
+    public void put(HttpServletRequest request, HttpServletResponse response, Assertion assertion) {
+        final long now = System.currentTimeMillis();
+        long validUntil = now + this.maxAge * 1000L;
+        if (assertion.getValidUntilDate() != null) {
+            validUntil = Math.min(validUntil, assertion.getValidUntilDate().getTime());
+        }
+        final String value;
+        try {
+            value = this.encode(assertion, now, validUntil);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("failed to encode assertion cookie", e);
+        }
+        final int length = this.cookieName.length() + 1 + value.length();
+        if (length > MAX_COOKIE_LENGTH) {
+            throw new IllegalStateException("assertion cookie for [" + assertion.getPrincipal().getName() + "] is " + length
+                    + " characters long and would be rejected by browsers, reduce the configured attributes");
+        }
+        this.writeCookie(response, value, (int) Math.max(0, (validUntil - now) / 1000L));
+    }
+
+    @Override
+    public void evict(HttpServletRequest request, HttpServletResponse response) {
+        this.writeCookie(response, "", 0);
+    }
+
+    @Override
+    public String keyOf(HttpServletRequest request, Assertion assertion) {
+        return logoutKey(assertion.getPrincipal().getName(), assertion.getAuthenticationDate() != null ? assertion.getAuthenticationDate().getTime() : 0L);
+    }
+
+    @Override
+    public boolean evictByKey(String key) {
+        // cookie最长有效期为maxAge，之后无需再记录
+        this.loggedOut.put(key, Boolean.TRUE, this.maxAge * 1000L);
+        return true;
+    }
+
+    private static String logoutKey(String name, long authenticationDate) {
+        return name + '|' + authenticationDate;
+    }
+
+    String encode(Assertion assertion, long validFrom, long validUntil) throws IOException, GeneralSecurityException {
+        final AttributePrincipal principal = assertion.getPrincipal();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(validFrom);
+        out.writeLong(validUntil);
+        out.writeLong(assertion.getAuthenticationDate() != null ? assertion.getAuthenticationDate().getTime() : validFrom);
+        writeString(out, principal.getName());
+        final Map<String, Object> selected = new LinkedHashMap<>();
+        if (!this.attributes.isEmpty() && principal.getAttributes() != null) {
+            for (Map.Entry<String, Object> entry : principal.getAttributes().entrySet()) {
+                if (this.attributes.contains(entry.getKey()) && entry.getValue() != null) {
+                    selected.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        writeVarInt(out, selected.size());
+        for (Map.Entry<String, Object> entry : selected.entrySet()) {
+            writeString(out, entry.getKey());
+            if (entry.getValue() instanceof Collection) {
+                Collection<?> values = (Collection<?>) entry.getValue();
+                // 值个数加1写入，0表示单值
+                writeVarInt(out, values.size() + 1);
+                for (Object value : values) {
+                    writeString(out, String.valueOf(value));
+                }
+            } else {
+                writeVarInt(out, 0);
+                writeString(out, String.valueOf(entry.getValue()));
+            }
+        }
+        out.flush();
+
+        byte[] payload = bytes.toByteArray();
+        byte flags = 0;
+        if (this.encrypt) {
+            payload = this.encrypt(payload);
+            flags |= FLAG_ENCRYPTED;
+        }
+        final byte[] body = new byte[payload.length + 2];
+        body[0] = VERSION;
+        body[1] = flags;
+        System.arraycopy(payload, 0, body, 2, payload.length);
+        return ENCODER.encodeToString(body) + "." + ENCODER.encodeToString(this.sign(body));
+    }
+
+    Assertion decode(String value) {
+        if (value == null) {
+            return null;
+        }
+        final int dot = value.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        try {
+            final byte[] body = DECODER.decode(value.substring(0, dot));
+            final byte[] signature = DECODER.decode(value.substring(dot + 1));
+            final byte version = body.length < 2 ? 0 : body[0];
+            if (version != VERSION || !MessageDigest.isEqual(signature, this.sign(body))) {
+                log.debug("invalid assertion cookie signature");
+                return null;
+            }
+            byte[] payload = Arrays.copyOfRange(body, 2, body.length);
+            if ((body[1] & FLAG_ENCRYPTED) != 0) {
+                payload = this.decrypt(payload);
+            }
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            final long validFrom = in.readLong();
+            final long validUntil = in.readLong();
+            final long authenticationDate = in.readLong();
+            final long now = System.currentTimeMillis();
+            if (now >= validUntil) {
+                return null;
+            }
+            final String name = readString(in);
+            if (this.loggedOut.size() > 0 && this.loggedOut.get(logoutKey(name, authenticationDate)) != null) {
+                return null;
+            }
+            final int attributeCount = readVarInt(in);
+            final Map<String, Object> attributes = new LinkedHashMap<>(Math.max(4, Math.min(attributeCount, 64) * 2));
+            for (int i = 0; i < attributeCount; i++) {
+                final String key = readString(in);
+                // 0表示单值，其余为个数加1
+                final int valueCount = readVarInt(in) - 1;
+                if (valueCount < 0) {
+                    attributes.put(key, readString(in));
+                } else {
+                    List<Object> values = new ArrayList<>(Math.min(valueCount, 64));
+                    for (int j = 0; j < valueCount; j++) {
+                        values.add(readString(in));
+                    }
+                    attributes.put(key, values);
+                }
+            }
+            return new AssertionImpl(new AttributePrincipalImpl(name, attributes), new Date(validFrom), new Date(validUntil),
+                    new Date(authenticationDate), Collections.emptyMap());
+        } catch (IllegalArgumentException | IOException | GeneralSecurityException e) {
+            log.debug("invalid assertion cookie", e);
+            return null;
+        }
+    }
+
+    private void writeCookie(HttpServletResponse response, String value, int maxAge) {
+        final StringBuilder header = new StringBuilder(this.cookieName.length() + value.length() + 96);
+        header.append(this.cookieName).append('=').append(value);
+        header.append("; Path=").append(this.cookiePath);
+        if (this.cookieDomain != null) {
+            header.append("; Domain=").append(this.cookieDomain);
+        }
+        header.append("; Max-Age=").append(maxAge);
+        if (this.secure) {
+            header.append("; Secure");
+        }
+        if (this.httpOnly) {
+            header.append("; HttpOnly");
+        }
+        if (this.sameSite != null && !this.sameSite.isEmpty()) {
+            header.append("; SameSite=").append(this.sameSite);
+        }
+        response.addHeader("Set-Cookie", header.toString());
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new IOException("malformed varint");
+                }
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final int length = readVarInt(in);
+        if (length > in.available()) {
+            throw new IOException("string length exceeds payload");
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private byte[] sign(byte[] body) {
+        return this.macs.get().doFinal(body);
+    }
+
+    private Mac newMac() {
+        try {
+            final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(this.signingKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(CIPHER_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] encrypt(byte[] payload) throws GeneralSecurityException {
+        final byte[] iv = new byte[IV_LENGTH];
+        this.random.nextBytes(iv);
+        final Cipher cipher = this.ciphers.get();
+        cipher.init(Cipher.ENCRYPT_MODE, this.encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+        final byte[] encrypted = cipher.doFinal(payload);
+        final byte[] result = new byte[IV_LENGTH + encrypted.length];
+        System.arraycopy(iv, 0, result, 0, IV_LENGTH);
+        System.arraycopy(encrypted, 0, result, IV_LENGTH, encrypted.length);
+        return result;
+    }
+
+    private byte[] decrypt(byte[] payload) throws GeneralSecurityException {
+        if (payload.length <= IV_LENGTH) {
+            throw new GeneralSecurityException("encrypted payload too short");
+        }
+        final Cipher cipher = this.ciphers.get();
+        cipher.init(Cipher.DECRYPT_MODE, this.encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, payload, 0, IV_LENGTH));
+        return cipher.doFinal(payload, IV_LENGTH, payload.length - IV_LENGTH);
+    }
+
+    private static byte[] derive(byte[] secret, String purpose) {
+        try {
+            final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
+            return mac.doFinal(purpose.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.wpyuan.casclienthelper.tenant;
+
+import com.github.wpyuan.casclienthelper.config.CasClientContext;
+import com.github.wpyuan.casclienthelper.config.DefaultCasClientConfig;
+import com.github.wpyuan.casclienthelper.validation.TicketValidatorRegistry;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * 多租户注册表：启动或重新加载时为每个租户host预先构建{@link CasClientContext}（配置、service url前缀、url规则）并解析票据校验器，
+ * 每个请求只按host查一次哈希表。注册表不可变，重新加载时构建新实例整体替换
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 11:20
+ */
+public class TenantRegistry {
+
+    private static final String FORWARDED_HOST_HEADER = "X-Forwarded-Host";
+
+    private final Map<String, CasClientContext> contexts;
+    private final CasClientContext defaultContext;
+    private final boolean trustForwardedHost;
+
+    /**
+     * @param tenants    租户host（可带端口）到配置的映射，多个host可使用同一配置实例
+     * @param validators 票据校验器注册表，用于预先解析各租户的校验器
+     */
+    public TenantRegistry(Map<String, DefaultCasClientConfig> tenants, TicketValidatorRegistry validators) {
+        this(tenants, null, validators, true);
+    }
+
+    /**
+     * @param tenants            租户host（可带端口）到配置的映射，多个host可使用同一配置实例
+     * @param defaultConfig      未匹配任何租户时使用的配置，为null时交由过滤器的load()处理
+     * @param validators         票据校验器注册表，用于预先解析各租户的校验器
+     * @param trustForwardedHost 是否优先使用X-Forwarded-Host，应用前有反向代理且代理会覆盖该请求头时开启
+     */
+    public TenantRegistry(Map<String, DefaultCasClientConfig> tenants, DefaultCasClientConfig defaultConfig,
+                          TicketValidatorRegistry validators, boolean trustForwardedHost) {
+        final Map<DefaultCasClientConfig, CasClientContext> built = new IdentityHashMap<>();
+        final Map<String, CasClientContext> contexts = new HashMap<>(tenants.size() * 2);
+        for (Map.Entry<String, DefaultCasClientConfig> tenant : tenants.entrySet()) {
+            final CasClientContext context = built.computeIfAbsent(tenant.getValue(),
+                    config -> new CasClientContext(config, validators.getValidator(config)));
+            if (contexts.putIfAbsent(normalize(tenant.getKey()), context) != null) {
+                throw new IllegalArgumentException("duplicate tenant host: " + tenant.getKey());
+            }
+        }
+        this.contexts = contexts;
+        this.defaultContext = defaultConfig == null ? null
+                : built.computeIfAbsent(defaultConfig, config -> new CasClientContext(config, validators.getValidator(config)));
+        this.trustForwardedHost = trustForwardedHost;
+    }
+
+    /**
+     * 按请求host取得租户，依次使用X-Forwarded-Host（第一个值）、Host请求头、serverName；先按host:port匹配，再按不带端口的host匹配
+     *
+     * @param request 请求
+     * @return 租户的配置上下文，未匹配返回默认配置，没有默认配置返回null
+     */
+    public CasClientContext resolve(HttpServletRequest request) {
+        String host = null;
+        if (this.trustForwardedHost) {
+            final String forwarded = request.getHeader(FORWARDED_HOST_HEADER);
+            if (forwarded != null) {
+                final int comma = forwarded.indexOf(',');
+                host = comma >= 0 ? forwarded.substring(0, comma).trim() : forwarded.trim();
+            }
+        }
+        if (host == null || host.isEmpty()) {
+            host = request.getHeader("Host");
+        }
+        if (host == null || host.isEmpty()) {
+            host = request.getServerName();
+        }
+        final CasClientContext context = host != null ? this.get(host) : null;
+        return context != null ? context : this.defaultContext;
+    }
+
+    /**
+     * @param host host，可带端口
+     * @return 租户的配置上下文，未匹配返回null（不使用默认配置）
+     */
+    public CasClientContext get(String host) {
+        // host请求头通常已是小写，先直接查找，避免转换
+        CasClientContext context = this.contexts.get(host);
+        if (context != null) {
+            return context;
+        }
+        final String normalized = normalize(host);
+        context = this.contexts.get(normalized);
+        if (context != null) {
+            return context;
+        }
+        final int port = portSeparator(normalized);
+        return port > 0 ? this.contexts.get(normalized.substring(0, port)) : null;
+    }
+
+    /**
+     * @return 已注册的租户host（已规范化）
+     */
+    public Set<String> getHosts() {
+        return Collections.unmodifiableSet(this.contexts.keySet());
+    }
+
+    public int size() {
+        return this.contexts.size();
+    }
+
+    /**
+     * 去掉空白、结尾的'.'并转为小写
+     */
+    static String normalize(String host) {
+        String normalized = host.trim().toLowerCase(Locale.ROOT);
+        if (normalized.endsWith(".")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        final int port = portSeparator(normalized);
+        if (port > 0 && normalized.charAt(port - 1) == '.') {
+            normalized = normalized.substring(0, port - 1) + normalized.substring(port);
+        }
+        return normalized;
+    }
+
+    /**
+     * @return 端口前':'的位置，没有端口返回-1；IPv6地址需带方括号
+     */
+    private static int portSeparator(String host) {
+        final int colon = host.lastIndexOf(':');
+        return colon > host.lastIndexOf(']') ? colon : -1;
+    }
+}
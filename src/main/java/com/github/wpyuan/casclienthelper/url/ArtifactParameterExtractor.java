@@ -0,0 +1,58 @@
+package com.github.wpyuan.casclienthelper.url;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * <p>
+ * 票据参数提取：只扫描一次原始查询字符串，按参数边界精确匹配参数名，不调用request.getParameter，
+ * 容器不会因此解析整个查询字符串，表单POST也不会读取请求体。提取到的票据保存在请求属性中，同一请求内不再截取、解码；
+ * 没有票据时不写请求属性，重复调用只是再扫描一次，不分配内存
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 15:40
+ */
+public class ArtifactParameterExtractor {
+
+    /**
+     * 已提取的票据在请求属性中的名称
+     */
+    public static final String ARTIFACT_ATTRIBUTE = ArtifactParameterExtractor.class.getName() + ".artifact";
+
+    private final String artifactParameterName;
+
+    /**
+     * @param artifactParameterName 票据参数名
+     */
+    public ArtifactParameterExtractor(String artifactParameterName) {
+        this.artifactParameterName = artifactParameterName;
+    }
+
+    /**
+     * 提取当前请求查询字符串中的票据，同一请求内重复调用直接返回首次结果
+     *
+     * @param request 请求
+     * @return 票据，没有返回null
+     */
+    public String extract(HttpServletRequest request) {
+        final String query = request.getQueryString();
+        if (query == null || query.indexOf(this.artifactParameterName) < 0) {
+            // 不带票据的请求到此为止，不读请求属性
+            return null;
+        }
+        final Object cached = request.getAttribute(ARTIFACT_ATTRIBUTE);
+        if (cached instanceof String) {
+            return (String) cached;
+        }
+        final String artifact = QueryStrings.getParameter(query, this.artifactParameterName);
+        if (artifact == null || artifact.isEmpty()) {
+            return null;
+        }
+        request.setAttribute(ARTIFACT_ATTRIBUTE, artifact);
+        return artifact;
+    }
+
+    public String getArtifactParameterName() {
+        return this.artifactParameterName;
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.wpyuan.casclienthelper.url;
+
+/**
+ * <p>
+ * application/x-www-form-urlencoded编码，结果与{@code URLEncoder.encode(value, "UTF-8")}一致。
+ * 直接写入调用方的buffer，无需编码时不产生新字符串，也不按字符集名称查找编码器
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 10:10
+ */
+public final class PercentEncoder {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    /**
+     * 不需要编码的ASCII字符
+     */
+    private static final boolean[] SAFE = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            SAFE[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            SAFE[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            SAFE[c] = true;
+        }
+        SAFE['.'] = true;
+        SAFE['-'] = true;
+        SAFE['*'] = true;
+        SAFE['_'] = true;
+    }
+
+    private PercentEncoder() {
+    }
+
+    /**
+     * @param value 原文
+     * @return 编码结果，无需编码时返回原字符串
+     */
+    public static String encode(String value) {
+        final int first = firstUnsafe(value);
+        if (first < 0) {
+            return value;
+        }
+        final StringBuilder out = new StringBuilder(estimateLength(value));
+        out.append(value, 0, first);
+        encodeFrom(out, value, first);
+        return out.toString();
+    }
+
+    /**
+     * 编码并追加到buffer
+     *
+     * @param out   目标
+     * @param value 原文
+     */
+    public static void encode(StringBuilder out, String value) {
+        final int first = firstUnsafe(value);
+        if (first < 0) {
+            out.append(value);
+            return;
+        }
+        out.append(value, 0, first);
+        encodeFrom(out, value, first);
+    }
+
+    /**
+     * @return 编码后长度的估计值，用于预分配buffer：url中大多是安全字符，按少量转义预留
+     */
+    public static int estimateLength(String value) {
+        return value.length() + (value.length() >> 2) + 16;
+    }
+
+    private static int firstUnsafe(String value) {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            final char c = value.charAt(i);
+            if (c >= 128 || !SAFE[c]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void encodeFrom(StringBuilder out, String value, int from) {
+        final int length = value.length();
+        for (int i = from; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 128) {
+                if (SAFE[c]) {
+                    out.append(c);
+                } else if (c == ' ') {
+                    out.append('+');
+                } else {
+                    appendByte(out, c);
+                }
+            } else if (c < 0x800) {
+                appendByte(out, 0xC0 | (c >> 6));
+                appendByte(out, 0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                appendByte(out, 0xF0 | (codePoint >> 18));
+                appendByte(out, 0x80 | ((codePoint >> 12) & 0x3F));
+                appendByte(out, 0x80 | ((codePoint >> 6) & 0x3F));
+                appendByte(out, 0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // 与URLEncoder一致，不成对的代理字符按'?'编码
+                appendByte(out, '?');
+            } else {
+                appendByte(out, 0xE0 | (c >> 12));
+                appendByte(out, 0x80 | ((c >> 6) & 0x3F));
+                appendByte(out, 0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static void appendByte(StringBuilder out, int b) {
+        out.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+}
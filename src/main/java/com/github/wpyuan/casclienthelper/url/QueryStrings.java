@@ -0,0 +1,123 @@
+package com.github.wpyuan.casclienthelper.url;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+
+/**
+ * <p>
+ * 查询字符串扫描，按参数边界（开头或{@code &}之后）精确匹配参数名，不拆分、不创建中间字符串
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 15:10
+ */
+public final class QueryStrings {
+
+    private QueryStrings() {
+    }
+
+    /**
+     * 查找参数所在片段的起始位置
+     *
+     * @param query 查询字符串
+     * @param name  参数名
+     * @param from  起始位置，须为片段开头
+     * @return 片段起始位置，不存在返回-1
+     */
+    public static int indexOfParameter(String query, String name, int from) {
+        // 绝大多数查询字符串根本不含该名称，先整体查找一次，无需逐个片段比较
+        if (query.indexOf(name, from) < 0) {
+            return -1;
+        }
+        final int length = query.length();
+        int start = from;
+        while (start < length) {
+            int end = query.indexOf('&', start);
+            if (end == -1) {
+                end = length;
+            }
+            if (isParameter(query, start, end, name)) {
+                return start;
+            }
+            start = end + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * 取参数值（第一次出现），按UTF-8解码，值中没有%、+时不解码直接截取
+     *
+     * @param query 查询字符串，可为null
+     * @param name  参数名
+     * @return 参数值，不存在或编码有误返回null，只有参数名时返回空字符串
+     */
+    public static String getParameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        final int start = indexOfParameter(query, name, 0);
+        if (start < 0) {
+            return null;
+        }
+        int end = query.indexOf('&', start);
+        if (end == -1) {
+            end = query.length();
+        }
+        final int valueStart = start + name.length() + 1;
+        if (valueStart >= end) {
+            return "";
+        }
+        for (int i = valueStart; i < end; i++) {
+            final char c = query.charAt(i);
+            if (c == '%' || c == '+') {
+                try {
+                    return URLDecoder.decode(query.substring(valueStart, end), "UTF-8");
+                } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+        return query.substring(valueStart, end);
+    }
+
+    /**
+     * 把查询字符串追加到buffer，去掉指定参数（可能出现多次）
+     *
+     * @param buffer 目标
+     * @param query  查询字符串
+     * @param name   要去掉的参数名
+     * @return 是否追加了内容
+     */
+    public static boolean appendWithout(StringBuilder buffer, String query, String name) {
+        final int length = query.length();
+        if (length == 0) {
+            return false;
+        }
+        boolean appended = false;
+        int start = 0;
+        while (start <= length) {
+            int end = query.indexOf('&', start);
+            if (end == -1) {
+                end = length;
+            }
+            if (!isParameter(query, start, end, name)) {
+                buffer.append(appended ? '&' : '?');
+                buffer.append(query, start, end);
+                appended = true;
+            }
+            start = end + 1;
+        }
+        return appended;
+    }
+
+    /**
+     * 片段[start, end)是否为指定参数，即"name"或"name=..."
+     */
+    static boolean isParameter(String query, int start, int end, String name) {
+        final int nameLength = name.length();
+        if (end - start < nameLength || !query.regionMatches(start, name, 0, nameLength)) {
+            return false;
+        }
+        return end - start == nameLength || query.charAt(start + nameLength) == '=';
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.wpyuan.casclienthelper.url;
+
+/**
+ * <p>
+ * cas登录重定向地址模板：登录地址、分隔符、service参数名以及renew/gateway参数在创建时拼好，
+ * 每次重定向只需把编码后的service url写入预分配的buffer
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 10:30
+ */
+public class RedirectUrlTemplate {
+
+    private final String prefix;
+    private final String suffix;
+
+    /**
+     * @param casServerLoginUrl    cas登录地址
+     * @param serviceParameterName service参数名
+     * @param renew                是否追加renew=true
+     * @param gateway              是否追加gateway=true
+     */
+    public RedirectUrlTemplate(String casServerLoginUrl, String serviceParameterName, boolean renew, boolean gateway) {
+        this.prefix = casServerLoginUrl + (casServerLoginUrl.indexOf('?') >= 0 ? '&' : '?') + serviceParameterName + '=';
+        this.suffix = (renew ? "&renew=true" : "") + (gateway ? "&gateway=true" : "");
+    }
+
+    /**
+     * @param serviceUrl service url，未编码
+     * @return 重定向地址
+     */
+    public String render(String serviceUrl) {
+        final StringBuilder url = new StringBuilder(this.prefix.length() + PercentEncoder.estimateLength(serviceUrl) + this.suffix.length());
+        url.append(this.prefix);
+        PercentEncoder.encode(url, serviceUrl);
+        url.append(this.suffix);
+        return url.toString();
+    }
+}
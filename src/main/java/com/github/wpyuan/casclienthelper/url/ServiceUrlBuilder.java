@@ -0,0 +1,163 @@
+package com.github.wpyuan.casclienthelper.url;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>
+ * service url构建。serverName在创建时解析一次并按host建立索引；查询字符串中的票据参数单次扫描去掉；
+ * 同一请求只计算一次，结果保存在请求属性中供后续（校验、校验后重定向）复用
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 15:20
+ */
+@Slf4j
+public class ServiceUrlBuilder {
+
+    /**
+     * 已计算的service url在请求属性中的名称
+     */
+    public static final String SERVICE_URL_ATTRIBUTE = ServiceUrlBuilder.class.getName() + ".serviceUrl";
+
+    private static final String HTTP = "http://";
+    private static final String HTTPS = "https://";
+
+    private final ServerName[] serverNames;
+    private final Map<String, ServerName> serverNamesByHost;
+    private final String artifactParameterName;
+    private final boolean appendPort;
+    private final boolean encode;
+
+    /**
+     * @param serverNames           客户端服务地址，多个以空格分隔
+     * @param artifactParameterName 票据参数名
+     * @param appendPort            是否追加当前服务端口
+     * @param encode                是否调用response.encodeURL
+     */
+    public ServiceUrlBuilder(String serverNames, String artifactParameterName, boolean appendPort, boolean encode) {
+        List<ServerName> parsed = new ArrayList<>();
+        if (serverNames != null) {
+            for (String serverName : serverNames.split(" ")) {
+                if (!serverName.isEmpty()) {
+                    parsed.add(new ServerName(serverName));
+                }
+            }
+        }
+        if (parsed.isEmpty()) {
+            parsed.add(new ServerName(serverNames == null ? "" : serverNames));
+        }
+        this.serverNames = parsed.toArray(new ServerName[0]);
+        this.serverNamesByHost = new HashMap<>();
+        for (ServerName serverName : this.serverNames) {
+            this.serverNamesByHost.putIfAbsent(serverName.authority, serverName);
+        }
+        this.artifactParameterName = artifactParameterName;
+        this.appendPort = appendPort;
+        this.encode = encode;
+    }
+
+    /**
+     * 构建当前请求的service url，同一请求内重复调用直接返回首次结果
+     *
+     * @param request  请求
+     * @param response 响应
+     * @return service url
+     */
+    public String build(HttpServletRequest request, HttpServletResponse response) {
+        Object cached = request.getAttribute(SERVICE_URL_ATTRIBUTE);
+        if (cached instanceof String) {
+            return (String) cached;
+        }
+        final String serviceUrl = this.construct(request, response);
+        request.setAttribute(SERVICE_URL_ATTRIBUTE, serviceUrl);
+        return serviceUrl;
+    }
+
+    /**
+     * 构建service url，不读写请求属性
+     */
+    public String construct(HttpServletRequest request, HttpServletResponse response) {
+        final ServerName serverName = this.match(request);
+        final String uri = request.getRequestURI();
+        final String query = request.getQueryString();
+        final StringBuilder buffer = new StringBuilder(serverName.value.length() + uri.length()
+                + (query == null ? 0 : query.length() + 1) + 16);
+        if (!serverName.containsScheme) {
+            buffer.append(request.isSecure() ? HTTPS : HTTP);
+        }
+        buffer.append(serverName.value);
+        if (this.appendPort && !serverName.containsPort) {
+            int port = request.getServerPort();
+            if (port != 80 && port != 443) {
+                buffer.append(':').append(port);
+            }
+        }
+        buffer.append(uri);
+        if (query != null) {
+            QueryStrings.appendWithout(buffer, query, this.artifactParameterName);
+        }
+        final String serviceUrl = this.encode ? response.encodeURL(buffer.toString()) : buffer.toString();
+        log.debug("serviceUrl generated: {}", serviceUrl);
+        return serviceUrl;
+    }
+
+    /**
+     * 按请求host选择serverName，只配置一个时直接返回
+     */
+    ServerName match(HttpServletRequest request) {
+        if (this.serverNames.length == 1) {
+            return this.serverNames[0];
+        }
+        String host = request.getHeader("Host");
+        String forwardedHost = request.getHeader("X-Forwarded-Host");
+        String comparisonHost = forwardedHost != null && "localhost".equals(host) ? forwardedHost : host;
+        if (comparisonHost == null) {
+            return this.serverNames[0];
+        }
+        comparisonHost = comparisonHost.toLowerCase(Locale.ROOT);
+        ServerName serverName = this.serverNamesByHost.get(comparisonHost);
+        if (serverName != null) {
+            return serverName;
+        }
+        for (ServerName candidate : this.serverNames) {
+            if (candidate.lowerCaseValue.contains(comparisonHost)) {
+                return candidate;
+            }
+        }
+        return this.serverNames[0];
+    }
+
+    static final class ServerName {
+        final String value;
+        final String lowerCaseValue;
+        /**
+         * 不含scheme的host[:port]
+         */
+        final String authority;
+        final boolean containsScheme;
+        final boolean containsPort;
+
+        ServerName(String value) {
+            this.value = value;
+            this.lowerCaseValue = value.toLowerCase(Locale.ROOT);
+            this.containsScheme = value.startsWith(HTTPS) || value.startsWith(HTTP);
+            int schemeIndex = value.indexOf(':');
+            int portIndex = value.lastIndexOf(':');
+            this.containsPort = this.containsScheme ? schemeIndex != portIndex : value.contains(":");
+            String authority = this.lowerCaseValue;
+            if (this.containsScheme) {
+                authority = authority.substring(authority.indexOf("://") + 3);
+            }
+            int slash = authority.indexOf('/');
+            this.authority = slash == -1 ? authority : authority.substring(0, slash);
+        }
+    }
+}
@@ -5,17 +5,19 @@
 
 package com.github.wpyuan.casclienthelper.utill;
 
+import com.github.wpyuan.casclienthelper.cache.LocalCache;
+import com.github.wpyuan.casclienthelper.http.CasHttpTransport;
+import com.github.wpyuan.casclienthelper.http.PooledHttpURLConnectionTransport;
+import com.github.wpyuan.casclienthelper.url.PercentEncoder;
+import com.github.wpyuan.casclienthelper.url.QueryStrings;
+import com.github.wpyuan.casclienthelper.url.RedirectUrlTemplate;
 import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
-import java.net.HttpURLConnection;
 import java.net.URL;
-import java.net.URLEncoder;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
@@ -33,7 +35,16 @@ public final class CommonUtils {
     private static final Logger LOGGER = LoggerFactory.getLogger(CommonUtils.class);
     private static final String PARAM_PROXY_GRANTING_TICKET_IOU = "pgtIou";
     private static final String PARAM_PROXY_GRANTING_TICKET = "pgtId";
+    private static final List<String> RESTRICTED_PARAMETERS = Collections.singletonList("logoutRequest");
     private static final HttpURLConnectionFactory DEFAULT_URL_CONNECTION_FACTORY = new HttpsURLConnectionFactory();
+    private static final int DEFAULT_CONNECT_TIMEOUT = 5000;
+    private static final int DEFAULT_READ_TIMEOUT = 10000;
+    private static final long DEFAULT_TOTAL_TIMEOUT = 15000L;
+    private static final long DEFAULT_MAX_RESPONSE_SIZE = 1024L * 1024L;
+    private static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 20;
+    private static final CasHttpTransport DEFAULT_TRANSPORT = new PooledHttpURLConnectionTransport(DEFAULT_URL_CONNECTION_FACTORY,
+            DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT, DEFAULT_TOTAL_TIMEOUT, DEFAULT_MAX_RESPONSE_SIZE, DEFAULT_MAX_CONNECTIONS_PER_HOST);
+    private static final LocalCache<HttpURLConnectionFactory, CasHttpTransport> FACTORY_TRANSPORTS = new LocalCache<>(64, 0);
 
     private CommonUtils() {
     }
@@ -80,16 +91,11 @@ public final class CommonUtils {
     }
 
     public static String constructRedirectUrl(String casServerLoginUrl, String serviceParameterName, String serviceUrl, boolean renew, boolean gateway) {
-        return casServerLoginUrl + (casServerLoginUrl.contains("?") ? "&" : "?") + serviceParameterName + "=" + urlEncode(serviceUrl) + (renew ? "&renew=true" : "") + (gateway ? "&gateway=true" : "");
+        return new RedirectUrlTemplate(casServerLoginUrl, serviceParameterName, renew, gateway).render(serviceUrl);
     }
 
     public static String urlEncode(String value) {
-        try {
-            return URLEncoder.encode(value, "UTF-8");
-        } catch (UnsupportedEncodingException var2) {
-            UnsupportedEncodingException e = var2;
-            throw new RuntimeException(e);
-        }
+        return PercentEncoder.encode(value);
     }
 
     public static void readAndRespondToProxyReceptorRequest(HttpServletRequest request, HttpServletResponse response, ProxyGrantingTicketStorage proxyGrantingTicketStorage) throws IOException {
@@ -112,7 +118,7 @@ public final class CommonUtils {
             String host = request.getHeader("Host");
             String xHost = request.getHeader("X-Forwarded-Host");
             String comparisonHost;
-            if (xHost != null && host == "localhost") {
+            if (xHost != null && "localhost".equals(host)) {
                 comparisonHost = xHost;
             } else {
                 comparisonHost = host;
@@ -157,93 +163,34 @@ public final class CommonUtils {
     public static String constructServiceUrl(HttpServletRequest request, HttpServletResponse response, String service, String serverNames, String artifactParameterName, boolean appendPort, boolean encode) {
         if (isNotBlank(service)) {
             return encode ? response.encodeURL(service) : service;
-        } else {
-            StringBuilder buffer = new StringBuilder();
-            String serverName = findMatchingServerName(request, serverNames);
-            boolean containsScheme = true;
-            if (!serverName.startsWith("https://") && !serverName.startsWith("http://")) {
-                buffer.append(request.isSecure() ? "https://" : "http://");
-                containsScheme = false;
-            }
-
-            buffer.append(serverName);
-            if (appendPort && !serverNameContainsPort(containsScheme, serverName) && !requestIsOnStandardPort(request)) {
-                buffer.append(":");
-                buffer.append(request.getServerPort());
-            }
-
-            buffer.append(request.getRequestURI());
-            if (isNotBlank(request.getQueryString())) {
-                int location = request.getQueryString().indexOf(artifactParameterName + "=");
-                if (location == 0) {
-                    String returnValue = encode ? response.encodeURL(buffer.toString()) : buffer.toString();
-                    LOGGER.debug("serviceUrl generated: {}", returnValue);
-                    return returnValue;
-                }
+        }
+        String serverName = findMatchingServerName(request, serverNames);
+        String queryString = request.getQueryString();
+        StringBuilder buffer = new StringBuilder(serverName.length() + request.getRequestURI().length() + (queryString == null ? 0 : queryString.length()) + 16);
+        boolean containsScheme = true;
+        if (!serverName.startsWith("https://") && !serverName.startsWith("http://")) {
+            buffer.append(request.isSecure() ? "https://" : "http://");
+            containsScheme = false;
+        }
 
-                buffer.append("?");
-                if (location == -1) {
-                    buffer.append(request.getQueryString());
-                } else if (location > 0) {
-                    int actualLocation = request.getQueryString().indexOf("&" + artifactParameterName + "=");
-                    if (actualLocation == -1) {
-                        buffer.append(request.getQueryString());
-                    } else if (actualLocation > 0) {
-                        buffer.append(request.getQueryString().substring(0, actualLocation));
-                    }
-                }
-            }
+        buffer.append(serverName);
+        if (appendPort && !serverNameContainsPort(containsScheme, serverName) && !requestIsOnStandardPort(request)) {
+            buffer.append(':');
+            buffer.append(request.getServerPort());
+        }
 
-            String returnValue = encode ? response.encodeURL(buffer.toString()) : buffer.toString();
-            LOGGER.debug("serviceUrl generated: {}", returnValue);
-            return returnValue;
+        buffer.append(request.getRequestURI());
+        if (isNotBlank(queryString)) {
+            QueryStrings.appendWithout(buffer, queryString, artifactParameterName);
         }
+
+        String returnValue = encode ? response.encodeURL(buffer.toString()) : buffer.toString();
+        LOGGER.debug("serviceUrl generated: {}", returnValue);
+        return returnValue;
     }
 
     public static String constructServiceUrl(HttpServletRequest request, HttpServletResponse response, String service, String serverNames, String artifactParameterName, boolean encode) {
-        if (isNotBlank(service)) {
-            return encode ? response.encodeURL(service) : service;
-        } else {
-            StringBuilder buffer = new StringBuilder();
-            String serverName = findMatchingServerName(request, serverNames);
-            boolean containsScheme = true;
-            if (!serverName.startsWith("https://") && !serverName.startsWith("http://")) {
-                buffer.append(request.isSecure() ? "https://" : "http://");
-                containsScheme = false;
-            }
-
-            buffer.append(serverName);
-            if (!serverNameContainsPort(containsScheme, serverName) && !requestIsOnStandardPort(request)) {
-                buffer.append(":");
-                buffer.append(request.getServerPort());
-            }
-
-            buffer.append(request.getRequestURI());
-            if (isNotBlank(request.getQueryString())) {
-                int location = request.getQueryString().indexOf(artifactParameterName + "=");
-                if (location == 0) {
-                    String returnValue = encode ? response.encodeURL(buffer.toString()) : buffer.toString();
-                    LOGGER.debug("serviceUrl generated: {}", returnValue);
-                    return returnValue;
-                }
-
-                buffer.append("?");
-                if (location == -1) {
-                    buffer.append(request.getQueryString());
-                } else if (location > 0) {
-                    int actualLocation = request.getQueryString().indexOf("&" + artifactParameterName + "=");
-                    if (actualLocation == -1) {
-                        buffer.append(request.getQueryString());
-                    } else if (actualLocation > 0) {
-                        buffer.append(request.getQueryString().substring(0, actualLocation));
-                    }
-                }
-            }
-
-            String returnValue = encode ? response.encodeURL(buffer.toString()) : buffer.toString();
-            LOGGER.debug("serviceUrl generated: {}", returnValue);
-            return returnValue;
-        }
+        return constructServiceUrl(request, response, service, serverNames, artifactParameterName, true, encode);
     }
 
     public static String safeGetParameter(HttpServletRequest request, String parameter, List<String> parameters) {
@@ -251,12 +198,12 @@ public final class CommonUtils {
             LOGGER.debug("safeGetParameter called on a POST HttpServletRequest for Restricted Parameters.  Cannot complete check safely.  Reverting to standard behavior for this Parameter");
             return request.getParameter(parameter);
         } else {
-            return request.getQueryString() != null && request.getQueryString().contains(parameter) ? request.getParameter(parameter) : null;
+            return QueryStrings.getParameter(request.getQueryString(), parameter);
         }
     }
 
     public static String safeGetParameter(HttpServletRequest request, String parameter) {
-        return safeGetParameter(request, parameter, Arrays.asList("logoutRequest"));
+        return safeGetParameter(request, parameter, RESTRICTED_PARAMETERS);
     }
 
     /** @deprecated */
@@ -277,36 +224,32 @@ public final class CommonUtils {
     }
 
     public static String getResponseFromServer(URL constructedUrl, HttpURLConnectionFactory factory, String encoding) {
-        HttpURLConnection conn = null;
-        InputStreamReader in = null;
-
-        try {
-            conn = factory.buildHttpURLConnection(constructedUrl.openConnection());
-            if (isEmpty(encoding)) {
-                in = new InputStreamReader(conn.getInputStream());
-            } else {
-                in = new InputStreamReader(conn.getInputStream(), encoding);
-            }
-
-            StringBuilder builder = new StringBuilder(255);
+        return getResponseFromServer(constructedUrl, transportFor(factory), encoding);
+    }
 
-            int byteRead;
-            while((byteRead = in.read()) != -1) {
-                builder.append((char)byteRead);
+    private static CasHttpTransport transportFor(HttpURLConnectionFactory factory) {
+        if (factory == null || factory == DEFAULT_URL_CONNECTION_FACTORY) {
+            return DEFAULT_TRANSPORT;
+        }
+        CasHttpTransport transport = FACTORY_TRANSPORTS.get(factory);
+        if (transport == null) {
+            transport = new PooledHttpURLConnectionTransport(factory, DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT,
+                    DEFAULT_TOTAL_TIMEOUT, DEFAULT_MAX_RESPONSE_SIZE, DEFAULT_MAX_CONNECTIONS_PER_HOST);
+            CasHttpTransport existing = FACTORY_TRANSPORTS.putIfAbsent(factory, transport);
+            if (existing != null) {
+                transport = existing;
             }
+        }
+        return transport;
+    }
 
-            String var7 = builder.toString();
-            return var7;
-        } catch (Exception var11) {
-            Exception e = var11;
+    public static String getResponseFromServer(URL constructedUrl, CasHttpTransport transport, String encoding) {
+        try {
+            return transport.getResponse(constructedUrl, encoding);
+        } catch (Exception var4) {
+            Exception e = var4;
             LOGGER.error(e.getMessage(), e);
             throw new RuntimeException(e);
-        } finally {
-            closeQuietly(in);
-            if (conn != null) {
-                conn.disconnect();
-            }
-
         }
     }
 
@@ -0,0 +1,265 @@
+package com.github.wpyuan.casclienthelper.validation;
+
+import com.github.wpyuan.casclienthelper.cache.LocalCache;
+import com.github.wpyuan.casclienthelper.concurrent.CasClientExecutors;
+import com.github.wpyuan.casclienthelper.resilience.CasServerGuard;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.jasig.cas.client.authentication.AttributePrincipal;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.AssertionImpl;
+import org.jasig.cas.client.validation.TicketValidationException;
+import org.jasig.cas.client.validation.TicketValidator;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * assertion后台刷新：assertion即将过期时，用校验时取得的PGT为当前服务申请PT并重新校验，得到有效期延长的assertion。
+ * 刷新在后台线程中进行，结果暂存在这里，由该用户的下一个请求取走写回assertion存储（后台线程不访问请求对象）
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 23:50
+ */
+@Slf4j
+public class AssertionRefresher {
+
+    /**
+     * 默认最多暂存的刷新结果数
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    /**
+     * 同一assertion两次刷新尝试的最小间隔（毫秒）
+     */
+    public static final long DEFAULT_RETRY_MILLIS = 30 * 1000L;
+
+    private final LocalCache<Key, Assertion> refreshed;
+    /**
+     * 进行中或近期已尝试的刷新，避免同一用户的并发请求重复刷新，失败后也不会每个请求都重试
+     */
+    private final LocalCache<Key, Boolean> attempts;
+    private final ReentrantLock executorLock = new ReentrantLock();
+    private volatile ExecutorService executor;
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public AssertionRefresher() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_RETRY_MILLIS);
+    }
+
+    /**
+     * @param maximumSize 最多暂存的刷新结果数
+     * @param retryMillis 同一assertion两次刷新尝试的最小间隔（毫秒）
+     */
+    public AssertionRefresher(int maximumSize, long retryMillis) {
+        this.refreshed = new LocalCache<>(maximumSize, 0);
+        this.attempts = new LocalCache<>(maximumSize, retryMillis);
+    }
+
+    /**
+     * 取走该assertion已完成的刷新结果
+     *
+     * @param assertion 当前assertion
+     * @return 刷新后的assertion，没有返回null
+     */
+    public Assertion take(Assertion assertion) {
+        return this.refreshed.invalidate(Key.of(assertion));
+    }
+
+    /**
+     * 在后台刷新assertion，同一assertion进行中或近期已尝试过时直接返回
+     *
+     * @param guard      cas服务端访问保护
+     * @param validator  proxy ticket校验器，见{@link TicketValidatorRegistry#getRefreshValidator}
+     * @param assertion  即将过期的assertion
+     * @param serviceUrl 申请PT的目标服务，即当前服务
+     */
+    public void refresh(CasServerGuard guard, TicketValidator validator, Assertion assertion, String serviceUrl) {
+        final Key key = Key.of(assertion);
+        if (this.attempts.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            this.getExecutor().execute(() -> this.doRefresh(key, guard, validator, assertion, serviceUrl));
+        } catch (RejectedExecutionException e) {
+            // 刷新只是优化，线程池满时放弃，下个请求再试
+            this.attempts.invalidate(key);
+            this.rejectedCount.increment();
+        }
+    }
+
+    private void doRefresh(Key key, CasServerGuard guard, TicketValidator validator, Assertion assertion, String serviceUrl) {
+        final AttributePrincipal principal = assertion.getPrincipal();
+        try {
+            final String proxyTicket = principal.getProxyTicketFor(serviceUrl);
+            if (proxyTicket == null) {
+                log.debug("no proxy ticket for {}, assertion of {} can not be refreshed", serviceUrl, principal.getName());
+                this.failureCount.increment();
+                return;
+            }
+            final Assertion validated = guard.validate(validator, proxyTicket, serviceUrl);
+            if (!principal.getName().equals(validated.getPrincipal().getName())) {
+                log.warn("refreshed assertion belongs to {} instead of {}, discarded", validated.getPrincipal().getName(), principal.getName());
+                this.failureCount.increment();
+                return;
+            }
+            final long ttl = assertion.getValidUntilDate().getTime() - System.currentTimeMillis();
+            if (ttl > 0) {
+                this.refreshed.put(key, new AssertionImpl(new RefreshedPrincipal(validated.getPrincipal(), principal),
+                        validated.getValidFromDate(), validated.getValidUntilDate(), assertion.getAuthenticationDate(),
+                        validated.getAttributes()), ttl);
+            }
+            this.refreshCount.increment();
+            log.debug("refreshed assertion of {}", principal.getName());
+        } catch (TicketValidationException | RuntimeException e) {
+            log.debug("failed to refresh assertion of {}", principal.getName(), e);
+            this.failureCount.increment();
+        }
+    }
+
+    /**
+     * 按最长有效期截短assertion的validUntilDate
+     *
+     * @param assertion 校验通过的assertion
+     * @param maxAge    最长有效期（毫秒），小于等于0表示不限制
+     * @return 有效期不超过maxAge的assertion
+     */
+    public static Assertion limitLifetime(Assertion assertion, long maxAge) {
+        if (maxAge <= 0) {
+            return assertion;
+        }
+        final Date validFrom = assertion.getValidFromDate() != null ? assertion.getValidFromDate() : new Date();
+        final long limit = validFrom.getTime() + maxAge;
+        if (assertion.getValidUntilDate() != null && assertion.getValidUntilDate().getTime() <= limit) {
+            return assertion;
+        }
+        return new AssertionImpl(assertion.getPrincipal(), validFrom, new Date(limit),
+                assertion.getAuthenticationDate() != null ? assertion.getAuthenticationDate() : validFrom, assertion.getAttributes());
+    }
+
+    /**
+     * @return 成功刷新的次数
+     */
+    public long getRefreshCount() {
+        return this.refreshCount.sum();
+    }
+
+    /**
+     * @return 刷新失败（无PGT、PT申请或校验失败）的次数
+     */
+    public long getFailureCount() {
+        return this.failureCount.sum();
+    }
+
+    /**
+     * @return 线程池已满而放弃刷新的次数
+     */
+    public long getRejectedCount() {
+        return this.rejectedCount.sum();
+    }
+
+    /**
+     * 关闭刷新线程池，再次使用时重新创建
+     */
+    public void close() {
+        this.executorLock.lock();
+        try {
+            if (this.executor != null) {
+                this.executor.shutdown();
+                this.executor = null;
+            }
+        } finally {
+            this.executorLock.unlock();
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        ExecutorService executor = this.executor;
+        if (executor == null) {
+            this.executorLock.lock();
+            try {
+                executor = this.executor;
+                if (executor == null) {
+                    executor = CasClientExecutors.newBoundedExecutor("cas-assertion-refresh", 2, 256, new ThreadPoolExecutor.AbortPolicy());
+                    this.executor = executor;
+                }
+            } finally {
+                this.executorLock.unlock();
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 同一次认证的assertion：session存储反序列化、cookie存储每次解码都会得到新实例，不能按引用比较
+     */
+    @Value
+    private static class Key {
+        String name;
+        long validFrom;
+        long validUntil;
+
+        static Key of(Assertion assertion) {
+            return new Key(assertion.getPrincipal().getName(),
+                    assertion.getValidFromDate() != null ? assertion.getValidFromDate().getTime() : 0L,
+                    assertion.getValidUntilDate() != null ? assertion.getValidUntilDate().getTime() : 0L);
+        }
+    }
+
+    /**
+     * 刷新后的principal：用户名、属性取自新的校验结果，申请PT仍使用最初校验时取得的PGT
+     */
+    private static final class RefreshedPrincipal implements AttributePrincipal {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final Map<String, Object> attributes;
+        private final AttributePrincipal origin;
+
+        private RefreshedPrincipal(AttributePrincipal validated, AttributePrincipal previous) {
+            this.name = validated.getName();
+            this.attributes = validated.getAttributes();
+            this.origin = previous instanceof RefreshedPrincipal ? ((RefreshedPrincipal) previous).origin : previous;
+        }
+
+        @Override
+        public String getProxyTicketFor(String service) {
+            return this.origin.getProxyTicketFor(service);
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return this.attributes;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof AttributePrincipal && this.name.equals(((AttributePrincipal) o).getName());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.name.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.wpyuan.casclienthelper.validation;
+
+import org.jasig.cas.client.validation.Cas20ProxyTicketValidator;
+
+/**
+ * <p>
+ * CAS 3.0 proxy ticket校验，响应格式与2.0一致，额外携带用户属性
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 10:35
+ */
+public class Cas30ProxyTicketValidator extends Cas20ProxyTicketValidator {
+
+    public Cas30ProxyTicketValidator(String casServerUrlPrefix) {
+        super(casServerUrlPrefix);
+    }
+
+    @Override
+    protected String getUrlSuffix() {
+        return "p3/proxyValidate";
+    }
+}
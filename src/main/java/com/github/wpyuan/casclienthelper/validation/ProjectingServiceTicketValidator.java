@@ -0,0 +1,41 @@
+package com.github.wpyuan.casclienthelper.validation;
+
+import com.github.wpyuan.casclienthelper.attribute.AttributeProjector;
+import org.jasig.cas.client.validation.Cas20ServiceTicketValidator;
+
+import java.util.Map;
+
+/**
+ * <p>
+ * 解析出属性后立即按{@link AttributeProjector}处理的service ticket校验器，适用于CAS 2.0/3.0
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 23:05
+ */
+public class ProjectingServiceTicketValidator extends Cas20ServiceTicketValidator {
+
+    private final String urlSuffix;
+    private final AttributeProjector projector;
+
+    /**
+     * @param casServerUrlPrefix cas服务地址前缀
+     * @param urlSuffix          校验地址后缀，如serviceValidate、p3/serviceValidate
+     * @param projector          属性处理
+     */
+    public ProjectingServiceTicketValidator(String casServerUrlPrefix, String urlSuffix, AttributeProjector projector) {
+        super(casServerUrlPrefix);
+        this.urlSuffix = urlSuffix;
+        this.projector = projector;
+    }
+
+    @Override
+    protected String getUrlSuffix() {
+        return this.urlSuffix;
+    }
+
+    @Override
+    protected Map<String, Object> extractCustomAttributes(String xml) {
+        return this.projector.project(super.extractCustomAttributes(xml));
+    }
+}
@@ -0,0 +1,350 @@
+package com.github.wpyuan.casclienthelper.validation;
+
+import com.github.wpyuan.casclienthelper.attribute.AttributeProjector;
+import com.github.wpyuan.casclienthelper.http.CasHttpTransport;
+import com.github.wpyuan.casclienthelper.utill.CommonUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.jasig.cas.client.authentication.AttributePrincipalImpl;
+import org.jasig.cas.client.proxy.ProxyGrantingTicketStorage;
+import org.jasig.cas.client.proxy.ProxyRetriever;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.AssertionImpl;
+import org.jasig.cas.client.validation.InvalidProxyChainTicketValidationException;
+import org.jasig.cas.client.validation.ProxyList;
+import org.jasig.cas.client.validation.TicketValidationException;
+import org.jasig.cas.client.validation.TicketValidator;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * 流式解析的CAS 2.0/3.0票据校验器：用StAX直接从连接的输入流解析serviceResponse，不把响应缓冲成字符串，也不构建DOM，
+ * 只提取用户名、代理链、PGT IOU以及白名单中的属性（见{@link AttributeProjector}）。响应体大小由{@link CasHttpTransport}限制
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 22:30
+ */
+@Slf4j
+public class StreamingCasTicketValidator implements TicketValidator {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private final String casServerUrlPrefix;
+    private final ValidationProtocol protocol;
+    private final CasHttpTransport transport;
+    private boolean renew;
+    private String encoding;
+    private boolean acceptAnyProxy;
+    private ProxyList allowedProxyChains = new ProxyList();
+    private String proxyCallbackUrl;
+    private ProxyGrantingTicketStorage proxyGrantingTicketStorage;
+    private ProxyRetriever proxyRetriever;
+    private AttributeProjector attributeProjector = AttributeProjector.IDENTITY;
+
+    /**
+     * @param casServerUrlPrefix cas服务地址前缀
+     * @param protocol           CAS20、CAS20_PROXY、CAS30或CAS30_PROXY
+     * @param transport          http传输
+     */
+    public StreamingCasTicketValidator(String casServerUrlPrefix, ValidationProtocol protocol, CasHttpTransport transport) {
+        CommonUtils.assertNotNull(casServerUrlPrefix, "casServerUrlPrefix cannot be null.");
+        CommonUtils.assertTrue(supports(protocol), "unsupported protocol for streaming validation: " + protocol);
+        this.casServerUrlPrefix = casServerUrlPrefix;
+        this.protocol = protocol;
+        this.transport = transport;
+    }
+
+    /**
+     * @return 是否支持以流式解析校验该协议
+     */
+    public static boolean supports(ValidationProtocol protocol) {
+        return protocol == ValidationProtocol.CAS20 || protocol == ValidationProtocol.CAS20_PROXY
+                || protocol == ValidationProtocol.CAS30 || protocol == ValidationProtocol.CAS30_PROXY;
+    }
+
+    @Override
+    public Assertion validate(String ticket, String service) throws TicketValidationException {
+        final URL url;
+        try {
+            url = new URL(this.constructValidationUrl(ticket, service));
+        } catch (IOException e) {
+            throw new TicketValidationException(e);
+        }
+        log.debug("Constructed validation url: {}", url);
+        final ServiceResponse response;
+        try {
+            response = this.transport.execute(url, this::parse);
+        } catch (IOException e) {
+            throw new TicketValidationException(e);
+        }
+        if (response.parseError != null) {
+            throw new TicketValidationException("failed to parse cas validation response", response.parseError);
+        }
+        if (response.failure != null) {
+            throw new TicketValidationException(response.failure);
+        }
+        if (CommonUtils.isEmpty(response.user)) {
+            throw new TicketValidationException("No principal was found in the response from the CAS server.");
+        }
+        this.checkProxyChain(response.proxies);
+
+        String proxyGrantingTicket = null;
+        if (CommonUtils.isNotBlank(response.proxyGrantingTicketIou) && this.proxyGrantingTicketStorage != null) {
+            proxyGrantingTicket = this.proxyGrantingTicketStorage.retrieve(response.proxyGrantingTicketIou);
+        }
+        final Map<String, Object> attributes = this.attributeProjector.project(response.attributes);
+        final AttributePrincipalImpl principal = proxyGrantingTicket != null
+                ? new AttributePrincipalImpl(response.user, attributes, proxyGrantingTicket, this.proxyRetriever)
+                : new AttributePrincipalImpl(response.user, attributes);
+        return new AssertionImpl(principal);
+    }
+
+    private void checkProxyChain(List<String> proxies) throws TicketValidationException {
+        if (proxies.isEmpty() || this.acceptAnyProxy
+                || this.protocol == ValidationProtocol.CAS20 || this.protocol == ValidationProtocol.CAS30) {
+            return;
+        }
+        if (!this.allowedProxyChains.contains(proxies.toArray(new String[0]))) {
+            log.warn("Proxy list {} not allowed", proxies);
+            throw new InvalidProxyChainTicketValidationException("Invalid proxy chain: " + proxies);
+        }
+    }
+
+    private String constructValidationUrl(String ticket, String service) {
+        final StringBuilder url = new StringBuilder(this.casServerUrlPrefix.length() + 128);
+        url.append(this.casServerUrlPrefix);
+        if (!this.casServerUrlPrefix.endsWith("/")) {
+            url.append('/');
+        }
+        url.append(this.urlSuffix());
+        url.append("?ticket=").append(CommonUtils.urlEncode(ticket));
+        url.append("&service=").append(CommonUtils.urlEncode(service));
+        if (this.renew) {
+            url.append("&renew=true");
+        }
+        if (this.proxyCallbackUrl != null) {
+            url.append("&pgtUrl=").append(CommonUtils.urlEncode(this.proxyCallbackUrl));
+        }
+        return url.toString();
+    }
+
+    private String urlSuffix() {
+        switch (this.protocol) {
+            case CAS20:
+                return "serviceValidate";
+            case CAS30:
+                return "p3/serviceValidate";
+            case CAS30_PROXY:
+                return "p3/proxyValidate";
+            case CAS20_PROXY:
+            default:
+                return "proxyValidate";
+        }
+    }
+
+    private ServiceResponse parse(InputStream body) throws IOException {
+        final ServiceResponse response = new ServiceResponse();
+        XMLStreamReader reader = null;
+        try {
+            reader = this.encoding != null
+                    ? XML_INPUT_FACTORY.createXMLStreamReader(body, this.encoding)
+                    : XML_INPUT_FACTORY.createXMLStreamReader(body);
+            // -1表示不在对应元素内
+            int successDepth = -1;
+            int proxiesDepth = -1;
+            int attributesDepth = -1;
+            int depth = 0;
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                    if (depth <= attributesDepth) {
+                        attributesDepth = -1;
+                    }
+                    if (depth <= proxiesDepth) {
+                        proxiesDepth = -1;
+                    }
+                    if (depth <= successDepth) {
+                        successDepth = -1;
+                    }
+                    continue;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                final String name = reader.getLocalName();
+                if (attributesDepth >= 0 && depth == attributesDepth + 1) {
+                    // 属性值元素，读取（或跳过）后已消费结束标签，深度不变
+                    if (this.attributeProjector.isAllowed(name)) {
+                        addAttribute(response.attributes, name, readText(reader));
+                    } else {
+                        skipElement(reader);
+                    }
+                    continue;
+                }
+                if ("authenticationFailure".equals(name)) {
+                    // 与Cas20ServiceTicketValidator一致，异常信息只取文本
+                    response.failure = readText(reader);
+                    continue;
+                }
+                if (successDepth >= 0) {
+                    if (depth == successDepth + 1 && "user".equals(name)) {
+                        response.user = readText(reader);
+                        continue;
+                    }
+                    if (depth == successDepth + 1 && "proxyGrantingTicket".equals(name)) {
+                        response.proxyGrantingTicketIou = readText(reader);
+                        continue;
+                    }
+                    if (proxiesDepth >= 0 && depth == proxiesDepth + 1 && "proxy".equals(name)) {
+                        response.proxies.add(readText(reader));
+                        continue;
+                    }
+                }
+                depth++;
+                if ("authenticationSuccess".equals(name)) {
+                    successDepth = depth - 1;
+                } else if (successDepth >= 0 && "proxies".equals(name)) {
+                    proxiesDepth = depth - 1;
+                } else if (successDepth >= 0 && "attributes".equals(name)) {
+                    attributesDepth = depth - 1;
+                }
+            }
+        } catch (XMLStreamException e) {
+            response.parseError = e;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    log.debug("failed to close xml reader", e);
+                }
+            }
+        }
+        return response;
+    }
+
+    /**
+     * 读取当前元素的文本直到其结束标签，忽略嵌套元素
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = null;
+        String single = null;
+        int level = 1;
+        while (level > 0) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                level++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                level--;
+            } else if (level == 1 && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+                final String chunk = reader.getText();
+                if (single == null) {
+                    single = chunk;
+                } else {
+                    if (text == null) {
+                        text = new StringBuilder(single);
+                    }
+                    text.append(chunk);
+                }
+            }
+        }
+        final String value = text != null ? text.toString() : single;
+        return value == null ? "" : value.trim();
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int level = 1;
+        while (level > 0) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                level++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                level--;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addAttribute(Map<String, Object> attributes, String name, String value) {
+        final Object existing = attributes.get(name);
+        if (existing == null) {
+            attributes.put(name, value);
+        } else if (existing instanceof List) {
+            ((List<Object>) existing).add(value);
+        } else {
+            final List<Object> values = new ArrayList<>(4);
+            values.add(existing);
+            values.add(value);
+            attributes.put(name, values);
+        }
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        // cas响应不需要DTD，禁用以防XXE
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    public void setRenew(boolean renew) {
+        this.renew = renew;
+    }
+
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    public void setAcceptAnyProxy(boolean acceptAnyProxy) {
+        this.acceptAnyProxy = acceptAnyProxy;
+    }
+
+    public void setAllowedProxyChains(ProxyList allowedProxyChains) {
+        this.allowedProxyChains = allowedProxyChains != null ? allowedProxyChains : new ProxyList();
+    }
+
+    public void setProxyCallbackUrl(String proxyCallbackUrl) {
+        this.proxyCallbackUrl = proxyCallbackUrl;
+    }
+
+    public void setProxyGrantingTicketStorage(ProxyGrantingTicketStorage proxyGrantingTicketStorage) {
+        this.proxyGrantingTicketStorage = proxyGrantingTicketStorage;
+    }
+
+    public void setProxyRetriever(ProxyRetriever proxyRetriever) {
+        this.proxyRetriever = proxyRetriever;
+    }
+
+    /**
+     * @param attributeProjector 属性白名单、重命名及去重
+     */
+    public void setAttributeProjector(AttributeProjector attributeProjector) {
+        this.attributeProjector = attributeProjector != null ? attributeProjector : AttributeProjector.IDENTITY;
+    }
+
+    /**
+     * 解析结果
+     */
+    private static final class ServiceResponse {
+        private String user;
+        private String proxyGrantingTicketIou;
+        private final List<String> proxies = new ArrayList<>(2);
+        private final Map<String, Object> attributes = new LinkedHashMap<>();
+        private String failure;
+        private XMLStreamException parseError;
+    }
+}
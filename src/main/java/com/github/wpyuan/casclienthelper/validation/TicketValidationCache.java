@@ -0,0 +1,225 @@
+package com.github.wpyuan.casclienthelper.validation;
+
+import com.github.wpyuan.casclienthelper.cache.LocalCache;
+import com.github.wpyuan.casclienthelper.resilience.CasServerUnavailableException;
+import com.github.wpyuan.casclienthelper.store.AssertionStore;
+import lombok.Value;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.TicketValidationException;
+import org.jasig.cas.client.validation.TicketValidator;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * 票据校验结果短期缓存。登录跳转回来时，浏览器的预取、静态资源等并发请求往往携带同一个ticket，
+ * 同一(ticket, service)的并发校验合并为一次cas服务端调用，结果（成功的{@link Assertion}或校验异常）在ttl内共享
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 13:10
+ */
+public class TicketValidationCache {
+
+    /**
+     * 默认最多缓存的校验结果数
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    /**
+     * 保留成功结果供cas服务端不可用时使用的最长时间（毫秒），与cas服务端service ticket的默认有效期一致，
+     * 不让ticket在其本身过期后仍能换取登录。assertion的validUntilDate更早时以其为准
+     */
+    public static final long DEFAULT_RETAIN_MILLIS = 10 * 1000L;
+
+    private final LocalCache<Key, Outcome> results;
+    private final LocalCache<Key, Assertion> retained;
+    private final ConcurrentHashMap<Key, CompletableFuture<Outcome>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    public TicketValidationCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public TicketValidationCache(int maximumSize) {
+        this.results = new LocalCache<>(maximumSize, 0);
+        this.retained = new LocalCache<>(maximumSize, DEFAULT_RETAIN_MILLIS);
+    }
+
+    /**
+     * 校验票据，优先使用缓存结果，并发的相同校验只调用一次cas服务端，合并的请求不限制等待时间
+     *
+     * @see #validate(TicketValidator, String, String, long, long)
+     */
+    public Assertion validate(TicketValidator validator, String ticket, String service, long ttlMillis) throws TicketValidationException {
+        return this.validate(validator, ticket, service, ttlMillis, 0L);
+    }
+
+    /**
+     * 校验票据，优先使用缓存结果，并发的相同校验只调用一次cas服务端
+     *
+     * @param validator         票据校验器
+     * @param ticket            票据
+     * @param service           service url
+     * @param ttlMillis         结果缓存时间（毫秒），小于等于0时不缓存也不合并，直接校验
+     * @param waitTimeoutMillis 合并到进行中校验的请求最长等待时间（毫秒），超时按cas服务端不可用处理，小于等于0表示不限制
+     * @return 校验通过的assertion
+     * @throws TicketValidationException 校验失败
+     */
+    public Assertion validate(TicketValidator validator, String ticket, String service, long ttlMillis, long waitTimeoutMillis)
+            throws TicketValidationException {
+        if (ttlMillis <= 0) {
+            return validator.validate(ticket, service);
+        }
+        final Key key = new Key(ticket, service);
+        final Outcome cached = this.results.get(key);
+        if (cached != null) {
+            this.hitCount.increment();
+            return cached.get();
+        }
+        final CompletableFuture<Outcome> future = new CompletableFuture<>();
+        final CompletableFuture<Outcome> existing = this.inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            this.coalescedCount.increment();
+            return await(existing, waitTimeoutMillis).get();
+        }
+        this.missCount.increment();
+        final Outcome outcome;
+        try {
+            outcome = Outcome.of(validator, ticket, service);
+        } catch (Throwable e) {
+            // 包括Error，否则合并的请求及之后同一ticket的请求都会一直等待
+            this.inFlight.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        if (!(outcome.exception instanceof CasServerUnavailableException)) {
+            // 熔断拒绝不是校验结论，不缓存
+            this.results.put(key, outcome, ttlMillis);
+        }
+        this.inFlight.remove(key, future);
+        future.complete(outcome);
+        return outcome.get();
+    }
+
+    /**
+     * 保留校验成功的结果，cas服务端不可用时可由{@link #getRetained(String, String)}取回
+     */
+    public void retain(String ticket, String service, Assertion assertion) {
+        long ttl = DEFAULT_RETAIN_MILLIS;
+        if (assertion.getValidUntilDate() != null) {
+            ttl = Math.min(ttl, assertion.getValidUntilDate().getTime() - System.currentTimeMillis());
+        }
+        if (ttl > 0) {
+            this.retained.put(new Key(ticket, service), assertion, ttl);
+        }
+    }
+
+    /**
+     * 取出并移除保留的校验结果。service ticket只能使用一次，保留的结果同样只能取用一次，
+     * 避免cas服务端不可用期间泄露的ticket被反复重放
+     *
+     * @return 此前保留且仍在有效期内的校验结果，不存在返回null
+     */
+    public Assertion getRetained(String ticket, String service) {
+        Assertion assertion = this.retained.invalidate(new Key(ticket, service));
+        return assertion == null || AssertionStore.isExpired(assertion, System.currentTimeMillis()) ? null : assertion;
+    }
+
+    /**
+     * 使指定票据的缓存结果失效
+     */
+    public void invalidate(String ticket, String service) {
+        Key key = new Key(ticket, service);
+        this.results.invalidate(key);
+        this.retained.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        this.results.invalidateAll();
+        this.retained.invalidateAll();
+    }
+
+    /**
+     * @return 命中缓存结果的次数
+     */
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    /**
+     * @return 实际调用cas服务端校验的次数
+     */
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    /**
+     * @return 合并到进行中校验的次数
+     */
+    public long getCoalescedCount() {
+        return this.coalescedCount.sum();
+    }
+
+    public int size() {
+        return this.results.size();
+    }
+
+    private static Outcome await(CompletableFuture<Outcome> future, long timeoutMillis) throws CasServerUnavailableException {
+        try {
+            return timeoutMillis > 0 ? future.get(timeoutMillis, TimeUnit.MILLISECONDS) : future.get();
+        } catch (TimeoutException e) {
+            throw new CasServerUnavailableException("timed out after " + timeoutMillis + "ms waiting for concurrent validation of the same ticket");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for ticket validation", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Value
+    private static class Key {
+        String ticket;
+        String service;
+    }
+
+    /**
+     * 校验结果，成功或失败
+     */
+    private static final class Outcome {
+        private final Assertion assertion;
+        private final TicketValidationException exception;
+
+        private Outcome(Assertion assertion, TicketValidationException exception) {
+            this.assertion = assertion;
+            this.exception = exception;
+        }
+
+        private static Outcome of(TicketValidator validator, String ticket, String service) {
+            try {
+                return new Outcome(validator.validate(ticket, service), null);
+            } catch (TicketValidationException e) {
+                return new Outcome(null, e);
+            }
+        }
+
+        private Assertion get() throws TicketValidationException {
+            if (this.exception != null) {
+                throw this.exception;
+            }
+            return this.assertion;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.github.wpyuan.casclienthelper.validation;
+
+import com.github.wpyuan.casclienthelper.attribute.AttributeProjector;
+import com.github.wpyuan.casclienthelper.cache.LocalCache;
+import com.github.wpyuan.casclienthelper.config.DefaultCasClientConfig;
+import com.github.wpyuan.casclienthelper.http.CasHttpTransport;
+import com.github.wpyuan.casclienthelper.http.CasHttpTransports;
+import com.github.wpyuan.casclienthelper.http.TimeoutHttpURLConnectionFactory;
+import com.github.wpyuan.casclienthelper.proxy.ProxyTicketClient;
+import com.github.wpyuan.casclienthelper.resilience.CasServerGuard;
+import com.github.wpyuan.casclienthelper.resilience.CasServerGuards;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.jasig.cas.client.proxy.ProxyGrantingTicketStorage;
+import org.jasig.cas.client.ssl.HttpURLConnectionFactory;
+import org.jasig.cas.client.ssl.HttpsURLConnectionFactory;
+import org.jasig.cas.client.validation.AbstractUrlBasedTicketValidator;
+import org.jasig.cas.client.validation.Cas10TicketValidator;
+import org.jasig.cas.client.validation.Cas20ProxyTicketValidator;
+import org.jasig.cas.client.validation.Cas20ServiceTicketValidator;
+import org.jasig.cas.client.validation.Saml11TicketValidator;
+import org.jasig.cas.client.validation.TicketValidator;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * 票据校验器注册表，按cas服务地址前缀及校验参数缓存校验器，首次使用时才创建，之后的请求复用同一实例
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 10:40
+ */
+@Slf4j
+public class TicketValidatorRegistry {
+
+    /**
+     * 默认最多缓存的校验器数
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 64;
+
+    private final LocalCache<ValidatorKey, TicketValidator> validators;
+
+    public TicketValidatorRegistry() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public TicketValidatorRegistry(int maximumSize) {
+        this.validators = new LocalCache<>(maximumSize, 0);
+    }
+
+    /**
+     * 获取校验器，配置了{@link DefaultCasClientConfig#ticketValidator}则直接使用
+     *
+     * @param config cas配置
+     * @return 票据校验器
+     */
+    public TicketValidator getValidator(DefaultCasClientConfig config) {
+        if (config.getTicketValidator() != null) {
+            return config.getTicketValidator();
+        }
+        ValidationProtocol protocol = config.getValidationProtocol() != null ? config.getValidationProtocol() : ValidationProtocol.CAS20_PROXY;
+        return this.getValidator(this.keyFor(config, protocol, config.isAcceptAnyProxy(), config.getProxyCallbackUrl()));
+    }
+
+    /**
+     * 获取用于刷新assertion的校验器：校验本服务用PGT为自己申请的PT，不再申请新的PGT。
+     * PT是刚刚由本服务申请的，代理链必为本服务的回调地址，因此接受任意代理链
+     *
+     * @param config cas配置
+     * @return proxy ticket校验器，配置了自定义校验器、要求renew或协议不支持代理时返回null
+     */
+    public TicketValidator getRefreshValidator(DefaultCasClientConfig config) {
+        if (config.getTicketValidator() != null || config.isRenew()) {
+            return null;
+        }
+        final ValidationProtocol configured = config.getValidationProtocol() != null ? config.getValidationProtocol() : ValidationProtocol.CAS20_PROXY;
+        final ValidationProtocol protocol;
+        switch (configured) {
+            case CAS20:
+            case CAS20_PROXY:
+                protocol = ValidationProtocol.CAS20_PROXY;
+                break;
+            case CAS30:
+            case CAS30_PROXY:
+                protocol = ValidationProtocol.CAS30_PROXY;
+                break;
+            default:
+                return null;
+        }
+        return this.getValidator(this.keyFor(config, protocol, true, null));
+    }
+
+    private ValidatorKey keyFor(DefaultCasClientConfig config, ValidationProtocol protocol, boolean acceptAnyProxy, String proxyCallbackUrl) {
+        boolean streaming = config.isStreamingValidation() && StreamingCasTicketValidator.supports(protocol);
+        return new ValidatorKey(config.getCasServerUrlPrefix(), protocol, config.isRenew(),
+                config.getEncoding(), acceptAnyProxy, config.getConnectTimeout(), config.getReadTimeout(),
+                proxyCallbackUrl, proxyCallbackUrl != null ? config.getProxyGrantingTicketStorage() : null,
+                streaming || proxyCallbackUrl != null ? CasHttpTransports.forConfig(config) : null,
+                streaming, config.getAttributeWhitelist(), config.getAttributeRenames(), config.isCompactAttributes(),
+                proxyCallbackUrl != null ? CasServerGuards.forConfig(config) : null);
+    }
+
+    private TicketValidator getValidator(ValidatorKey key) {
+        TicketValidator validator = this.validators.get(key);
+        if (validator != null) {
+            return validator;
+        }
+        validator = this.createValidator(key);
+        TicketValidator existing = this.validators.putIfAbsent(key, validator);
+        return existing != null ? existing : validator;
+    }
+
+    /**
+     * 清空已缓存的校验器
+     */
+    public void invalidateAll() {
+        this.validators.invalidateAll();
+    }
+
+    public int size() {
+        return this.validators.size();
+    }
+
+    protected TicketValidator createValidator(ValidatorKey key) {
+        log.debug("creating ticket validator for {}", key);
+        if (key.isStreaming()) {
+            return this.createStreamingValidator(key);
+        }
+        final String prefix = key.getCasServerUrlPrefix();
+        final AttributeProjector projector = this.projectorFor(key);
+        final AbstractUrlBasedTicketValidator validator;
+        switch (key.getProtocol()) {
+            case CAS10:
+                validator = new Cas10TicketValidator(prefix);
+                break;
+            case CAS20:
+                validator = projector.isIdentity() ? new Cas20ServiceTicketValidator(prefix)
+                        : new ProjectingServiceTicketValidator(prefix, "serviceValidate", projector);
+                break;
+            case CAS30:
+                validator = projector.isIdentity() ? new Cas30ServiceTicketValidator(prefix)
+                        : new ProjectingServiceTicketValidator(prefix, "p3/serviceValidate", projector);
+                break;
+            case CAS30_PROXY:
+                validator = projector.isIdentity() ? new Cas30ProxyTicketValidator(prefix)
+                        : new ProjectingProxyTicketValidator(prefix, "p3/proxyValidate", projector);
+                ((Cas20ProxyTicketValidator) validator).setAcceptAnyProxy(key.isAcceptAnyProxy());
+                break;
+            case SAML11:
+                validator = new Saml11TicketValidator(prefix);
+                break;
+            case CAS20_PROXY:
+            default:
+                validator = projector.isIdentity() ? new Cas20ProxyTicketValidator(prefix)
+                        : new ProjectingProxyTicketValidator(prefix, "proxyValidate", projector);
+                ((Cas20ProxyTicketValidator) validator).setAcceptAnyProxy(key.isAcceptAnyProxy());
+                break;
+        }
+        validator.setRenew(key.isRenew());
+        if (key.getEncoding() != null) {
+            validator.setEncoding(key.getEncoding());
+        }
+        final HttpURLConnectionFactory connectionFactory = new TimeoutHttpURLConnectionFactory(new HttpsURLConnectionFactory(),
+                key.getConnectTimeout(), key.getReadTimeout());
+        validator.setURLConnectionFactory(connectionFactory);
+        if (key.getProxyCallbackUrl() != null && validator instanceof Cas20ServiceTicketValidator) {
+            final Cas20ServiceTicketValidator cas20Validator = (Cas20ServiceTicketValidator) validator;
+            cas20Validator.setProxyCallbackUrl(key.getProxyCallbackUrl());
+            cas20Validator.setProxyGrantingTicketStorage(key.getProxyGrantingTicketStorage());
+            cas20Validator.setProxyRetriever(new ProxyTicketClient(key.getCasServerUrlPrefix(), key.getEncoding(), key.getTransport(), null, key.getGuard()));
+        }
+        return validator;
+    }
+
+    private TicketValidator createStreamingValidator(ValidatorKey key) {
+        final StreamingCasTicketValidator validator = new StreamingCasTicketValidator(key.getCasServerUrlPrefix(),
+                key.getProtocol(), key.getTransport());
+        validator.setRenew(key.isRenew());
+        validator.setEncoding(key.getEncoding());
+        validator.setAcceptAnyProxy(key.isAcceptAnyProxy());
+        validator.setAttributeProjector(this.projectorFor(key));
+        if (key.getProxyCallbackUrl() != null) {
+            validator.setProxyCallbackUrl(key.getProxyCallbackUrl());
+            validator.setProxyGrantingTicketStorage(key.getProxyGrantingTicketStorage());
+            validator.setProxyRetriever(new ProxyTicketClient(key.getCasServerUrlPrefix(), key.getEncoding(), key.getTransport(), null, key.getGuard()));
+        }
+        return validator;
+    }
+
+    private AttributeProjector projectorFor(ValidatorKey key) {
+        return AttributeProjector.of(key.getAttributeWhitelist(), key.getAttributeRenames(), key.isCompactAttributes());
+    }
+
+    /**
+     * 校验器缓存key
+     */
+    @Value
+    public static class ValidatorKey {
+        String casServerUrlPrefix;
+        ValidationProtocol protocol;
+        boolean renew;
+        String encoding;
+        boolean acceptAnyProxy;
+        int connectTimeout;
+        int readTimeout;
+        String proxyCallbackUrl;
+        ProxyGrantingTicketStorage proxyGrantingTicketStorage;
+        CasHttpTransport transport;
+        boolean streaming;
+        Set<String> attributeWhitelist;
+        Map<String, String> attributeRenames;
+        boolean compactAttributes;
+        /**
+         * 申请代理票据时使用的保护，同一cas服务端共享一个实例
+         */
+        CasServerGuard guard;
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.wpyuan.casclienthelper.validation;
+
+/**
+ * <p>
+ * 票据校验协议
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/18 10:30
+ */
+public enum ValidationProtocol {
+    /**
+     * CAS 1.0，/validate
+     */
+    CAS10,
+    /**
+     * CAS 2.0，/serviceValidate，只接受service ticket
+     */
+    CAS20,
+    /**
+     * CAS 2.0，/proxyValidate，同时接受proxy ticket
+     */
+    CAS20_PROXY,
+    /**
+     * CAS 3.0，/p3/serviceValidate，返回用户属性
+     */
+    CAS30,
+    /**
+     * CAS 3.0，/p3/proxyValidate
+     */
+    CAS30_PROXY,
+    /**
+     * SAML 1.1，/samlValidate，需要引入opensaml依赖
+     */
+    SAML11
+}
@@ -0,0 +1,22 @@
+package com.github.wpyuan.casclienthelper.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>
+ * Java 21：阻塞IO任务每个一个虚拟线程，等待cas服务端响应时不占用平台线程
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 13:10
+ */
+final class PlatformExecutors {
+
+    private PlatformExecutors() {
+    }
+
+    static ExecutorService newBlockingIoExecutor(String name) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+    }
+}
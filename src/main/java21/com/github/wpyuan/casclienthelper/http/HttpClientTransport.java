@@ -0,0 +1,131 @@
+package com.github.wpyuan.casclienthelper.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * 基于JDK {@link HttpClient}的传输实现（Java 21），语义与{@link PooledHttpURLConnectionTransport}一致：
+ * 按host限制并发连接数、连接/读取/总超时、响应体大小上限，非2xx/3xx响应抛出IOException。
+ * HttpClient内部使用显式锁，客户端的异步任务也运行在虚拟线程上，在虚拟线程中调用不会占住载体线程
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 13:30
+ */
+class HttpClientTransport implements CasHttpTransport {
+
+    private final HttpClient client;
+    private final int readTimeout;
+    private final long totalTimeout;
+    private final long maxResponseSize;
+    private final int maxConnectionsPerHost;
+    private final ConcurrentHashMap<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    HttpClientTransport(int connectTimeout, int readTimeout, long totalTimeout, long maxResponseSize, int maxConnectionsPerHost) {
+        final HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cas-http-", 1).factory()));
+        if (connectTimeout > 0) {
+            builder.connectTimeout(Duration.ofMillis(connectTimeout));
+        }
+        this.client = builder.build();
+        this.readTimeout = readTimeout;
+        this.totalTimeout = totalTimeout;
+        this.maxResponseSize = maxResponseSize;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    @Override
+    public <T> T execute(URL url, ResponseHandler<T> handler) throws IOException {
+        final long deadline = this.totalTimeout > 0 ? System.currentTimeMillis() + this.totalTimeout : 0;
+        final Semaphore permits = this.acquire(url, deadline);
+        try {
+            return this.doExecute(url, handler, deadline);
+        } finally {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    private <T> T doExecute(URL url, ResponseHandler<T> handler, long deadline) throws IOException {
+        final HttpRequest.Builder request;
+        try {
+            request = HttpRequest.newBuilder(url.toURI()).GET();
+        } catch (URISyntaxException e) {
+            throw new IOException("invalid url: " + url, e);
+        }
+        final long timeout = this.remaining(deadline);
+        if (timeout > 0) {
+            // HttpClient的请求超时覆盖到响应头返回为止，读取响应体由BoundedInputStream按总超时检查
+            request.timeout(Duration.ofMillis(timeout));
+        }
+        final HttpResponse<InputStream> response;
+        try {
+            response = this.client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (HttpTimeoutException e) {
+            final SocketTimeoutException timeoutException = new SocketTimeoutException(e.getMessage());
+            timeoutException.initCause(e);
+            throw timeoutException;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while requesting " + url);
+        }
+        try (InputStream in = response.body()) {
+            if (response.statusCode() >= 400) {
+                throw new IOException("Server returned HTTP response code: " + response.statusCode() + " for URL: " + url);
+            }
+            return handler.handle(new BoundedInputStream(in, this.maxResponseSize, deadline));
+        }
+    }
+
+    private Semaphore acquire(URL url, long deadline) throws IOException {
+        if (this.maxConnectionsPerHost <= 0) {
+            return null;
+        }
+        final String host = url.getProtocol() + "://" + url.getAuthority();
+        final Semaphore permits = this.hostPermits.computeIfAbsent(host, key -> new Semaphore(this.maxConnectionsPerHost));
+        try {
+            if (deadline <= 0) {
+                permits.acquire();
+                return permits;
+            }
+            if (permits.tryAcquire(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                return permits;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a connection to " + host);
+        }
+        throw new SocketTimeoutException("timed out waiting for a connection to " + host);
+    }
+
+    /**
+     * @return 本次请求可用的超时（毫秒），0表示不限制
+     */
+    private long remaining(long deadline) throws SocketTimeoutException {
+        if (deadline <= 0) {
+            return Math.max(this.readTimeout, 0);
+        }
+        final long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            throw new SocketTimeoutException("total timeout exceeded");
+        }
+        return this.readTimeout > 0 ? Math.min(this.readTimeout, remaining) : remaining;
+    }
+}
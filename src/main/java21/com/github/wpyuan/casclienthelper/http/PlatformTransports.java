@@ -0,0 +1,20 @@
+package com.github.wpyuan.casclienthelper.http;
+
+/**
+ * <p>
+ * Java 21：默认使用{@link HttpClientTransport}，HttpURLConnection的keep-alive缓存等处使用synchronized，会让虚拟线程占住载体线程
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/19 13:20
+ */
+final class PlatformTransports {
+
+    private PlatformTransports() {
+    }
+
+    static CasHttpTransport newDefaultTransport(int connectTimeout, int readTimeout, long totalTimeout,
+                                                long maxResponseSize, int maxConnectionsPerHost) {
+        return new HttpClientTransport(connectTimeout, readTimeout, totalTimeout, maxResponseSize, maxConnectionsPerHost);
+    }
+}
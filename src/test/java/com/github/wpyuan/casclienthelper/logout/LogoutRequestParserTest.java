@@ -0,0 +1,98 @@
+package com.github.wpyuan.casclienthelper.logout;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * <p>
+ * 单点登出请求解析
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/20 11:50
+ */
+class LogoutRequestParserTest {
+
+    private static final String LOGOUT_REQUEST = "<samlp:LogoutRequest xmlns:samlp=\"urn:oasis:names:tc:SAML:2.0:protocol\""
+            + " ID=\"LR-1\" Version=\"2.0\" IssueInstant=\"2026-10-20T11:50:00Z\">"
+            + "<saml:NameID xmlns:saml=\"urn:oasis:names:tc:SAML:2.0:assertion\">@NOT_USED@</saml:NameID>"
+            + "<samlp:SessionIndex>ST-1-abc</samlp:SessionIndex></samlp:LogoutRequest>";
+
+    @Test
+    void decodesBackChannelXml() {
+        assertEquals(LOGOUT_REQUEST, LogoutRequestParser.decode("  " + LOGOUT_REQUEST + "\n"));
+        assertNull(LogoutRequestParser.decode(null));
+    }
+
+    @Test
+    void decodesFrontChannelPayload() {
+        final String payload = Base64.getEncoder().encodeToString(deflate(LOGOUT_REQUEST));
+        assertEquals(LOGOUT_REQUEST, LogoutRequestParser.decode(payload));
+        // mime解码允许换行
+        final String wrapped = Base64.getMimeEncoder(16, "\r\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(deflate(LOGOUT_REQUEST));
+        assertEquals(LOGOUT_REQUEST, LogoutRequestParser.decode(wrapped));
+    }
+
+    @Test
+    void rejectsInvalidFrontChannelPayload() {
+        assertNull(LogoutRequestParser.decode("%%%"));
+        assertNull(LogoutRequestParser.decode(Base64.getEncoder().encodeToString("not deflated".getBytes(StandardCharsets.UTF_8))));
+        final byte[] deflated = deflate(LOGOUT_REQUEST);
+        assertNull(LogoutRequestParser.decode(Base64.getEncoder().encodeToString(Arrays.copyOf(deflated, deflated.length / 2))));
+    }
+
+    @Test
+    void rejectsOversizedFrontChannelPayload() {
+        final char[] large = new char[2 * 1024 * 1024];
+        Arrays.fill(large, 'a');
+        assertNull(LogoutRequestParser.decode(Base64.getEncoder().encodeToString(deflate(new String(large)))));
+    }
+
+    @Test
+    void readsSessionIndex() {
+        assertEquals(Collections.singletonList("ST-1-abc"), LogoutRequestParser.getSessionIndexes(LOGOUT_REQUEST));
+        assertEquals(Collections.singletonList("ST-2"),
+                LogoutRequestParser.getSessionIndexes("<LogoutRequest><SessionIndex>\n  ST-2\n</SessionIndex></LogoutRequest>"));
+    }
+
+    @Test
+    void readsMultipleSessionIndexes() {
+        final String xml = "<samlp:LogoutRequest><samlp:SessionIndex>ST-1</samlp:SessionIndex>"
+                + "<p2:SessionIndex xmlns:p2=\"x\">ST-2</p2:SessionIndex><SessionIndex>ST-3</SessionIndex></samlp:LogoutRequest>";
+        assertEquals(Arrays.asList("ST-1", "ST-2", "ST-3"), LogoutRequestParser.getSessionIndexes(xml));
+    }
+
+    @Test
+    void ignoresLookalikesAndEmptyElements() {
+        final String xml = "<LogoutRequest Note=\"SessionIndex\"><SessionIndexes>ST-X</SessionIndexes>"
+                + "<SessionIndex/><SessionIndex></SessionIndex><SessionIndex attr=\"1\">ST-1</SessionIndex></LogoutRequest>";
+        assertEquals(Collections.singletonList("ST-1"), LogoutRequestParser.getSessionIndexes(xml));
+        assertEquals(Collections.emptyList(), LogoutRequestParser.getSessionIndexes(null));
+        assertEquals(Collections.emptyList(), LogoutRequestParser.getSessionIndexes("<SessionIndex>ST-1"));
+    }
+
+    private static byte[] deflate(String xml) {
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(xml.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
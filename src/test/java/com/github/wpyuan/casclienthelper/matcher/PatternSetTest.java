@@ -0,0 +1,129 @@
+package com.github.wpyuan.casclienthelper.matcher;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * url规则编译及匹配
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/20 10:50
+ */
+class PatternSetTest {
+
+    @Test
+    void emptyPatterns() {
+        assertTrue(PatternSet.compile(null).isEmpty());
+        assertTrue(PatternSet.compile(" ,\n ").isEmpty());
+    }
+
+    @Test
+    void splitKeepsRegexQuantifiers() {
+        assertEquals(Arrays.asList("/a", "regex:/v\\d{1,3}/.*", "exact:/b", "/c/**"),
+                PatternSet.split(" /a, regex:/v\\d{1,3}/.*\n exact:/b\t/c/** "));
+    }
+
+    @Test
+    void exactMatch() {
+        final PatternSet set = PatternSet.compile("exact:/health, /login");
+        assertTrue(set.matches("/health"));
+        assertTrue(set.matches("/login"));
+        assertFalse(set.matches("/health/"));
+        assertFalse(set.matches("/healthz"));
+        assertFalse(set.matches("/login/x"));
+    }
+
+    @Test
+    void exactModeDoesNotExpandWildcards() {
+        final PatternSet set = PatternSet.compile("exact:/a/*");
+        assertTrue(set.matches("/a/*"));
+        assertFalse(set.matches("/a/b"));
+    }
+
+    @Test
+    void antDoubleStarSuffixMatchesPrefixAndItself() {
+        final PatternSet set = PatternSet.compile("/static/**");
+        assertTrue(set.matches("/static"));
+        assertTrue(set.matches("/static/"));
+        assertTrue(set.matches("/static/css/app.css"));
+        assertFalse(set.matches("/staticfile"));
+        assertFalse(set.matches("/api/static/a"));
+    }
+
+    @Test
+    void antSingleStarAndQuestionMarkStayInSegment() {
+        final PatternSet set = PatternSet.compile("ant:/api/*/info, /file?.txt");
+        assertTrue(set.matches("/api/users/info"));
+        assertTrue(set.matches("/api//info"));
+        assertFalse(set.matches("/api/a/b/info"));
+        assertTrue(set.matches("/file1.txt"));
+        assertFalse(set.matches("/file.txt"));
+        assertFalse(set.matches("/file/.txt"));
+        assertFalse(set.matches("/file12.txt"));
+    }
+
+    @Test
+    void antDoubleStarInMiddleMatchesZeroOrMoreDirectories() {
+        final PatternSet set = PatternSet.compile("/a/**/b, /docs/**.html");
+        assertTrue(set.matches("/a/b"));
+        assertTrue(set.matches("/a/x/b"));
+        assertTrue(set.matches("/a/x/y/b"));
+        assertFalse(set.matches("/a/xb"));
+        assertTrue(set.matches("/docs/x/y.html"));
+        assertFalse(set.matches("/docs/x/y.htm"));
+    }
+
+    @Test
+    void antLiteralsAreQuoted() {
+        final PatternSet set = PatternSet.compile("/a.b/*");
+        assertTrue(set.matches("/a.b/c"));
+        assertFalse(set.matches("/aXb/c"));
+        assertEquals("\\Q/a\\E[^/]*\\Q.js\\E", PatternSet.antToRegex("/a*.js"));
+    }
+
+    @Test
+    void regexMustMatchWholePath() {
+        final PatternSet set = PatternSet.compile("regex:/v\\d+/.*, regex:/x|/y");
+        assertTrue(set.matches("/v1/users"));
+        assertTrue(set.matches("/v22/"));
+        assertFalse(set.matches("/api/v1/users"));
+        assertTrue(set.matches("/x"));
+        assertTrue(set.matches("/y"));
+        assertFalse(set.matches("/xy"));
+    }
+
+    @Test
+    void overlappingAntPrefixes() {
+        final PatternSet set = PatternSet.compile("/a*, /ab/*.js, /abc/**");
+        assertTrue(set.matches("/a"));
+        assertTrue(set.matches("/abcd"));
+        assertTrue(set.matches("/ab/x.js"));
+        assertTrue(set.matches("/abc/d/e"));
+        assertFalse(set.matches("/ab/x.css"));
+        assertFalse(set.matches("/b"));
+    }
+
+    @Test
+    void urlMatcherIncludeAndExclude() {
+        final UrlMatcher matcher = UrlMatcher.of("/api/**", "/api/public/**, exact:/api/health");
+        assertTrue(matcher.matches("/api/users"));
+        assertFalse(matcher.matches("/api/public/a"));
+        assertFalse(matcher.matches("/api/health"));
+        assertFalse(matcher.matches("/other"));
+        assertTrue(UrlMatcher.of(null, "").matches("/anything"));
+
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/api/users");
+        request.setContextPath("/app");
+        assertTrue(matcher.matches(request));
+        request.setRequestURI("/app/api/public/a");
+        assertFalse(matcher.matches(request));
+    }
+}
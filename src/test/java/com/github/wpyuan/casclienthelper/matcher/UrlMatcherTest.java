@@ -0,0 +1,72 @@
+package com.github.wpyuan.casclienthelper.matcher;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * 按容器实际路由的路径匹配，点号路径段、路径参数不能绕过exclude
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/20 15:00
+ */
+class UrlMatcherTest {
+
+    private final UrlMatcher matcher = UrlMatcher.of(null, "/static/**");
+
+    @Test
+    void matchesServletPathAndPathInfo() {
+        assertFalse(this.matcher.matches(request("/app/static/app.css", "/static/app.css", null)));
+        assertFalse(this.matcher.matches(request("/app/static/app.css", "/static", "/app.css")));
+        assertTrue(this.matcher.matches(request("/app/admin", "/admin", null)));
+        assertTrue(this.matcher.matches(request("/app/admin", "", "/admin")));
+    }
+
+    @Test
+    void normalizedPathDefeatsTraversal() {
+        // 容器已把路径规范化为/admin，原始uri仍以/static开头
+        assertTrue(this.matcher.matches(request("/app/static/..;/admin", "/admin", null)));
+        assertTrue(this.matcher.matches(request("/app/static/%2e%2e/admin", "/admin", null)));
+        assertTrue(this.matcher.matches(request("/app/static;jsessionid=1/../admin", "/admin", null)));
+    }
+
+    @Test
+    void unnormalizedPathRequiresAuthentication() {
+        assertTrue(this.matcher.matches(request("/app/static/../admin", "/static/../admin", null)));
+        assertTrue(this.matcher.matches(request("/app/static/./a", "/static/./a", null)));
+        assertTrue(this.matcher.matches(request("/app/static/..", "/static", "/..")));
+        assertTrue(this.matcher.matches(request("/app/static/a;x=1", "/static/a;x=1", null)));
+        assertTrue(this.matcher.matches(request("/app/static\\..\\admin", "/static\\..\\admin", null)));
+        // include同样不能被绕过
+        assertTrue(UrlMatcher.of("/admin/**", null).matches(request("/app/public/../admin/a", "/public/../admin/a", null)));
+    }
+
+    @Test
+    void fallsBackToRequestUriWithoutServletMapping() {
+        assertFalse(this.matcher.matches(request("/app/static/app.css", "", null)));
+        assertTrue(this.matcher.matches(request("/app/static/..;/admin", "", null)));
+        assertTrue(this.matcher.matches(request("/app/static/%2e%2e/admin", "", null)));
+        assertTrue(this.matcher.matches(request("/app/static/../admin", "", null)));
+    }
+
+    @Test
+    void dotsInsideSegmentsAreAllowed() {
+        assertEquals("/static/a..b/.c/d.", UrlMatcher.routedPath(request("/app/static/a..b/.c/d.", "/static/a..b/.c/d.", null)));
+        assertFalse(this.matcher.matches(request("/app/static/a..b", "/static/a..b", null)));
+        assertNull(UrlMatcher.routedPath(request("/app/..", "/..", null)));
+    }
+
+    private static MockHttpServletRequest request(String uri, String servletPath, String pathInfo) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setContextPath("/app");
+        request.setServletPath(servletPath);
+        request.setPathInfo(pathInfo);
+        return request;
+    }
+}
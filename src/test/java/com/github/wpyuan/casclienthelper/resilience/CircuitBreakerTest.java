@@ -0,0 +1,131 @@
+package com.github.wpyuan.casclienthelper.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * 熔断器状态转换
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/20 10:30
+ */
+class CircuitBreakerTest {
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        final CircuitBreaker breaker = new CircuitBreaker(50, 10, 4, 60000L, 1);
+        fail(breaker, 3);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        fail(breaker, 1);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void staysClosedBelowFailureRate() {
+        final CircuitBreaker breaker = new CircuitBreaker(50, 10, 4, 60000L, 1);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            if (i % 4 == 0) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void slidingWindowForgetsOldFailures() {
+        final CircuitBreaker breaker = new CircuitBreaker(50, 4, 4, 60000L, 1);
+        fail(breaker, 1);
+        succeed(breaker, 3);
+        // 窗口内失败1次，再成功3次后最早的失败被挤出
+        succeed(breaker, 1);
+        fail(breaker, 1);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        fail(breaker, 1);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void halfOpenClosesAfterSuccessfulTrials() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker(50, 2, 2, 20L, 2);
+        fail(breaker, 2);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        Thread.sleep(40L);
+
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+        // 试探名额用完
+        assertFalse(breaker.tryAcquirePermission());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // 关闭后重新统计，一次失败不足最少调用数
+        fail(breaker, 1);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void halfOpenReopensOnFailure() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker(50, 2, 2, 20L, 2);
+        fail(breaker, 2);
+        Thread.sleep(40L);
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void releasedPermissionIsReturned() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker(50, 2, 2, 20L, 1);
+        fail(breaker, 2);
+        Thread.sleep(40L);
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        breaker.releasePermission();
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void resultsOfCallsStartedBeforeOpeningAreIgnored() {
+        final CircuitBreaker breaker = new CircuitBreaker(50, 2, 2, 60000L, 1);
+        fail(breaker, 2);
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(0, 10, 1, 1000L, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(101, 10, 1, 1000L, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(50, 0, 1, 1000L, 1));
+    }
+
+    private static void fail(CircuitBreaker breaker, int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            breaker.onFailure();
+        }
+    }
+
+    private static void succeed(CircuitBreaker breaker, int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            breaker.onSuccess();
+        }
+    }
+}
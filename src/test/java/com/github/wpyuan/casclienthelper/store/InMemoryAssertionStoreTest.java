@@ -0,0 +1,66 @@
+package com.github.wpyuan.casclienthelper.store;
+
+import org.jasig.cas.client.authentication.AttributePrincipalImpl;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.AssertionImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * <p>
+ * 堆内存储的接纳策略及定时清理
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/20 16:20
+ */
+class InMemoryAssertionStoreTest {
+
+    @Test
+    void freshlyWrittenEntriesAreAdmitted() {
+        final InMemoryAssertionStore store = new InMemoryAssertionStore(100, 0L);
+        final List<MockHttpServletRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final MockHttpServletRequest request = new MockHttpServletRequest();
+            store.put(request, new MockHttpServletResponse(), new AssertionImpl(new AttributePrincipalImpl("user" + i)));
+            requests.add(request);
+        }
+        // 刚写入、尚未读取的条目总能进入主区，最近写入的用户下一次请求能取到assertion
+        for (int i = 190; i < 200; i++) {
+            assertNotNull(store.get(requests.get(i)));
+        }
+    }
+
+    @Test
+    void scheduledExpireRemovesIdleEntries() throws InterruptedException {
+        final InMemoryAssertionStore store = new InMemoryAssertionStore(100, 20L);
+        try {
+            final long now = System.currentTimeMillis();
+            store.put(new MockHttpServletRequest(), new MockHttpServletResponse(), expiring(now + 30L));
+            store.put(new MockHttpServletRequest(), new MockHttpServletResponse(), expiring(now + 60000L));
+            assertEquals(2, store.size());
+            final long deadline = System.currentTimeMillis() + 5000L;
+            while (store.size() > 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            assertEquals(1, store.size());
+        } finally {
+            store.close();
+        }
+    }
+
+    private static Assertion expiring(long validUntil) {
+        final long now = System.currentTimeMillis();
+        return new AssertionImpl(new AttributePrincipalImpl("alice"), new Date(now), new Date(validUntil), new Date(now),
+                Collections.emptyMap());
+    }
+}
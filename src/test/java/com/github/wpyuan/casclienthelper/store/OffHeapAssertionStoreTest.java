@@ -0,0 +1,86 @@
+package com.github.wpyuan.casclienthelper.store;
+
+import org.jasig.cas.client.authentication.AttributePrincipalImpl;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.AssertionImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * <p>
+ * 堆外存储读写，跨多个槽位的assertion须完整还原
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/20 14:10
+ */
+class OffHeapAssertionStoreTest {
+
+    @Test
+    void roundTripAcrossSlots() {
+        final OffHeapAssertionStore store = new OffHeapAssertionStore(64 * 1024, 64);
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put("mail", String.join("", Collections.nCopies(1000, "x")));
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        store.put(request, new MockHttpServletResponse(), new AssertionImpl(new AttributePrincipalImpl("alice", attributes)));
+
+        final Assertion assertion = store.get(request);
+        assertEquals("alice", assertion.getPrincipal().getName());
+        assertEquals(attributes.get("mail"), assertion.getPrincipal().getAttributes().get("mail"));
+        assertEquals(1, store.size());
+
+        store.evict(request, new MockHttpServletResponse());
+        assertNull(store.get(request));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenFull() {
+        final OffHeapAssertionStore store = new OffHeapAssertionStore(4 * 1024, 1024);
+        final MockHttpServletRequest first = new MockHttpServletRequest();
+        final MockHttpServletRequest second = new MockHttpServletRequest();
+        final MockHttpServletRequest third = new MockHttpServletRequest();
+        store.put(first, new MockHttpServletResponse(), assertion("first"));
+        store.put(second, new MockHttpServletResponse(), assertion("second"));
+        store.get(first);
+        store.put(third, new MockHttpServletResponse(), assertion("third"));
+
+        assertEquals("first", store.get(first).getPrincipal().getName());
+        assertNull(store.get(second));
+        assertEquals("third", store.get(third).getPrincipal().getName());
+        assertEquals(1, store.getEvictionCount());
+    }
+
+    @Test
+    void scheduledExpireFreesSlotsOfIdleEntries() throws InterruptedException {
+        final OffHeapAssertionStore store = new OffHeapAssertionStore(4 * 1024, 1024, 20L);
+        try {
+            final long now = System.currentTimeMillis();
+            store.put(new MockHttpServletRequest(), new MockHttpServletResponse(), new AssertionImpl(new AttributePrincipalImpl("alice"),
+                    new Date(now), new Date(now + 30L), new Date(now), Collections.emptyMap()));
+            assertEquals(1, store.size());
+            final long deadline = System.currentTimeMillis() + 5000L;
+            while (store.size() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            assertEquals(0, store.size());
+        } finally {
+            store.close();
+        }
+    }
+
+    private static Assertion assertion(String name) {
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put("padding", String.join("", Collections.nCopies(800, "p")));
+        return new AssertionImpl(new AttributePrincipalImpl(name, attributes));
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.wpyuan.casclienthelper.store;
+
+import org.jasig.cas.client.authentication.AttributePrincipalImpl;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.AssertionImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.Cookie;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * cookie编码、解码及篡改校验
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/20 10:10
+ */
+class SignedCookieAssertionStoreTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void roundTripPlain() throws Exception {
+        assertRoundTrip(newStore(false));
+    }
+
+    @Test
+    void roundTripEncrypted() throws Exception {
+        final SignedCookieAssertionStore store = newStore(true);
+        final String value = assertRoundTrip(store);
+        // 加密后不能直接看到用户名
+        final String body = new String(Base64.getUrlDecoder().decode(value.substring(0, value.indexOf('.'))), StandardCharsets.ISO_8859_1);
+        assertTrue(!body.contains("alice"));
+    }
+
+    @Test
+    void rejectsTamperedBody() throws Exception {
+        final SignedCookieAssertionStore store = newStore(false);
+        final long now = System.currentTimeMillis();
+        final String value = store.encode(newAssertion(), now, now + 60000L);
+        final int dot = value.indexOf('.');
+        final byte[] body = Base64.getUrlDecoder().decode(value.substring(0, dot));
+        body[body.length - 1] ^= 1;
+        final String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(body) + value.substring(dot);
+        assertNull(store.decode(tampered));
+    }
+
+    @Test
+    void rejectsTamperedSignatureAndForeignKey() throws Exception {
+        final SignedCookieAssertionStore store = newStore(true);
+        final long now = System.currentTimeMillis();
+        final String value = store.encode(newAssertion(), now, now + 60000L);
+        final char last = value.charAt(value.length() - 1);
+        assertNull(store.decode(value.substring(0, value.length() - 1) + (last == 'A' ? 'B' : 'A')));
+        assertNull(store.decode(value.substring(0, value.indexOf('.'))));
+        assertNull(store.decode("not-a-cookie"));
+
+        final byte[] otherSecret = Arrays.copyOf(SECRET, SECRET.length);
+        otherSecret[0] ^= 1;
+        assertNull(new SignedCookieAssertionStore(otherSecret).decode(value));
+    }
+
+    @Test
+    void rejectsExpiredCookie() throws Exception {
+        final SignedCookieAssertionStore store = newStore(false);
+        final long now = System.currentTimeMillis();
+        assertNull(store.decode(store.encode(newAssertion(), now - 60000L, now - 1L)));
+    }
+
+    @Test
+    void rejectsLoggedOutCookie() throws Exception {
+        final SignedCookieAssertionStore store = newStore(false);
+        final Assertion assertion = newAssertion();
+        final long now = System.currentTimeMillis();
+        final String value = store.encode(assertion, now, now + 60000L);
+        store.evictByKey(store.keyOf(null, assertion));
+        assertNull(store.decode(value));
+    }
+
+    @Test
+    void putAndGetThroughCookie() {
+        final SignedCookieAssertionStore store = newStore(false);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        store.put(new MockHttpServletRequest(), response, newAssertion());
+        final String header = response.getHeader("Set-Cookie");
+        assertNotNull(header);
+        final String value = header.substring(header.indexOf('=') + 1, header.indexOf(';'));
+
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(store.getCookieName(), value));
+        assertEquals("alice", store.get(request).getPrincipal().getName());
+    }
+
+    @Test
+    void putFailsWhenCookieTooLarge() {
+        final SignedCookieAssertionStore store = newStore(false);
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put("mail", String.join("", Collections.nCopies(5000, "x")));
+        final Assertion assertion = new AssertionImpl(new AttributePrincipalImpl("alice", attributes));
+        assertThrows(IllegalStateException.class, () -> store.put(new MockHttpServletRequest(), new MockHttpServletResponse(), assertion));
+    }
+
+    private static String assertRoundTrip(SignedCookieAssertionStore store) throws Exception {
+        final long now = System.currentTimeMillis();
+        final String value = store.encode(newAssertion(), now, now + 60000L);
+        final Assertion decoded = store.decode(value);
+        assertNotNull(decoded);
+        assertEquals("alice", decoded.getPrincipal().getName());
+        final Map<String, Object> attributes = decoded.getPrincipal().getAttributes();
+        assertEquals("alice@example.com", attributes.get("mail"));
+        assertEquals(Arrays.asList("admin", "user"), attributes.get("roles"));
+        // 未选定的属性不写入cookie
+        assertNull(attributes.get("phone"));
+        assertEquals(now + 60000L, decoded.getValidUntilDate().getTime());
+        assertEquals(1000L, decoded.getAuthenticationDate().getTime());
+        return value;
+    }
+
+    private static SignedCookieAssertionStore newStore(boolean encrypt) {
+        final SignedCookieAssertionStore store = new SignedCookieAssertionStore(SECRET);
+        store.setEncrypt(encrypt);
+        store.setAttributes(Arrays.asList("mail", "roles"));
+        return store;
+    }
+
+    private static Assertion newAssertion() {
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put("mail", "alice@example.com");
+        final List<String> roles = Arrays.asList("admin", "user");
+        attributes.put("roles", roles);
+        attributes.put("phone", "10086");
+        return new AssertionImpl(new AttributePrincipalImpl("alice", attributes), new Date(1000L), null, new Date(1000L),
+                Collections.emptyMap());
+    }
+}
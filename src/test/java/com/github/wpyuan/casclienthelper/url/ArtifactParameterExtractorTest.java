@@ -0,0 +1,74 @@
+package com.github.wpyuan.casclienthelper.url;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * <p>
+ * 票据参数提取
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/20 11:30
+ */
+class ArtifactParameterExtractorTest {
+
+    private final ArtifactParameterExtractor extractor = new ArtifactParameterExtractor("ticket");
+
+    @Test
+    void extractsFromQueryString() {
+        assertEquals("ST-1", this.extractor.extract(request("a=1&ticket=ST-1")));
+        assertEquals("ST-1 x", this.extractor.extract(request("ticket=ST%2D1+x")));
+        assertEquals("ST-1", this.extractor.extract(request("ticket=ST-1&ticket=ST-2")));
+    }
+
+    @Test
+    void ignoresSimilarNamesAndEmptyValues() {
+        assertNull(this.extractor.extract(request(null)));
+        assertNull(this.extractor.extract(request("noticket=ST-1")));
+        assertNull(this.extractor.extract(request("ticketx=ST-1&a=ticket")));
+        assertNull(this.extractor.extract(request("ticket=")));
+        assertNull(this.extractor.extract(request("ticket")));
+        assertNull(this.extractor.extract(request("ticket=ST%2")));
+    }
+
+    @Test
+    void encodedFragmentDelimiterBelongsToValue() {
+        // 片段不会随请求发送，查询字符串中的#只能以%23出现
+        assertEquals("ST-1#x", this.extractor.extract(request("ticket=ST-1%23x")));
+    }
+
+    @Test
+    void ignoresFormBody() {
+        final MockHttpServletRequest request = request("a=1");
+        request.setMethod("POST");
+        request.setContentType("application/x-www-form-urlencoded");
+        request.addParameter("ticket", "ST-BODY");
+        assertNull(this.extractor.extract(request));
+    }
+
+    @Test
+    void cachesExtractedArtifactInRequest() {
+        final MockHttpServletRequest request = request("ticket=ST%2D1");
+        assertEquals("ST-1", this.extractor.extract(request));
+        assertEquals("ST-1", request.getAttribute(ArtifactParameterExtractor.ARTIFACT_ATTRIBUTE));
+        request.setAttribute(ArtifactParameterExtractor.ARTIFACT_ATTRIBUTE, "ST-CACHED");
+        assertEquals("ST-CACHED", this.extractor.extract(request));
+    }
+
+    @Test
+    void doesNotCacheMissingArtifact() {
+        final MockHttpServletRequest request = request("noticket=1");
+        assertNull(this.extractor.extract(request));
+        assertNull(request.getAttribute(ArtifactParameterExtractor.ARTIFACT_ATTRIBUTE));
+    }
+
+    private static MockHttpServletRequest request(String query) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/index");
+        request.setQueryString(query);
+        return request;
+    }
+}
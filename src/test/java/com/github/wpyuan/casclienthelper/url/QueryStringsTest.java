@@ -0,0 +1,93 @@
+package com.github.wpyuan.casclienthelper.url;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>
+ * 查询字符串扫描的边界情况
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/20 11:10
+ */
+class QueryStringsTest {
+
+    @Test
+    void getParameterMatchesWholeName() {
+        assertEquals("ST-1", QueryStrings.getParameter("ticket=ST-1", "ticket"));
+        assertEquals("ST-2", QueryStrings.getParameter("a=1&ticket=ST-2&b=2", "ticket"));
+        assertNull(QueryStrings.getParameter("noticket=ST-1", "ticket"));
+        assertNull(QueryStrings.getParameter("ticketx=ST-1", "ticket"));
+        assertNull(QueryStrings.getParameter("a=ticket", "ticket"));
+        assertEquals("ST-3", QueryStrings.getParameter("noticket=ST-1&ticket=ST-3", "ticket"));
+        assertNull(QueryStrings.getParameter(null, "ticket"));
+        assertNull(QueryStrings.getParameter("", "ticket"));
+    }
+
+    @Test
+    void getParameterWithoutValue() {
+        assertEquals("", QueryStrings.getParameter("ticket", "ticket"));
+        assertEquals("", QueryStrings.getParameter("ticket=&a=1", "ticket"));
+        assertEquals("", QueryStrings.getParameter("a=1&ticket", "ticket"));
+    }
+
+    @Test
+    void repeatedParameterReturnsFirst() {
+        assertEquals("ST-1", QueryStrings.getParameter("ticket=ST-1&ticket=ST-2", "ticket"));
+        assertEquals("", QueryStrings.getParameter("ticket=&ticket=ST-2", "ticket"));
+    }
+
+    @Test
+    void encodedValueIsDecoded() {
+        assertEquals("ST-1 x", QueryStrings.getParameter("ticket=ST%2D1+x", "ticket"));
+        assertEquals("中文", QueryStrings.getParameter("ticket=%E4%B8%AD%E6%96%87", "ticket"));
+        // 编码的&、=、#属于值本身，不是参数或片段边界
+        assertEquals("a&b=c#d", QueryStrings.getParameter("ticket=a%26b%3Dc%23d&x=1", "ticket"));
+    }
+
+    @Test
+    void encodedNameIsNotDecoded() {
+        assertNull(QueryStrings.getParameter("tick%65t=ST-1", "ticket"));
+    }
+
+    @Test
+    void malformedEncodingReturnsNull() {
+        assertNull(QueryStrings.getParameter("ticket=ST%2", "ticket"));
+        assertNull(QueryStrings.getParameter("ticket=ST%zz", "ticket"));
+    }
+
+    @Test
+    void indexOfParameterStartsAtSegment() {
+        assertEquals(11, QueryStrings.indexOfParameter("noticket=1&ticket=2", "ticket", 0));
+        assertEquals(-1, QueryStrings.indexOfParameter("a=1&b=2", "ticket", 0));
+        assertEquals(13, QueryStrings.indexOfParameter("ticket=1&a=2&ticket=3", "ticket", 9));
+    }
+
+    @Test
+    void appendWithoutRemovesEveryOccurrence() {
+        assertAppendWithout("?a=1&b=2", "ticket=ST-1&a=1&ticket=ST-2&b=2");
+        assertAppendWithout("?noticket=1&ticketx=2", "noticket=1&ticket&ticketx=2");
+        assertAppendWithout("?a=%23frag", "a=%23frag&ticket=ST-1");
+        final StringBuilder buffer = new StringBuilder("/app");
+        assertFalse(QueryStrings.appendWithout(buffer, "ticket=ST-1", "ticket"));
+        assertEquals("/app", buffer.toString());
+        assertFalse(QueryStrings.appendWithout(buffer, "", "ticket"));
+    }
+
+    @Test
+    void appendWithoutKeepsEmptySegments() {
+        assertAppendWithout("?a=1&", "a=1&");
+        assertAppendWithout("?&a=1", "&a=1&ticket=x");
+    }
+
+    private static void assertAppendWithout(String expected, String query) {
+        final StringBuilder buffer = new StringBuilder();
+        assertTrue(QueryStrings.appendWithout(buffer, query, "ticket"));
+        assertEquals(expected, buffer.toString());
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.wpyuan.casclienthelper.validation;
+
+import com.github.wpyuan.casclienthelper.resilience.CasServerUnavailableException;
+import org.jasig.cas.client.authentication.AttributePrincipalImpl;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.AssertionImpl;
+import org.jasig.cas.client.validation.TicketValidationException;
+import org.jasig.cas.client.validation.TicketValidator;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * <p>
+ * 校验结果缓存及并发合并
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/20 15:40
+ */
+class TicketValidationCacheTest {
+
+    private static final Assertion ASSERTION = new AssertionImpl(new AttributePrincipalImpl("alice"));
+
+    @Test
+    void cachesSuccessAndFailure() throws Exception {
+        final TicketValidationCache cache = new TicketValidationCache();
+        final AtomicInteger calls = new AtomicInteger();
+        final TicketValidator validator = (ticket, service) -> {
+            calls.incrementAndGet();
+            if (ticket.startsWith("bad")) {
+                throw new TicketValidationException("invalid ticket");
+            }
+            return ASSERTION;
+        };
+        assertSame(ASSERTION, cache.validate(validator, "ST-1", "s", 60000L));
+        assertSame(ASSERTION, cache.validate(validator, "ST-1", "s", 60000L));
+        assertThrows(TicketValidationException.class, () -> cache.validate(validator, "bad", "s", 60000L));
+        assertThrows(TicketValidationException.class, () -> cache.validate(validator, "bad", "s", 60000L));
+        assertEquals(2, calls.get());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    void errorInLeaderReleasesWaiters() throws Exception {
+        final TicketValidationCache cache = new TicketValidationCache();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final TicketValidator failing = (ticket, service) -> {
+            entered.countDown();
+            await(release);
+            throw new NoClassDefFoundError("broken validator");
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Assertion> leader = executor.submit(() -> cache.validate(failing, "ST-1", "s", 60000L));
+            entered.await(5, TimeUnit.SECONDS);
+            final Future<Assertion> waiter = executor.submit(() -> cache.validate(failing, "ST-1", "s", 60000L));
+            while (cache.getCoalescedCount() == 0) {
+                Thread.sleep(5L);
+            }
+            release.countDown();
+
+            final ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(NoClassDefFoundError.class, leaderError.getCause());
+            final ExecutionException waiterError = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(NoClassDefFoundError.class, waiterError.getCause().getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        // 失败的校验不留在进行中，之后的请求重新校验
+        assertSame(ASSERTION, cache.validate((ticket, service) -> ASSERTION, "ST-1", "s", 60000L));
+    }
+
+    @Test
+    void waiterGivesUpAfterTimeout() throws Exception {
+        final TicketValidationCache cache = new TicketValidationCache();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final TicketValidator slow = (ticket, service) -> {
+            entered.countDown();
+            await(release);
+            return ASSERTION;
+        };
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Assertion> leader = executor.submit(() -> cache.validate(slow, "ST-1", "s", 60000L, 50L));
+            entered.await(5, TimeUnit.SECONDS);
+            assertThrows(CasServerUnavailableException.class, () -> cache.validate(slow, "ST-1", "s", 60000L, 50L));
+            release.countDown();
+            assertSame(ASSERTION, leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertSame(ASSERTION, cache.validate(slow, "ST-1", "s", 60000L, 50L));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
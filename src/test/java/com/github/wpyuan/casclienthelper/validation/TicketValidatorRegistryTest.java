@@ -0,0 +1,101 @@
+package com.github.wpyuan.casclienthelper.validation;
+
+import com.github.wpyuan.casclienthelper.config.DefaultCasClientConfig;
+import com.github.wpyuan.casclienthelper.http.CasHttpTransport;
+import org.jasig.cas.client.validation.Assertion;
+import org.jasig.cas.client.validation.Cas10TicketValidator;
+import org.jasig.cas.client.validation.Cas20ProxyTicketValidator;
+import org.jasig.cas.client.validation.TicketValidationException;
+import org.jasig.cas.client.validation.TicketValidator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * <p>
+ * 校验器选择：CAS 2.0/3.0默认经{@link CasHttpTransport}流式校验
+ * </p>
+ *
+ * @author wangpeiyuan
+ * @date 2026/10/20 17:00
+ */
+class TicketValidatorRegistryTest {
+
+    private static final String SUCCESS = "<cas:serviceResponse xmlns:cas=\"http://www.yale.edu/tp/cas\">"
+            + "<cas:authenticationSuccess><cas:user>alice</cas:user>"
+            + "<cas:attributes><cas:mail>alice@example.com</cas:mail><cas:memberOf>a</cas:memberOf><cas:memberOf>b</cas:memberOf></cas:attributes>"
+            + "</cas:authenticationSuccess></cas:serviceResponse>";
+    private static final String FAILURE = "<cas:serviceResponse xmlns:cas=\"http://www.yale.edu/tp/cas\">"
+            + "<cas:authenticationFailure code=\"INVALID_TICKET\">Ticket ST-1 not recognized</cas:authenticationFailure>"
+            + "</cas:serviceResponse>";
+
+    private final TicketValidatorRegistry registry = new TicketValidatorRegistry();
+
+    @Test
+    void cas20AndCas30DefaultToStreamingThroughTransport() throws Exception {
+        final List<URL> urls = new ArrayList<>();
+        final CasHttpTransport transport = stub(urls, SUCCESS);
+        final TicketValidator validator = this.registry.getValidator(config(transport).build());
+        assertInstanceOf(StreamingCasTicketValidator.class, validator);
+        assertSame(validator, this.registry.getValidator(config(transport).build()));
+
+        final Assertion assertion = validator.validate("ST-1", "https://app/index");
+        assertEquals("alice", assertion.getPrincipal().getName());
+        assertEquals("alice@example.com", assertion.getPrincipal().getAttributes().get("mail"));
+        assertEquals(Arrays.asList("a", "b"), assertion.getPrincipal().getAttributes().get("memberOf"));
+        assertEquals("https://cas/proxyValidate?ticket=ST-1&service=https%3A%2F%2Fapp%2Findex", urls.get(0).toString());
+
+        final TicketValidator cas30 = this.registry.getValidator(config(transport).validationProtocol(ValidationProtocol.CAS30).build());
+        assertInstanceOf(StreamingCasTicketValidator.class, cas30);
+        cas30.validate("ST-2", "https://app/index");
+        assertEquals("https://cas/p3/serviceValidate?ticket=ST-2&service=https%3A%2F%2Fapp%2Findex", urls.get(1).toString());
+    }
+
+    @Test
+    void streamingValidatorReportsFailure() {
+        final TicketValidator validator = this.registry.getValidator(config(stub(new ArrayList<>(), FAILURE)).build());
+        final TicketValidationException e = assertThrows(TicketValidationException.class, () -> validator.validate("ST-1", "https://app/index"));
+        assertEquals("Ticket ST-1 not recognized", e.getMessage());
+    }
+
+    @Test
+    void otherProtocolsAndOptOutUseCasClientCoreValidators() {
+        assertInstanceOf(Cas10TicketValidator.class,
+                this.registry.getValidator(config(null).validationProtocol(ValidationProtocol.CAS10).build()));
+        assertInstanceOf(Cas20ProxyTicketValidator.class,
+                this.registry.getValidator(config(null).streamingValidation(false).build()));
+    }
+
+    @Test
+    void configuredValidatorIsUsedAsIs() {
+        final TicketValidator custom = (ticket, service) -> null;
+        assertSame(custom, this.registry.getValidator(config(null).ticketValidator(custom).build()));
+    }
+
+    private static DefaultCasClientConfig.DefaultCasClientConfigBuilder config(CasHttpTransport transport) {
+        return new DefaultCasClientConfig().toBuilder()
+                .casServerUrlPrefix("https://cas")
+                .httpTransport(transport);
+    }
+
+    private static CasHttpTransport stub(List<URL> urls, String response) {
+        return new CasHttpTransport() {
+            @Override
+            public <T> T execute(URL url, ResponseHandler<T> handler) throws IOException {
+                urls.add(url);
+                return handler.handle(new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)));
+            }
+        };
+    }
+}